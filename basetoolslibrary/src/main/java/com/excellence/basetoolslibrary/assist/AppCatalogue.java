@@ -0,0 +1,471 @@
+package com.excellence.basetoolslibrary.assist;
+
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.collection.LruCache;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 已安装应用目录：替代频繁调用{@link com.excellence.basetoolslibrary.utils.AppUtils#getAllInstalledApps(Context)}
+ *
+ *              首次使用时在后台线程加载一次桌面应用的名称、版本等信息，之后监听应用安装、卸载、更新广播，只更新变化的应用
+ *              对外提供不可修改的快照，快照变化时在主线程回调
+ *              图标在使用时才解码，在图标线程池加载，按组件缓存固定数量；
+ *              每个应用信息带有版本号，解码完成时应用已更新的，图标只回调不缓存
+ * </pre>
+ */
+public class AppCatalogue {
+
+    private static final int DEFAULT_ICON_CACHE_SIZE = 64;
+    private static final int ICON_THREAD_COUNT = 2;
+
+    private static volatile AppCatalogue sInstance = null;
+
+    private final Context mContext;
+    private final PackageManager mPackageManager;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService mLoadExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService mIconExecutor = Executors.newFixedThreadPool(ICON_THREAD_COUNT);
+    private final LruCache<ComponentName, Drawable> mIconCache = new LruCache<>(DEFAULT_ICON_CACHE_SIZE);
+    private final List<OnCatalogueChangeListener> mListeners = new CopyOnWriteArrayList<>();
+    private final CountDownLatch mLoadLatch = new CountDownLatch(1);
+    private final Comparator<AppEntry> mComparator;
+
+    /**
+     * 组件当前的应用信息版本，与图标缓存一起由mIconCache的锁保护
+     */
+    private final Map<ComponentName, Long> mIconVersions = new HashMap<>();
+
+    /**
+     * 只在加载线程修改
+     */
+    private final List<AppEntry> mApps = new ArrayList<>();
+    private volatile List<AppEntry> mSnapshot = Collections.emptyList();
+    private long mEntryVersion = 0;
+    private boolean isReceiverRegistered = false;
+    private volatile boolean isReleased = false;
+
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Uri data = intent.getData();
+            if (data == null) {
+                return;
+            }
+            final String packageName = data.getSchemeSpecificPart();
+            if (Intent.ACTION_PACKAGE_REMOVED.equals(intent.getAction())
+                    && intent.getBooleanExtra(Intent.EXTRA_REPLACING, false)) {
+                // 覆盖安装，随后会收到ACTION_PACKAGE_ADDED
+                return;
+            }
+            if (isReleased) {
+                return;
+            }
+            try {
+                mLoadExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        updatePackage(packageName);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 已释放
+            }
+        }
+    };
+
+    public static AppCatalogue getInstance(@NonNull Context context) {
+        if (sInstance == null) {
+            synchronized (AppCatalogue.class) {
+                if (sInstance == null) {
+                    sInstance = new AppCatalogue(context.getApplicationContext());
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    private AppCatalogue(Context context) {
+        mContext = context;
+        mPackageManager = context.getPackageManager();
+        final Collator collator = Collator.getInstance();
+        mComparator = new Comparator<AppEntry>() {
+            @Override
+            public int compare(AppEntry o1, AppEntry o2) {
+                return collator.compare(o1.label, o2.label);
+            }
+        };
+        registerReceiver();
+        mLoadExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                loadAll();
+            }
+        });
+    }
+
+    /**
+     * 所有桌面应用，首次加载完成前为空
+     *
+     * @return 不可修改的快照，按名称排序
+     */
+    public List<AppEntry> getAllApps() {
+        return mSnapshot;
+    }
+
+    /**
+     * 等待首次加载完成，不能在主线程调用
+     *
+     * @param timeoutMillis 超时时间
+     * @return 不可修改的快照
+     */
+    public List<AppEntry> awaitAllApps(long timeoutMillis) {
+        try {
+            mLoadLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        return mSnapshot;
+    }
+
+    /**
+     * 系统应用
+     *
+     * @return
+     */
+    public List<AppEntry> getSystemApps() {
+        List<AppEntry> apps = new ArrayList<>();
+        for (AppEntry entry : mSnapshot) {
+            if (entry.isSystemApp()) {
+                apps.add(entry);
+            }
+        }
+        return apps;
+    }
+
+    /**
+     * 第三方应用，包含更新过的系统应用
+     *
+     * @return
+     */
+    public List<AppEntry> getUserApps() {
+        List<AppEntry> apps = new ArrayList<>();
+        for (AppEntry entry : mSnapshot) {
+            if (entry.isUserApp()) {
+                apps.add(entry);
+            }
+        }
+        return apps;
+    }
+
+    public void addOnCatalogueChangeListener(@NonNull OnCatalogueChangeListener listener) {
+        mListeners.add(listener);
+    }
+
+    public void removeOnCatalogueChangeListener(OnCatalogueChangeListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * 获取已缓存的图标
+     *
+     * @param entry 应用
+     * @return 未缓存时返回null
+     */
+    public Drawable getCachedIcon(@NonNull AppEntry entry) {
+        return newDrawable(mIconCache.get(entry.getComponentName()));
+    }
+
+    /**
+     * 加载图标：已缓存时直接回调，否则在图标线程池解码后在主线程回调
+     * {@link #release()}后不再解码，直接回调null
+     *
+     * @param entry 应用
+     * @param listener 回调
+     */
+    @MainThread
+    public void loadIcon(@NonNull final AppEntry entry, @NonNull final OnIconLoadListener listener) {
+        Drawable cached = mIconCache.get(entry.getComponentName());
+        if (cached != null) {
+            listener.onIconLoaded(entry, newDrawable(cached));
+            return;
+        }
+        if (isReleased) {
+            listener.onIconLoaded(entry, null);
+            return;
+        }
+        try {
+            mIconExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Drawable icon = null;
+                    try {
+                        icon = entry.mActivityInfo.loadIcon(mPackageManager);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                    if (icon != null) {
+                        cacheIcon(entry, icon);
+                    }
+                    final Drawable result = newDrawable(icon);
+                    mMainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onIconLoaded(entry, result);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // release()与loadIcon()同时调用
+            listener.onIconLoaded(entry, null);
+        }
+    }
+
+    /**
+     * 应用信息仍是组件的当前版本时才缓存图标，解码期间应用已更新的不缓存
+     */
+    private void cacheIcon(AppEntry entry, Drawable icon) {
+        synchronized (mIconCache) {
+            Long version = mIconVersions.get(entry.getComponentName());
+            if (version != null && version == entry.mVersion) {
+                mIconCache.put(entry.getComponentName(), icon);
+            }
+        }
+    }
+
+    /**
+     * 停止监听应用变化，释放缓存
+     */
+    public void release() {
+        synchronized (AppCatalogue.class) {
+            isReleased = true;
+            if (isReceiverRegistered) {
+                isReceiverRegistered = false;
+                mContext.unregisterReceiver(mPackageReceiver);
+            }
+            mListeners.clear();
+            synchronized (mIconCache) {
+                mIconVersions.clear();
+                mIconCache.evictAll();
+            }
+            mLoadExecutor.shutdown();
+            mIconExecutor.shutdown();
+            if (sInstance == this) {
+                sInstance = null;
+            }
+        }
+    }
+
+    private void registerReceiver() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+        mContext.registerReceiver(mPackageReceiver, filter);
+        isReceiverRegistered = true;
+    }
+
+    /**
+     * 同一个Drawable不能同时设置给多个View，复制一份
+     */
+    private static Drawable newDrawable(Drawable drawable) {
+        if (drawable == null || drawable.getConstantState() == null) {
+            return drawable;
+        }
+        return drawable.getConstantState().newDrawable();
+    }
+
+    private void loadAll() {
+        try {
+            List<AppEntry> apps = queryApps(null);
+            synchronized (mIconCache) {
+                for (AppEntry entry : apps) {
+                    mIconVersions.put(entry.getComponentName(), entry.mVersion);
+                }
+            }
+            mApps.clear();
+            mApps.addAll(apps);
+            publish();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            mLoadLatch.countDown();
+        }
+    }
+
+    private void updatePackage(String packageName) {
+        try {
+            List<AppEntry> apps = queryApps(packageName);
+            /**
+             * 先更新版本再移除图标，之后完成的旧版本解码不会再缓存
+             */
+            synchronized (mIconCache) {
+                for (int i = mApps.size() - 1; i >= 0; i--) {
+                    AppEntry entry = mApps.get(i);
+                    if (entry.packageName.equals(packageName)) {
+                        mApps.remove(i);
+                        mIconVersions.remove(entry.getComponentName());
+                        mIconCache.remove(entry.getComponentName());
+                    }
+                }
+                for (AppEntry entry : apps) {
+                    mIconVersions.put(entry.getComponentName(), entry.mVersion);
+                }
+            }
+            mApps.addAll(apps);
+            publish();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 查询桌面应用
+     *
+     * @param packageName 指定包名，null时查询全部
+     */
+    private List<AppEntry> queryApps(String packageName) {
+        Intent mainIntent = new Intent(Intent.ACTION_MAIN, null);
+        mainIntent.addCategory(Intent.CATEGORY_LAUNCHER);
+        if (packageName != null) {
+            mainIntent.setPackage(packageName);
+        }
+        List<ResolveInfo> resolveInfos = mPackageManager.queryIntentActivities(mainIntent, 0);
+        List<AppEntry> apps = new ArrayList<>(resolveInfos.size());
+        for (ResolveInfo resolveInfo : resolveInfos) {
+            ActivityInfo activityInfo = resolveInfo.activityInfo;
+            String versionName = null;
+            int versionCode = 0;
+            try {
+                PackageInfo packageInfo = mPackageManager.getPackageInfo(activityInfo.packageName, 0);
+                versionName = packageInfo.versionName;
+                versionCode = packageInfo.versionCode;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            CharSequence label = resolveInfo.loadLabel(mPackageManager);
+            apps.add(new AppEntry(activityInfo, label == null ? activityInfo.name : label.toString(), versionName, versionCode,
+                    ++mEntryVersion));
+        }
+        return apps;
+    }
+
+    private void publish() {
+        List<AppEntry> sorted = new ArrayList<>(mApps);
+        Collections.sort(sorted, mComparator);
+        final List<AppEntry> snapshot = Collections.unmodifiableList(sorted);
+        mSnapshot = snapshot;
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (OnCatalogueChangeListener listener : mListeners) {
+                    listener.onCatalogueChanged(snapshot);
+                }
+            }
+        });
+    }
+
+    /**
+     * 应用信息，不可修改
+     */
+    public static final class AppEntry {
+
+        public final String packageName;
+        public final String className;
+        public final String label;
+        public final String versionName;
+        public final int versionCode;
+        public final int flags;
+        private final ActivityInfo mActivityInfo;
+        private final ComponentName mComponentName;
+        private final long mVersion;
+
+        AppEntry(ActivityInfo activityInfo, String label, String versionName, int versionCode, long version) {
+            this.packageName = activityInfo.packageName;
+            this.className = activityInfo.name;
+            this.label = label;
+            this.versionName = versionName;
+            this.versionCode = versionCode;
+            this.flags = activityInfo.applicationInfo.flags;
+            mActivityInfo = activityInfo;
+            mComponentName = new ComponentName(packageName, className);
+            mVersion = version;
+        }
+
+        public ComponentName getComponentName() {
+            return mComponentName;
+        }
+
+        public boolean isSystemApp() {
+            return (flags & ApplicationInfo.FLAG_SYSTEM) != 0;
+        }
+
+        public boolean isUserApp() {
+            return (flags & ApplicationInfo.FLAG_SYSTEM) == 0 || (flags & ApplicationInfo.FLAG_UPDATED_SYSTEM_APP) != 0;
+        }
+
+        /**
+         * 启动应用的Intent
+         *
+         * @return
+         */
+        public Intent getLaunchIntent() {
+            Intent intent = new Intent(Intent.ACTION_MAIN);
+            intent.addCategory(Intent.CATEGORY_LAUNCHER);
+            intent.setComponent(mComponentName);
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_RESET_TASK_IF_NEEDED);
+            return intent;
+        }
+    }
+
+    /**
+     * 应用列表变化回调，在主线程回调
+     */
+    public interface OnCatalogueChangeListener {
+
+        void onCatalogueChanged(List<AppEntry> apps);
+    }
+
+    /**
+     * 图标加载回调，在主线程回调
+     */
+    public interface OnIconLoadListener {
+
+        void onIconLoaded(AppEntry entry, Drawable icon);
+    }
+}
@@ -0,0 +1,142 @@
+package com.excellence.basetoolslibrary.assist;
+
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 合并：只执行最新的一次触发
+ *
+ *              不指定线程池时，同一轮消息循环内的多次触发合并为一次主线程回调
+ *              指定线程池时，回调在线程池执行，同时最多一个在执行；执行期间的触发只保留最新值，结束后再执行一次
+ *              消息通过{@link WeakHandler}投递
+ * </pre>
+ */
+public class Coalescer<T> {
+
+    private final WeakHandler mHandler = new WeakHandler(Looper.getMainLooper());
+    private final Executor mExecutor;
+    private final OnTriggerListener<T> mListener;
+
+    private T mValue = null;
+    private T mRunningValue = null;
+    private boolean isPending = false;
+    private boolean isScheduled = false;
+    private boolean isRunning = false;
+
+    private final Runnable mDispatchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isScheduled = false;
+            dispatch();
+        }
+    };
+
+    private final Runnable mExecuteRunnable = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                mListener.onTrigger(mRunningValue);
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                mHandler.post(mCompleteRunnable);
+            }
+        }
+    };
+
+    private final Runnable mCompleteRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isRunning = false;
+            mRunningValue = null;
+            dispatch();
+        }
+    };
+
+    /**
+     * 在主线程回调
+     *
+     * @param listener 回调
+     */
+    public Coalescer(@NonNull OnTriggerListener<T> listener) {
+        this(null, listener);
+    }
+
+    /**
+     * @param executor 回调执行的线程池，null时在主线程回调
+     * @param listener 回调
+     */
+    public Coalescer(Executor executor, @NonNull OnTriggerListener<T> listener) {
+        mExecutor = executor;
+        mListener = listener;
+    }
+
+    /**
+     * 触发
+     *
+     * @param value 回调时传入的值，覆盖之前未执行的值
+     */
+    @MainThread
+    public void trigger(T value) {
+        mValue = value;
+        isPending = true;
+        if (!isScheduled && !isRunning) {
+            isScheduled = true;
+            mHandler.post(mDispatchRunnable);
+        }
+    }
+
+    /**
+     * 取消未执行的触发，正在执行的回调不受影响
+     */
+    @MainThread
+    public void cancel() {
+        isPending = false;
+        mValue = null;
+        if (isScheduled) {
+            isScheduled = false;
+            mHandler.removeCallbacks(mDispatchRunnable);
+        }
+    }
+
+    public boolean isPending() {
+        return isPending;
+    }
+
+    /**
+     * @return 线程池中是否有正在执行的回调
+     */
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    private void dispatch() {
+        if (!isPending || isRunning) {
+            return;
+        }
+        T value = mValue;
+        mValue = null;
+        isPending = false;
+        if (mExecutor == null) {
+            mListener.onTrigger(value);
+            return;
+        }
+        isRunning = true;
+        mRunningValue = value;
+        try {
+            mExecutor.execute(mExecuteRunnable);
+        } catch (Exception e) {
+            e.printStackTrace();
+            isRunning = false;
+            mRunningValue = null;
+        }
+    }
+}
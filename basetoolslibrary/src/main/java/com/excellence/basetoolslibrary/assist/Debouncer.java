@@ -0,0 +1,113 @@
+package com.excellence.basetoolslibrary.assist;
+
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 防抖：连续触发时，停止触发delay之后才回调一次，使用最后一次的值
+ *
+ *              每次触发只更新值和截止时间，不重新投递消息，到点后截止时间未到则补投一次
+ *              消息通过{@link WeakHandler}投递，在主线程回调
+ * </pre>
+ */
+public class Debouncer<T> {
+
+    private final WeakHandler mHandler = new WeakHandler(Looper.getMainLooper());
+    private final long mDelayMillis;
+    private final OnTriggerListener<T> mListener;
+
+    private T mValue = null;
+    private long mDeadline = 0;
+    private boolean isPending = false;
+    private boolean isScheduled = false;
+
+    private final Runnable mRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isScheduled = false;
+            if (!isPending) {
+                return;
+            }
+            if (SystemClock.uptimeMillis() < mDeadline) {
+                schedule();
+                return;
+            }
+            dispatch();
+        }
+    };
+
+    /**
+     * @param delayMillis 静默时长
+     * @param listener 回调
+     */
+    public Debouncer(long delayMillis, @NonNull OnTriggerListener<T> listener) {
+        mDelayMillis = Math.max(0, delayMillis);
+        mListener = listener;
+    }
+
+    /**
+     * 触发
+     *
+     * @param value 回调时传入的值
+     */
+    @MainThread
+    public void trigger(T value) {
+        mValue = value;
+        mDeadline = SystemClock.uptimeMillis() + mDelayMillis;
+        isPending = true;
+        if (!isScheduled) {
+            schedule();
+        }
+    }
+
+    /**
+     * 有等待中的回调时立即执行
+     */
+    @MainThread
+    public void flush() {
+        if (isPending) {
+            unschedule();
+            dispatch();
+        }
+    }
+
+    /**
+     * 取消等待中的回调
+     */
+    @MainThread
+    public void cancel() {
+        isPending = false;
+        mValue = null;
+        unschedule();
+    }
+
+    public boolean isPending() {
+        return isPending;
+    }
+
+    private void schedule() {
+        isScheduled = true;
+        mHandler.postAtTime(mRunnable, mDeadline);
+    }
+
+    private void unschedule() {
+        if (isScheduled) {
+            isScheduled = false;
+            mHandler.removeCallbacks(mRunnable);
+        }
+    }
+
+    private void dispatch() {
+        T value = mValue;
+        mValue = null;
+        isPending = false;
+        mListener.onTrigger(value);
+    }
+}
@@ -0,0 +1,408 @@
+package com.excellence.basetoolslibrary.assist;
+
+import android.util.SparseArray;
+
+import com.excellence.basetoolslibrary.utils.CloseUtils;
+import com.excellence.basetoolslibrary.utils.MediaUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 多媒体信息索引：按（路径、大小、修改时间）缓存{@link MediaUtils#getMetadata(String, int...)}的结果，保存为紧凑的二进制文件
+ *
+ *              首次查询时才加载索引文件，文件的大小或修改时间变化后才重新读取多媒体信息
+ *              {@link #rescan(File, FileFilter, int)}只读取目录中新增和变化的文件，并移除已删除的文件
+ *              记录的大小和修改时间在读取多媒体信息之前获取，读取期间文件被修改时，下次查询会重新读取
+ *              无法读取的文件记录失败次数和时间，文件不变时按退避时间重试：1分钟起每次失败加倍，最长1天
+ *              {@link #save()}先写临时文件再重命名，索引没有变化时不写入
+ * </pre>
+ */
+public class MediaMetadataIndex {
+
+    private static final int MAGIC = 0x4d4d4958;
+    private static final int VERSION = 2;
+
+    private static final long RETRY_MIN_INTERVAL = 60 * 1000;
+    private static final long RETRY_MAX_INTERVAL = 24 * 60 * 60 * 1000;
+
+    /**
+     * writeUTF的长度限制为64K字节，过长的信息值截断
+     */
+    private static final int MAX_VALUE_LENGTH = 8 * 1024;
+
+    private final File mIndexFile;
+    private final int[] mKeyCodes;
+    private final ConcurrentMap<String, Entry> mEntries = new ConcurrentHashMap<>();
+    private final Object mLock = new Object();
+    private volatile boolean isLoaded = false;
+    private volatile boolean isDirty = false;
+
+    /**
+     * 读取{@link MediaUtils#DEFAULT_KEYS}
+     *
+     * @param indexFile 索引文件
+     */
+    public MediaMetadataIndex(@NonNull File indexFile) {
+        this(indexFile, MediaUtils.DEFAULT_KEYS);
+    }
+
+    /**
+     * @param indexFile 索引文件
+     * @param keyCodes 读取的信息键，与索引文件中记录的不一致时，索引文件作废
+     */
+    public MediaMetadataIndex(@NonNull File indexFile, @NonNull int... keyCodes) {
+        mIndexFile = indexFile;
+        mKeyCodes = keyCodes.clone();
+    }
+
+    /**
+     * 只查询索引，不读取文件
+     *
+     * @param path 文件路径
+     * @return 文件未变化时返回缓存的信息，否则返回null
+     */
+    @WorkerThread
+    public MediaUtils.MediaMetadata getCached(String path) {
+        ensureLoaded();
+        Entry entry = mEntries.get(path);
+        if (entry == null || !entry.matches(new File(path))) {
+            return null;
+        }
+        return entry.mMetadata;
+    }
+
+    /**
+     * 查询多媒体信息，索引中没有、文件已变化或无法读取的文件到了重试时间时重新读取
+     *
+     * @param path 文件路径
+     * @return 无法读取时返回null
+     */
+    @WorkerThread
+    public MediaUtils.MediaMetadata get(String path) {
+        ensureLoaded();
+        File file = new File(path);
+        long size = file.length();
+        long lastModified = file.lastModified();
+        Entry entry = mEntries.get(path);
+        if (entry != null && entry.matches(size, lastModified) && !entry.isRetryDue(System.currentTimeMillis())) {
+            return entry.mMetadata;
+        }
+        return extract(path, size, lastModified, MediaUtils.getMetadata(path, mKeyCodes));
+    }
+
+    /**
+     * 重新扫描目录（不包含子目录）：读取新增和变化的文件，移除已删除的文件
+     *
+     * @param dir 目录
+     * @param filter 文件过滤，可为null
+     * @param parallelism 最大并行数
+     * @return 重新读取的文件数
+     */
+    @WorkerThread
+    public int rescan(@NonNull File dir, FileFilter filter, int parallelism) {
+        ensureLoaded();
+        File[] files = filter == null ? dir.listFiles() : dir.listFiles(filter);
+        if (files == null) {
+            return 0;
+        }
+
+        List<String> stalePaths = new ArrayList<>();
+        List<long[]> staleStamps = new ArrayList<>();
+        Set<String> existingPaths = new HashSet<>(files.length * 2);
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            String path = file.getPath();
+            existingPaths.add(path);
+            long size = file.length();
+            long lastModified = file.lastModified();
+            Entry entry = mEntries.get(path);
+            if (entry == null || !entry.matches(size, lastModified) || entry.isRetryDue(now)) {
+                stalePaths.add(path);
+                staleStamps.add(new long[]{size, lastModified});
+            }
+        }
+
+        String dirPrefix = dir.getPath() + File.separator;
+        Iterator<Map.Entry<String, Entry>> iterator = mEntries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String path = iterator.next().getKey();
+            if (path.startsWith(dirPrefix) && path.indexOf(File.separatorChar, dirPrefix.length()) < 0
+                    && !existingPaths.contains(path) && !new File(path).exists()) {
+                iterator.remove();
+                isDirty = true;
+            }
+        }
+
+        if (stalePaths.isEmpty()) {
+            return 0;
+        }
+        List<MediaUtils.MediaMetadata> metadataList = MediaUtils.getMetadata(stalePaths, parallelism, mKeyCodes);
+        for (int i = 0; i < stalePaths.size(); i++) {
+            long[] stamp = staleStamps.get(i);
+            extract(stalePaths.get(i), stamp[0], stamp[1], metadataList.get(i));
+        }
+        return stalePaths.size();
+    }
+
+    /**
+     * 移除一个文件的记录
+     *
+     * @param path 文件路径
+     */
+    public void remove(String path) {
+        ensureLoaded();
+        if (mEntries.remove(path) != null) {
+            isDirty = true;
+        }
+    }
+
+    /**
+     * 索引中的文件数
+     *
+     * @return
+     */
+    public int size() {
+        ensureLoaded();
+        return mEntries.size();
+    }
+
+    /**
+     * 保存索引文件
+     *
+     * @return {@code true}:成功或没有变化<br>{@code false}:失败
+     */
+    @WorkerThread
+    public boolean save() {
+        synchronized (mLock) {
+            if (!isLoaded || !isDirty) {
+                return true;
+            }
+            isDirty = false;
+            File parent = mIndexFile.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                isDirty = true;
+                return false;
+            }
+            File tempFile = new File(mIndexFile.getPath() + ".tmp");
+            FileOutputStream fos = null;
+            DataOutputStream dos = null;
+            try {
+                fos = new FileOutputStream(tempFile);
+                dos = new DataOutputStream(new BufferedOutputStream(fos));
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                writeKeyCodes(dos);
+                List<Entry> entries = new ArrayList<>(mEntries.values());
+                dos.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    entry.write(dos);
+                }
+                dos.flush();
+                fos.getFD().sync();
+                dos.close();
+                dos = null;
+                if (tempFile.renameTo(mIndexFile)) {
+                    return true;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                CloseUtils.closeIOQuietly(dos, fos);
+                if (tempFile.exists()) {
+                    tempFile.delete();
+                }
+            }
+            isDirty = true;
+            return false;
+        }
+    }
+
+    /**
+     * 记录读取结果
+     *
+     * @param size 读取前获取的文件大小
+     * @param lastModified 读取前获取的修改时间
+     * @param metadata 为null时记录一次失败，文件未变化时累加失败次数
+     */
+    private MediaUtils.MediaMetadata extract(String path, long size, long lastModified, MediaUtils.MediaMetadata metadata) {
+        if (metadata != null) {
+            mEntries.put(path, new Entry(path, size, lastModified, metadata, 0, 0));
+        } else {
+            Entry previous = mEntries.get(path);
+            int failures = previous != null && previous.mMetadata == null && previous.matches(size, lastModified)
+                    ? previous.mFailures + 1 : 1;
+            mEntries.put(path, new Entry(path, size, lastModified, null, failures, System.currentTimeMillis()));
+        }
+        isDirty = true;
+        return metadata;
+    }
+
+    private void ensureLoaded() {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (mLock) {
+            if (isLoaded) {
+                return;
+            }
+            load();
+            isLoaded = true;
+        }
+    }
+
+    private void load() {
+        if (!mIndexFile.isFile()) {
+            return;
+        }
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(mIndexFile)));
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                return;
+            }
+            int[] keyCodes = new int[dis.readInt()];
+            for (int i = 0; i < keyCodes.length; i++) {
+                keyCodes[i] = dis.readInt();
+            }
+            if (!Arrays.equals(keyCodes, mKeyCodes)) {
+                return;
+            }
+            int count = dis.readInt();
+            for (int i = 0; i < count; i++) {
+                Entry entry = Entry.read(dis);
+                mEntries.put(entry.mPath, entry);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            mEntries.clear();
+        } finally {
+            CloseUtils.closeIOQuietly(dis);
+        }
+    }
+
+    private void writeKeyCodes(DataOutputStream dos) throws Exception {
+        dos.writeInt(mKeyCodes.length);
+        for (int keyCode : mKeyCodes) {
+            dos.writeInt(keyCode);
+        }
+    }
+
+    /**
+     * 一个文件的记录
+     */
+    private static final class Entry {
+
+        private final String mPath;
+        private final long mSize;
+        private final long mLastModified;
+        /**
+         * null表示文件无法读取
+         */
+        private final MediaUtils.MediaMetadata mMetadata;
+        /**
+         * 无法读取时，文件未变化期间连续失败的次数和最后一次失败的时间
+         */
+        private final int mFailures;
+        private final long mFailedTime;
+
+        Entry(String path, long size, long lastModified, MediaUtils.MediaMetadata metadata, int failures, long failedTime) {
+            mPath = path;
+            mSize = size;
+            mLastModified = lastModified;
+            mMetadata = metadata;
+            mFailures = failures;
+            mFailedTime = failedTime;
+        }
+
+        boolean matches(File file) {
+            return matches(file.length(), file.lastModified());
+        }
+
+        boolean matches(long size, long lastModified) {
+            return size == mSize && lastModified == mLastModified;
+        }
+
+        /**
+         * 无法读取的文件是否到了重试时间：间隔从{@link #RETRY_MIN_INTERVAL}开始每次失败加倍，不超过{@link #RETRY_MAX_INTERVAL}
+         *
+         * @param now 当前时间
+         * @return 读取成功的记录返回false
+         */
+        boolean isRetryDue(long now) {
+            if (mMetadata != null) {
+                return false;
+            }
+            int shift = Math.min(Math.max(mFailures - 1, 0), 20);
+            long interval = Math.min(RETRY_MIN_INTERVAL << shift, RETRY_MAX_INTERVAL);
+            // 系统时间被调早时也重试
+            return now - mFailedTime >= interval || now < mFailedTime;
+        }
+
+        /**
+         * 格式：路径 | 大小 | 修改时间 | 信息数（-1表示无法读取） | [键 | 是否有值 | 值]... 或 [失败次数 | 失败时间]
+         */
+        void write(DataOutputStream dos) throws Exception {
+            dos.writeUTF(mPath);
+            dos.writeLong(mSize);
+            dos.writeLong(mLastModified);
+            if (mMetadata == null) {
+                dos.writeShort(-1);
+                dos.writeInt(mFailures);
+                dos.writeLong(mFailedTime);
+                return;
+            }
+            dos.writeShort(mMetadata.size());
+            for (int i = 0; i < mMetadata.size(); i++) {
+                dos.writeInt(mMetadata.keyAt(i));
+                String value = mMetadata.valueAt(i);
+                dos.writeBoolean(value != null);
+                if (value != null) {
+                    dos.writeUTF(value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value);
+                }
+            }
+        }
+
+        static Entry read(DataInputStream dis) throws Exception {
+            String path = dis.readUTF();
+            long size = dis.readLong();
+            long lastModified = dis.readLong();
+            int count = dis.readShort();
+            if (count < 0) {
+                int failures = dis.readInt();
+                return new Entry(path, size, lastModified, null, failures, dis.readLong());
+            }
+            SparseArray<String> values = new SparseArray<>(count);
+            for (int i = 0; i < count; i++) {
+                int keyCode = dis.readInt();
+                values.put(keyCode, dis.readBoolean() ? dis.readUTF() : null);
+            }
+            return new Entry(path, size, lastModified, new MediaUtils.MediaMetadata(path, values), 0, 0);
+        }
+    }
+}
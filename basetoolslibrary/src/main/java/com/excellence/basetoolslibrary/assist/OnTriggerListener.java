@@ -0,0 +1,17 @@
+package com.excellence.basetoolslibrary.assist;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : {@link Debouncer}、{@link Throttler}、{@link Coalescer}的触发回调
+ * </pre>
+ */
+public interface OnTriggerListener<T> {
+
+    /**
+     * @param value 最近一次触发时传入的值
+     */
+    void onTrigger(T value);
+}
@@ -0,0 +1,312 @@
+package com.excellence.basetoolslibrary.assist;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : {@link WeakHandler}投递的Runnable登记表，保存Runnable的强引用，消息队列只持有{@link WeakRunnable}
+ *
+ *              不带token的按引用保存在并发哈希表中；带token的按Runnable分桶，桶内按token引用保存
+ *              按Runnable移除只访问它自己的桶，不遍历其他Runnable
+ *              桶清空后标记失效并移除，登记时遇到失效的桶则重新创建
+ * </pre>
+ */
+final class RunnableRegistry {
+
+    private final ConcurrentMap<RunnableKey, WeakRunnable> mRunnables = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RunnableKey, TokenBucket> mTokenRunnables = new ConcurrentHashMap<>();
+
+    /**
+     * 获取Runnable的包装，没有则登记一个；返回的包装可能已失效，{@link WeakRunnable#acquire()}失败时需要{@link #unregister(WeakRunnable)}后重新获取
+     *
+     * @param r Runnable
+     * @param token 可为null
+     * @return
+     */
+    WeakRunnable obtain(Runnable r, Object token) {
+        final RunnableKey key = new RunnableKey(r, null);
+        if (token == null) {
+            WeakRunnable runnable = mRunnables.get(key);
+            if (runnable == null) {
+                final WeakRunnable created = new WeakRunnable(r, null, this);
+                runnable = mRunnables.putIfAbsent(key, created);
+                if (runnable == null) {
+                    runnable = created;
+                }
+            }
+            return runnable;
+        }
+
+        while (true) {
+            TokenBucket bucket = mTokenRunnables.get(key);
+            if (bucket == null) {
+                final TokenBucket created = new TokenBucket();
+                bucket = mTokenRunnables.putIfAbsent(key, created);
+                if (bucket == null) {
+                    bucket = created;
+                }
+            }
+            synchronized (bucket) {
+                if (bucket.isDead) {
+                    mTokenRunnables.remove(key, bucket);
+                    continue;
+                }
+                WeakRunnable runnable = bucket.mWrappers.get(token);
+                if (runnable == null) {
+                    runnable = new WeakRunnable(r, token, this);
+                    bucket.mWrappers.put(token, runnable);
+                }
+                return runnable;
+            }
+        }
+    }
+
+    /**
+     * 移除包装的登记
+     *
+     * @param runnable 包装
+     * @return {@code true}:移除成功<br>{@code false}:已不在登记表中
+     */
+    boolean unregister(WeakRunnable runnable) {
+        final Runnable delegate = runnable.mDelegate.get();
+        if (delegate == null) {
+            // registered wrappers keep their runnable alive, a collected one is already gone
+            return false;
+        }
+        final RunnableKey key = new RunnableKey(delegate, null);
+        if (runnable.mToken == null) {
+            return mRunnables.remove(key, runnable);
+        }
+        final TokenBucket bucket = mTokenRunnables.get(key);
+        if (bucket == null) {
+            return false;
+        }
+        synchronized (bucket) {
+            if (bucket.mWrappers.get(runnable.mToken) != runnable) {
+                return false;
+            }
+            bucket.mWrappers.remove(runnable.mToken);
+            retireIfEmpty(key, bucket);
+            return true;
+        }
+    }
+
+    /**
+     * 移除一个Runnable与token的登记
+     *
+     * @param r Runnable
+     * @param token 可为null
+     * @return 移除的包装，没有则返回null
+     */
+    WeakRunnable remove(Runnable r, Object token) {
+        final RunnableKey key = new RunnableKey(r, null);
+        if (token == null) {
+            return mRunnables.remove(key);
+        }
+        final TokenBucket bucket = mTokenRunnables.get(key);
+        if (bucket == null) {
+            return null;
+        }
+        synchronized (bucket) {
+            final WeakRunnable runnable = bucket.mWrappers.remove(token);
+            retireIfEmpty(key, bucket);
+            return runnable;
+        }
+    }
+
+    /**
+     * 移除一个Runnable的所有登记，包括带token的
+     *
+     * @param r Runnable
+     * @return 移除的包装
+     */
+    List<WeakRunnable> removeAll(Runnable r) {
+        final List<WeakRunnable> removed = new ArrayList<>();
+        final RunnableKey key = new RunnableKey(r, null);
+        final WeakRunnable runnable = mRunnables.remove(key);
+        if (runnable != null) {
+            removed.add(runnable);
+        }
+        final TokenBucket bucket = mTokenRunnables.get(key);
+        if (bucket != null) {
+            synchronized (bucket) {
+                removed.addAll(bucket.mWrappers.values());
+                bucket.mWrappers.clear();
+                retireIfEmpty(key, bucket);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 按token移除登记
+     *
+     * @param token 为null时移除所有登记
+     * @return 移除的包装
+     */
+    List<WeakRunnable> removeByToken(Object token) {
+        final List<WeakRunnable> removed = new ArrayList<>();
+        if (token == null) {
+            for (Map.Entry<RunnableKey, WeakRunnable> entry : mRunnables.entrySet()) {
+                if (mRunnables.remove(entry.getKey(), entry.getValue())) {
+                    removed.add(entry.getValue());
+                }
+            }
+        }
+        for (Map.Entry<RunnableKey, TokenBucket> entry : mTokenRunnables.entrySet()) {
+            final TokenBucket bucket = entry.getValue();
+            synchronized (bucket) {
+                if (token == null) {
+                    removed.addAll(bucket.mWrappers.values());
+                    bucket.mWrappers.clear();
+                } else {
+                    final WeakRunnable runnable = bucket.mWrappers.remove(token);
+                    if (runnable != null) {
+                        removed.add(runnable);
+                    }
+                }
+                retireIfEmpty(entry.getKey(), bucket);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 登记的包装数
+     *
+     * @return
+     */
+    int size() {
+        int size = mRunnables.size();
+        for (TokenBucket bucket : mTokenRunnables.values()) {
+            synchronized (bucket) {
+                size += bucket.mWrappers.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 需要持有桶的锁
+     */
+    private void retireIfEmpty(RunnableKey key, TokenBucket bucket) {
+        if (bucket.mWrappers.isEmpty() && !bucket.isDead) {
+            bucket.isDead = true;
+            mTokenRunnables.remove(key, bucket);
+        }
+    }
+
+    /**
+     * 一个Runnable带token投递的包装，token按引用比较
+     */
+    private static final class TokenBucket {
+
+        private final Map<Object, WeakRunnable> mWrappers = new IdentityHashMap<>();
+        private boolean isDead = false;
+    }
+
+    /**
+     * Wrapper placed into the queue. It references the runnable weakly and counts its pending posts,
+     * the last run drops the hard reference from the registry.
+     */
+    static class WeakRunnable implements Runnable {
+
+        private static final int RETIRED = -1;
+
+        private final WeakReference<Runnable> mDelegate;
+        final Object mToken;
+        private final WeakReference<RunnableRegistry> mRegistry;
+        private final AtomicInteger mPending = new AtomicInteger();
+
+        WeakRunnable(Runnable delegate, Object token, RunnableRegistry registry) {
+            mDelegate = new WeakReference<>(delegate);
+            mToken = token;
+            mRegistry = new WeakReference<>(registry);
+        }
+
+        /**
+         * @return false if the wrapper is retired and must not be posted again
+         */
+        boolean acquire() {
+            while (true) {
+                final int pending = mPending.get();
+                if (pending < 0) {
+                    return false;
+                }
+                if (mPending.compareAndSet(pending, pending + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (mPending.decrementAndGet() != 0 || !mPending.compareAndSet(0, RETIRED)) {
+                return;
+            }
+            final RunnableRegistry registry = mRegistry.get();
+            if (registry != null) {
+                registry.unregister(this);
+            }
+        }
+
+        void retire() {
+            mPending.set(RETIRED);
+        }
+
+        boolean isRetired() {
+            return mPending.get() < 0;
+        }
+
+        @Override
+        public void run() {
+            final Runnable delegate = mDelegate.get();
+            release();
+            if (delegate != null) {
+                delegate.run();
+            }
+        }
+    }
+
+    /**
+     * Registry key, compares runnable and token by reference exactly how Handler does inside
+     */
+    static final class RunnableKey {
+
+        final Runnable mRunnable;
+        final Object mToken;
+        private final int mHashCode;
+
+        RunnableKey(Runnable runnable, Object token) {
+            mRunnable = runnable;
+            mToken = token;
+            mHashCode = 31 * System.identityHashCode(runnable) + System.identityHashCode(token);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RunnableKey)) {
+                return false;
+            }
+            final RunnableKey key = (RunnableKey) o;
+            return mRunnable == key.mRunnable && mToken == key.mToken;
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
+}
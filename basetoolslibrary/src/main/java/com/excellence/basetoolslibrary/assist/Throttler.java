@@ -0,0 +1,104 @@
+package com.excellence.basetoolslibrary.assist;
+
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 节流：每个间隔内最多回调一次
+ *
+ *              距上次回调超过间隔时立即回调；间隔内的触发只保留最后一次的值，在间隔结束时回调
+ *              消息通过{@link WeakHandler}投递，在主线程回调
+ * </pre>
+ */
+public class Throttler<T> {
+
+    private final WeakHandler mHandler = new WeakHandler(Looper.getMainLooper());
+    private final long mIntervalMillis;
+    private final OnTriggerListener<T> mListener;
+
+    private T mValue = null;
+    private long mLastTime = Long.MIN_VALUE;
+    private boolean isPending = false;
+    private boolean isScheduled = false;
+
+    private final Runnable mRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isScheduled = false;
+            if (isPending) {
+                dispatch(SystemClock.uptimeMillis());
+            }
+        }
+    };
+
+    /**
+     * @param intervalMillis 回调间隔
+     * @param listener 回调
+     */
+    public Throttler(long intervalMillis, @NonNull OnTriggerListener<T> listener) {
+        mIntervalMillis = Math.max(0, intervalMillis);
+        mListener = listener;
+    }
+
+    /**
+     * 触发
+     *
+     * @param value 回调时传入的值
+     */
+    @MainThread
+    public void trigger(T value) {
+        long now = SystemClock.uptimeMillis();
+        if (!isScheduled && (mLastTime == Long.MIN_VALUE || now - mLastTime >= mIntervalMillis)) {
+            mValue = value;
+            dispatch(now);
+            return;
+        }
+        mValue = value;
+        isPending = true;
+        if (!isScheduled) {
+            isScheduled = true;
+            mHandler.postAtTime(mRunnable, mLastTime + mIntervalMillis);
+        }
+    }
+
+    /**
+     * 取消间隔结束时的回调
+     */
+    @MainThread
+    public void cancel() {
+        isPending = false;
+        mValue = null;
+        if (isScheduled) {
+            isScheduled = false;
+            mHandler.removeCallbacks(mRunnable);
+        }
+    }
+
+    /**
+     * 重置间隔，下一次触发立即回调
+     */
+    @MainThread
+    public void reset() {
+        cancel();
+        mLastTime = Long.MIN_VALUE;
+    }
+
+    public boolean isPending() {
+        return isPending;
+    }
+
+    private void dispatch(long now) {
+        T value = mValue;
+        mValue = null;
+        isPending = false;
+        mLastTime = now;
+        mListener.onTrigger(value);
+    }
+}
@@ -0,0 +1,287 @@
+package com.excellence.basetoolslibrary.assist;
+
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 时间轮定时器：大量延时任务共用一个Looper消息，每个刻度只投递一次
+ *
+ *              任务按到期刻度散列到槽中，超过一圈的任务记录剩余圈数，添加和取消都是O(1)
+ *              到期时间按刻度向上取整，精度为一个刻度
+ *              刻度消息通过{@link WeakHandler}投递，Looper不持有时间轮，时间轮不再被引用时任务随之回收
+ *              没有待执行的任务时停止投递刻度消息
+ * </pre>
+ */
+
+public class TimerWheel {
+
+    private static final long DEFAULT_TICK_MILLIS = 100;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final Object mLock = new Object();
+    private final WeakHandler mHandler;
+    private final long mTickMillis;
+    private final int mMask;
+    private final Timeout[] mBuckets;
+    private final List<Timeout> mExpired = new ArrayList<>();
+
+    /**
+     * 下一个要处理的刻度，从{@link #mStartTime}开始计数
+     */
+    private long mTick = 0;
+    private long mStartTime = 0;
+    private int mPendingCount = 0;
+    private boolean isTicking = false;
+
+    private final Runnable mTickRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onTick();
+        }
+    };
+
+    /**
+     * 使用当前线程的Looper
+     *
+     * @throws IllegalStateException 当前线程没有Looper
+     */
+    public TimerWheel() {
+        this(myLooper(), DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param looper 任务执行的线程
+     * @param tickMillis 刻度时长，即定时精度
+     * @param wheelSize 槽数，向上取整为2的幂
+     */
+    public TimerWheel(@NonNull Looper looper, long tickMillis, int wheelSize) {
+        if (looper == null) {
+            throw new NullPointerException("Looper can't be null");
+        }
+        mHandler = new WeakHandler(looper);
+        mTickMillis = Math.max(1, tickMillis);
+        int size = 1;
+        while (size < wheelSize && size < (1 << 30)) {
+            size <<= 1;
+        }
+        mMask = size - 1;
+        mBuckets = new Timeout[size];
+    }
+
+    private static Looper myLooper() {
+        Looper looper = Looper.myLooper();
+        if (looper == null) {
+            throw new IllegalStateException("Can't create TimerWheel inside thread " + Thread.currentThread().getName()
+                    + " that has not called Looper.prepare(), use TimerWheel(Looper, long, int) instead");
+        }
+        return looper;
+    }
+
+    /**
+     * 添加延时任务，可在任意线程调用
+     *
+     * @param task 任务，在时间轮的Looper线程执行
+     * @param delayMillis 延时
+     * @return 任务句柄，用于取消
+     */
+    public Timeout schedule(@NonNull Runnable task, long delayMillis) {
+        if (task == null) {
+            throw new NullPointerException("Runnable can't be null");
+        }
+        Timeout timeout = new Timeout(this, task);
+        long now = SystemClock.uptimeMillis();
+        synchronized (mLock) {
+            if (mPendingCount == 0) {
+                mStartTime = now;
+                mTick = 0;
+            }
+            long deadline = now + Math.max(0, delayMillis);
+            long tick = (deadline - mStartTime + mTickMillis - 1) / mTickMillis;
+            tick = Math.max(tick, mTick);
+            timeout.mRounds = (tick - mTick) >> Integer.numberOfTrailingZeros(mBuckets.length);
+            timeout.mBucket = (int) (tick & mMask);
+            link(timeout);
+            mPendingCount++;
+            if (!isTicking) {
+                isTicking = true;
+                postTick();
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * 取消所有任务
+     */
+    public void cancelAll() {
+        synchronized (mLock) {
+            for (int i = 0; i < mBuckets.length; i++) {
+                Timeout timeout = mBuckets[i];
+                while (timeout != null) {
+                    Timeout next = timeout.mNext;
+                    timeout.mState = Timeout.STATE_CANCELLED;
+                    timeout.mPrev = null;
+                    timeout.mNext = null;
+                    timeout = next;
+                }
+                mBuckets[i] = null;
+            }
+            mPendingCount = 0;
+            isTicking = false;
+            mHandler.removeCallbacks(mTickRunnable);
+        }
+    }
+
+    /**
+     * 待执行的任务数
+     *
+     * @return
+     */
+    public int size() {
+        synchronized (mLock) {
+            return mPendingCount;
+        }
+    }
+
+    /**
+     * 处理所有已到时间的刻度，到期任务在锁外执行
+     */
+    private void onTick() {
+        long now = SystemClock.uptimeMillis();
+        synchronized (mLock) {
+            if (!isTicking) {
+                return;
+            }
+            while (mPendingCount > 0 && mStartTime + mTick * mTickMillis <= now) {
+                expireBucket((int) (mTick & mMask));
+                mTick++;
+            }
+            if (mPendingCount > 0) {
+                postTick();
+            } else {
+                isTicking = false;
+            }
+        }
+
+        for (int i = 0; i < mExpired.size(); i++) {
+            try {
+                mExpired.get(i).mTask.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        mExpired.clear();
+    }
+
+    private void expireBucket(int bucket) {
+        Timeout timeout = mBuckets[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.mNext;
+            if (timeout.mRounds <= 0) {
+                unlink(timeout);
+                mPendingCount--;
+                timeout.mState = Timeout.STATE_EXPIRED;
+                mExpired.add(timeout);
+            } else {
+                timeout.mRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    private void postTick() {
+        mHandler.removeCallbacks(mTickRunnable);
+        mHandler.postAtTime(mTickRunnable, mStartTime + mTick * mTickMillis);
+    }
+
+    private boolean cancel(Timeout timeout) {
+        synchronized (mLock) {
+            if (timeout.mState != Timeout.STATE_PENDING) {
+                return false;
+            }
+            unlink(timeout);
+            mPendingCount--;
+            timeout.mState = Timeout.STATE_CANCELLED;
+            if (mPendingCount == 0 && isTicking) {
+                isTicking = false;
+                mHandler.removeCallbacks(mTickRunnable);
+            }
+            return true;
+        }
+    }
+
+    private void link(Timeout timeout) {
+        Timeout head = mBuckets[timeout.mBucket];
+        timeout.mNext = head;
+        if (head != null) {
+            head.mPrev = timeout;
+        }
+        mBuckets[timeout.mBucket] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.mPrev != null) {
+            timeout.mPrev.mNext = timeout.mNext;
+        } else {
+            mBuckets[timeout.mBucket] = timeout.mNext;
+        }
+        if (timeout.mNext != null) {
+            timeout.mNext.mPrev = timeout.mPrev;
+        }
+        timeout.mPrev = null;
+        timeout.mNext = null;
+    }
+
+    /**
+     * 延时任务句柄
+     */
+    public static final class Timeout {
+
+        private static final int STATE_PENDING = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+
+        private final TimerWheel mWheel;
+        private final Runnable mTask;
+        private long mRounds = 0;
+        private int mBucket = 0;
+        private int mState = STATE_PENDING;
+        private Timeout mPrev = null;
+        private Timeout mNext = null;
+
+        private Timeout(TimerWheel wheel, Runnable task) {
+            mWheel = wheel;
+            mTask = task;
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return {@code true}:取消成功<br>{@code false}:已执行或已取消
+         */
+        public boolean cancel() {
+            return mWheel.cancel(this);
+        }
+
+        public boolean isCancelled() {
+            synchronized (mWheel.mLock) {
+                return mState == STATE_CANCELLED;
+            }
+        }
+
+        public boolean isExpired() {
+            synchronized (mWheel.mLock) {
+                return mState == STATE_EXPIRED;
+            }
+        }
+    }
+}
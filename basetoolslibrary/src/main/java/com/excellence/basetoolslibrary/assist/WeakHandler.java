@@ -29,9 +29,9 @@ import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 
+import com.excellence.basetoolslibrary.assist.RunnableRegistry.WeakRunnable;
+
 import java.lang.ref.WeakReference;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -62,6 +62,10 @@ import androidx.annotation.VisibleForTesting;
  *              转载自：https://github.com/badoo/android-weak-handler，
  *              销毁时，自动清除所有未处理的消息动作，
  *              作用等同于{@link Handler#removeCallbacksAndMessages(Object)}
+ *
+ *              投递的Runnable登记在{@link RunnableRegistry}中，同一个Runnable多次投递共用一个包装，
+ *              带token的按Runnable分桶，投递和移除只访问该Runnable的登记，不需要全局锁
+ *              包装的获取与投递、失效与移出队列在包装的锁内完成，与移除并发的投递不会留下没有强引用的包装
  * </pre>
  */
 
@@ -69,10 +73,16 @@ import androidx.annotation.VisibleForTesting;
 public class WeakHandler {
 	private final Handler.Callback mCallback; // hard reference to Callback. We need to keep callback in memory
 	private final ExecHandler mExec;
-	private Lock mLock = new ReentrantLock();
-	@SuppressWarnings("ConstantConditions")
+	/**
+	 * hard references to posted runnables, the queue only keeps {@link WeakRunnable}
+	 */
 	@VisibleForTesting
-	final ChainedRef mRunnables = new ChainedRef(mLock, null);
+	final RunnableRegistry mRegistry = new RunnableRegistry();
+
+	private static final int POST = 0;
+	private static final int POST_AT_TIME = 1;
+	private static final int POST_DELAYED = 2;
+	private static final int POST_AT_FRONT = 3;
 
 	/**
 	 * Default constructor associates this handler with the {@link Looper} for the
@@ -135,7 +145,7 @@ public class WeakHandler {
 	 *         looper processing the message queue is exiting.
 	 */
 	public final boolean post(@NonNull Runnable r) {
-		return mExec.post(wrapRunnable(r));
+		return enqueue(r, null, POST, 0);
 	}
 
 	/**
@@ -156,7 +166,7 @@ public class WeakHandler {
 	 *         occurs then the message will be dropped.
 	 */
 	public final boolean postAtTime(@NonNull Runnable r, long uptimeMillis) {
-		return mExec.postAtTime(wrapRunnable(r), uptimeMillis);
+		return enqueue(r, null, POST_AT_TIME, uptimeMillis);
 	}
 
 	/**
@@ -179,7 +189,7 @@ public class WeakHandler {
 	 * @see android.os.SystemClock#uptimeMillis
 	 */
 	public final boolean postAtTime(Runnable r, Object token, long uptimeMillis) {
-		return mExec.postAtTime(wrapRunnable(r), token, uptimeMillis);
+		return enqueue(r, token, POST_AT_TIME, uptimeMillis);
 	}
 
 	/**
@@ -200,7 +210,7 @@ public class WeakHandler {
 	 *         occurs then the message will be dropped.
 	 */
 	public final boolean postDelayed(Runnable r, long delayMillis) {
-		return mExec.postDelayed(wrapRunnable(r), delayMillis);
+		return enqueue(r, null, POST_DELAYED, delayMillis);
 	}
 
 	/**
@@ -219,16 +229,15 @@ public class WeakHandler {
 	 *         looper processing the message queue is exiting.
 	 */
 	public final boolean postAtFrontOfQueue(Runnable r) {
-		return mExec.postAtFrontOfQueue(wrapRunnable(r));
+		return enqueue(r, null, POST_AT_FRONT, 0);
 	}
 
 	/**
 	 * Remove any pending posts of Runnable r that are in the message queue.
 	 */
 	public final void removeCallbacks(Runnable r) {
-		final WeakRunnable runnable = mRunnables.remove(r);
-		if (runnable != null) {
-			mExec.removeCallbacks(runnable);
+		for (WeakRunnable runnable : mRegistry.removeAll(r)) {
+			retire(runnable, true);
 		}
 	}
 
@@ -238,9 +247,13 @@ public class WeakHandler {
 	 * all callbacks will be removed.
 	 */
 	public final void removeCallbacks(Runnable r, Object token) {
-		final WeakRunnable runnable = mRunnables.remove(r);
+		if (token == null) {
+			removeCallbacks(r);
+			return;
+		}
+		final WeakRunnable runnable = mRegistry.remove(r, token);
 		if (runnable != null) {
-			mExec.removeCallbacks(runnable, token);
+			retire(runnable, true);
 		}
 	}
 
@@ -371,6 +384,10 @@ public class WeakHandler {
 	 * all callbacks and messages will be removed.
 	 */
 	public final void removeCallbacksAndMessages(Object token) {
+		// the queue is cleared for the token below, the wrappers only need to be retired
+		for (WeakRunnable runnable : mRegistry.removeByToken(token)) {
+			retire(runnable, false);
+		}
 		mExec.removeCallbacksAndMessages(token);
 	}
 
@@ -394,14 +411,61 @@ public class WeakHandler {
 		return mExec.getLooper();
 	}
 
-	private WeakRunnable wrapRunnable(@NonNull Runnable r) {
+	/**
+	 * Acquires a wrapper and posts it while holding the wrapper's lock, a concurrent removal either retires
+	 * the wrapper before it is acquired, or takes it out of the queue after it is posted
+	 */
+	private boolean enqueue(@NonNull Runnable r, @Nullable Object token, int mode, long time) {
 		//noinspection ConstantConditions
 		if (r == null) {
 			throw new NullPointerException("Runnable can't be null");
 		}
-		final ChainedRef hardRef = new ChainedRef(mLock, r);
-		mRunnables.insertAfter(hardRef);
-		return hardRef.wrapper;
+		while (true) {
+			final WeakRunnable runnable = mRegistry.obtain(r, token);
+			synchronized (runnable) {
+				if (!runnable.acquire()) {
+					// retired by the last run or a removal, replace it
+					mRegistry.unregister(runnable);
+					continue;
+				}
+				final boolean posted = send(runnable, token, mode, time);
+				if (!posted) {
+					runnable.release();
+				}
+				return posted;
+			}
+		}
+	}
+
+	private boolean send(WeakRunnable runnable, Object token, int mode, long time) {
+		switch (mode) {
+			case POST_AT_TIME:
+				return token == null ? mExec.postAtTime(runnable, time) : mExec.postAtTime(runnable, token, time);
+
+			case POST_DELAYED:
+				return mExec.postDelayed(runnable, time);
+
+			case POST_AT_FRONT:
+				return mExec.postAtFrontOfQueue(runnable);
+
+			case POST:
+			default:
+				return mExec.post(runnable);
+		}
+	}
+
+	private void retire(WeakRunnable runnable, boolean dequeue) {
+		synchronized (runnable) {
+			runnable.retire();
+			if (!dequeue) {
+				return;
+			}
+			if (runnable.mToken == null) {
+				mExec.removeCallbacks(runnable);
+			} else {
+				mExec.removeCallbacks(runnable, runnable.mToken);
+			}
+		}
 	}
 
 	private static class ExecHandler extends Handler {
@@ -437,95 +501,4 @@ public class WeakHandler {
 			callback.handleMessage(msg);
 		}
 	}
-
-	static class WeakRunnable implements Runnable {
-		private final WeakReference<Runnable> mDelegate;
-		private final WeakReference<ChainedRef> mReference;
-
-		WeakRunnable(WeakReference<Runnable> delegate, WeakReference<ChainedRef> reference) {
-			mDelegate = delegate;
-			mReference = reference;
-		}
-
-		@Override
-		public void run() {
-			final Runnable delegate = mDelegate.get();
-			final ChainedRef reference = mReference.get();
-			if (reference != null) {
-				reference.remove();
-			}
-			if (delegate != null) {
-				delegate.run();
-			}
-		}
-	}
-
-	static class ChainedRef {
-		@Nullable
-		ChainedRef next;
-		@Nullable
-		ChainedRef prev;
-		@NonNull
-		final Runnable runnable;
-		@NonNull
-		final WeakRunnable wrapper;
-
-		@NonNull
-		Lock lock;
-
-		public ChainedRef(@NonNull Lock lock, @NonNull Runnable r) {
-			this.runnable = r;
-			this.lock = lock;
-			this.wrapper = new WeakRunnable(new WeakReference<>(r), new WeakReference<>(this));
-		}
-
-		public WeakRunnable remove() {
-			lock.lock();
-			try {
-				if (prev != null) {
-					prev.next = next;
-				}
-				if (next != null) {
-					next.prev = prev;
-				}
-				prev = null;
-				next = null;
-			} finally {
-				lock.unlock();
-			}
-			return wrapper;
-		}
-
-		public void insertAfter(@NonNull ChainedRef candidate) {
-			lock.lock();
-			try {
-				if (this.next != null) {
-					this.next.prev = candidate;
-				}
-
-				candidate.next = this.next;
-				this.next = candidate;
-				candidate.prev = this;
-			} finally {
-				lock.unlock();
-			}
-		}
-
-		@Nullable
-		public WeakRunnable remove(Runnable obj) {
-			lock.lock();
-			try {
-				ChainedRef curr = this.next; // Skipping head
-				while (curr != null) {
-					if (curr.runnable == obj) { // We do comparison exactly how Handler does inside
-						return curr.remove();
-					}
-					curr = curr.next;
-				}
-			} finally {
-				lock.unlock();
-			}
-			return null;
-		}
-	}
 }
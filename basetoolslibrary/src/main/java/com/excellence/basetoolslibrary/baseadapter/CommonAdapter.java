@@ -42,8 +42,25 @@ public abstract class CommonAdapter<T> extends MultiItemTypeAdapter<T> {
 
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
-        ViewHolder viewHolder = ViewHolder.getViewHolder(parent.getContext(), convertView, parent, mLayoutId);
-        convert(viewHolder, getItem(position), position);
+        int viewType = getItemViewType(position);
+        ViewHolder viewHolder;
+        long start = beginCreateMetrics(viewType, convertView);
+        try {
+            viewHolder = ViewHolder.getViewHolder(parent.getContext(), convertView, parent, mLayoutId);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
+        T item = getItem(position);
+        if (isBound(viewHolder, item, position)) {
+            return viewHolder.getConvertView();
+        }
+        start = beginBindMetrics(viewType);
+        try {
+            convert(viewHolder, item, position);
+        } finally {
+            endBindMetrics(viewType, start);
+        }
+        markBound(viewHolder, item, position);
         return viewHolder.getConvertView();
     }
 
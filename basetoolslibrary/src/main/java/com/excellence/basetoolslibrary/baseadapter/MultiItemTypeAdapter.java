@@ -3,15 +3,23 @@ package com.excellence.basetoolslibrary.baseadapter;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
 
 import com.excellence.basetoolslibrary.baseadapter.base.ItemViewDelegate;
 import com.excellence.basetoolslibrary.baseadapter.base.ItemViewDelegateManager;
+import com.excellence.basetoolslibrary.helper.AdapterMetrics;
+import com.excellence.basetoolslibrary.helper.BatchUpdatable;
+import com.excellence.basetoolslibrary.helper.DataFilter;
 import com.excellence.basetoolslibrary.helper.DataHelper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * <pre>
@@ -22,10 +30,37 @@ import java.util.List;
  * </pre>
  */
 
-public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T> {
+public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T>, BatchUpdatable, Filterable {
 
     protected List<T> mData = new ArrayList<>();
     private ItemViewDelegateManager<T> mItemViewDelegateManager;
+    private final AdapterMetrics.Recorder mMetricsRecorder = new AdapterMetrics.Recorder(new AdapterMetrics.ClassResolver() {
+        @Override
+        public Class<?> getMetricsClass(int viewType) {
+            return MultiItemTypeAdapter.this.getMetricsClass(viewType);
+        }
+    });
+    private DataFilter<T> mDataFilter = null;
+    private DataFilter.FilterPredicate<T> mFilterPredicate = null;
+
+    /**
+     * 视图类型缓存，数据变化时清空
+     */
+    private int[] mViewTypes = null;
+
+    /**
+     * 变化跟踪：内容修改过的数据（按引用）-> 修改序号，以及全量刷新的代数
+     * 同一条数据可能显示在多个convertView中，每个convertView记录绑定时的修改序号，绑定后不清除数据的修改记录
+     */
+    private boolean isChangeTrackingEnabled = false;
+    private final Map<Object, Integer> mDirtyItems = new IdentityHashMap<>();
+    private int mDirtyStamp = 0;
+    private int mGeneration = 0;
+    private boolean isTrackedChange = false;
+    private boolean isBatchUpdating = false;
+    private boolean isNotifyPending = false;
+
+    private static final int VIEW_TYPE_UNKNOWN = Integer.MIN_VALUE;
 
     public MultiItemTypeAdapter(T[] data) {
         this(data == null ? null : Arrays.asList(data));
@@ -124,7 +159,18 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
     @Override
     public int getItemViewType(int position) {
         if (userItemViewDelegateManager()) {
-            return mItemViewDelegateManager.getItemViewType(mData.get(position), position);
+            int[] viewTypes = mViewTypes;
+            if (viewTypes == null || viewTypes.length != mData.size()) {
+                viewTypes = new int[mData.size()];
+                Arrays.fill(viewTypes, VIEW_TYPE_UNKNOWN);
+                mViewTypes = viewTypes;
+            }
+            int viewType = viewTypes[position];
+            if (viewType == VIEW_TYPE_UNKNOWN) {
+                viewType = mItemViewDelegateManager.getItemViewType(mData.get(position), position);
+                viewTypes[position] = viewType;
+            }
+            return viewType;
         }
         return super.getItemViewType(position);
     }
@@ -146,13 +192,270 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
 
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
-        ItemViewDelegate<T> delegate = getItemViewDelegate(getItemViewType(position));
+        int viewType = getItemViewType(position);
+        ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
         int layoutId = delegate.getItemViewLayoutId();
-        ViewHolder viewHolder = ViewHolder.getViewHolder(parent.getContext(), convertView, parent, layoutId);
-        delegate.convert(viewHolder, getItem(position), position);
+        ViewHolder viewHolder;
+        long start = beginCreateMetrics(viewType, convertView);
+        try {
+            viewHolder = ViewHolder.getViewHolder(parent.getContext(), convertView, parent, layoutId);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
+        T item = getItem(position);
+        if (isBound(viewHolder, item, position)) {
+            return viewHolder.getConvertView();
+        }
+        start = beginBindMetrics(viewType);
+        try {
+            delegate.convert(viewHolder, item, position);
+        } finally {
+            endBindMetrics(viewType, start);
+        }
+        markBound(viewHolder, item, position);
         return viewHolder.getConvertView();
     }
 
+    /**
+     * 开启变化跟踪：刷新时只重新绑定数据或位置变化、或者通过{@link #modify(Object)}修改过的行
+     * 开启后直接修改数据内容，需要调用{@link #modify(Object)}或{@link #notifyItemChanged(Object)}；
+     * 直接调用{@link #notifyDataSetChanged()}仍然全部重新绑定
+     *
+     * @param enabled {@code true}:开启<br>{@code false}:关闭
+     */
+    public void setChangeTrackingEnabled(boolean enabled) {
+        isChangeTrackingEnabled = enabled;
+        mGeneration++;
+        mDirtyItems.clear();
+    }
+
+    public boolean isChangeTrackingEnabled() {
+        return isChangeTrackingEnabled;
+    }
+
+    /**
+     * 数据内容已修改，刷新时重新绑定
+     *
+     * @param item 数据
+     */
+    public void notifyItemChanged(T item) {
+        markDirty(item);
+        notifyTrackedChange();
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        mViewTypes = null;
+        if (!isTrackedChange) {
+            mGeneration++;
+            mDirtyItems.clear();
+        }
+        if (isBatchUpdating) {
+            isNotifyPending = true;
+            return;
+        }
+        super.notifyDataSetChanged();
+    }
+
+    /**
+     * 是否已绑定相同的数据，可跳过绑定
+     *
+     * @param viewHolder
+     * @param item 数据
+     * @param position 位置
+     * @return {@code true}:是<br>{@code false}:否
+     */
+    protected final boolean isBound(ViewHolder viewHolder, T item, int position) {
+        return isChangeTrackingEnabled
+                && viewHolder.mBoundPosition == position
+                && viewHolder.mBoundItem == item
+                && viewHolder.mBoundGeneration == mGeneration
+                && !isDirtySince(item, viewHolder.mBoundStamp);
+    }
+
+    private boolean isDirtySince(T item, int boundStamp) {
+        if (item == null || mDirtyItems.isEmpty()) {
+            return false;
+        }
+        Integer stamp = mDirtyItems.get(item);
+        return stamp != null && stamp > boundStamp;
+    }
+
+    /**
+     * 记录ViewHolder绑定的数据
+     *
+     * @param viewHolder
+     * @param item 数据
+     * @param position 位置
+     */
+    protected final void markBound(ViewHolder viewHolder, T item, int position) {
+        viewHolder.mBoundItem = item;
+        viewHolder.mBoundPosition = position;
+        viewHolder.mBoundGeneration = mGeneration;
+        viewHolder.mBoundStamp = mDirtyStamp;
+    }
+
+    private void markDirty(T item) {
+        if (isChangeTrackingEnabled && item != null) {
+            mDirtyItems.put(item, ++mDirtyStamp);
+        }
+    }
+
+    /**
+     * 修改记录多于数据集时，移除已不在数据集中的数据
+     */
+    private void pruneDirtyItems() {
+        if (mDirtyItems.size() <= mData.size()) {
+            return;
+        }
+        Set<Object> items = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>(mData.size()));
+        items.addAll(mData);
+        mDirtyItems.keySet().retainAll(items);
+    }
+
+    /**
+     * 数据集方法内部的刷新：已知变化的数据，不增加代数
+     */
+    private void notifyTrackedChange() {
+        pruneDirtyItems();
+        isTrackedChange = true;
+        try {
+            notifyDataSetChanged();
+        } finally {
+            isTrackedChange = false;
+        }
+    }
+
+    /**
+     * 设置耗时统计，按视图类型和视图类统计创建、绑定耗时
+     *
+     * @param metrics 耗时统计，null则关闭
+     */
+    public void setAdapterMetrics(AdapterMetrics metrics) {
+        mMetricsRecorder.setMetrics(metrics);
+    }
+
+    public AdapterMetrics getAdapterMetrics() {
+        return mMetricsRecorder.getMetrics();
+    }
+
+    /**
+     * 统计使用的视图类：多布局时为对应的ItemViewDelegate，单布局时为适配器
+     *
+     * @param viewType 布局类型
+     * @return
+     */
+    protected Class<?> getMetricsClass(int viewType) {
+        if (userItemViewDelegateManager()) {
+            ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
+            if (delegate != null) {
+                return delegate.getClass();
+            }
+        }
+        return getClass();
+    }
+
+    /**
+     * 开始统计创建耗时，convertView不为空时记录为复用
+     *
+     * @param viewType 布局类型
+     * @param convertView 复用视图
+     * @return 开始时间，0表示不统计
+     */
+    protected final long beginCreateMetrics(int viewType, View convertView) {
+        if (convertView != null) {
+            mMetricsRecorder.recordRecycle(viewType);
+            return 0;
+        }
+        return mMetricsRecorder.beginCreate(viewType);
+    }
+
+    protected final void endCreateMetrics(int viewType, long start) {
+        mMetricsRecorder.endCreate(viewType, start);
+    }
+
+    /**
+     * 开始统计绑定耗时，需要在try/finally中与{@link #endBindMetrics(int, long)}成对调用
+     *
+     * @param viewType 布局类型
+     * @return 开始时间，0表示不统计
+     */
+    protected final long beginBindMetrics(int viewType) {
+        return mMetricsRecorder.beginBind(viewType);
+    }
+
+    protected final void endBindMetrics(int viewType, long start) {
+        mMetricsRecorder.endBind(viewType, start);
+    }
+
+    /**
+     * 设置过滤条件，用于{@link #getFilter()}
+     *
+     * @param predicate 过滤条件，null则匹配{@link String#valueOf(Object)}是否包含查询字符串
+     */
+    public void setFilterPredicate(DataFilter.FilterPredicate<T> predicate) {
+        mFilterPredicate = predicate;
+        if (mDataFilter != null) {
+            mDataFilter.setFilterPredicate(predicate);
+        }
+    }
+
+    /**
+     * 后台过滤数据集
+     *
+     * @return
+     */
+    @Override
+    public Filter getFilter() {
+        if (mDataFilter == null) {
+            mDataFilter = new DataFilter<>(new DataFilter.FilterHost<T>() {
+                @Override
+                public List<T> getData() {
+                    return mData;
+                }
+
+                @Override
+                public void onFilterResult(List<T> data, DataFilter.FilterDiff diff) {
+                    mData.clear();
+                    mData.addAll(data);
+                    notifyTrackedChange();
+                }
+            });
+            mDataFilter.setFilterPredicate(mFilterPredicate);
+        }
+        return mDataFilter;
+    }
+
+    /**
+     * 数据集整体替换或清空时，放弃过滤隐藏的数据
+     */
+    private void resetFilter() {
+        if (mDataFilter != null) {
+            mDataFilter.reset();
+        }
+    }
+
+    /**
+     * 开始批量修改，数据集方法的刷新合并为{@link #endBatchUpdate()}时的一次{@link #notifyDataSetChanged()}
+     */
+    @Override
+    public void beginBatchUpdate() {
+        isBatchUpdating = true;
+    }
+
+    @Override
+    public void endBatchUpdate() {
+        isBatchUpdating = false;
+        if (isNotifyPending) {
+            isNotifyPending = false;
+            super.notifyDataSetChanged();
+        }
+    }
+
+    public boolean isBatchUpdating() {
+        return isBatchUpdating;
+    }
+
     /**** 以下为辅助方法 ****/
 
     @Override
@@ -167,11 +470,12 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
      */
     @Override
     public void notifyNewData(List<T> data) {
+        resetFilter();
         mData.clear();
         if (data != null) {
             mData.addAll(data);
         }
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -201,7 +505,7 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
         if (data != null) {
             mData.addAll(position, data);
         }
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -229,7 +533,7 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
             position = mData.size();
         }
         mData.add(position, item);
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -253,8 +557,9 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
         if (position < 0 || position > mData.size() - 1) {
             return;
         }
+        markDirty(mData.get(position));
         mData.set(position, item);
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -289,7 +594,7 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
             return;
         }
         mData.remove(position);
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -315,7 +620,7 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
             removeList.add(mData.get(i));
         }
         mData.removeAll(removeList);
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -337,7 +642,7 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
             return;
         }
         Collections.swap(mData, fromPosition, toPosition);
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -361,7 +666,7 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
         T item = mData.get(fromPosition);
         mData.remove(fromPosition);
         mData.add(toPosition, item);
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
@@ -369,8 +674,9 @@ public class MultiItemTypeAdapter<T> extends BaseAdapter implements DataHelper<T
      */
     @Override
     public void clear() {
+        resetFilter();
         mData.clear();
-        notifyDataSetChanged();
+        notifyTrackedChange();
     }
 
     /**
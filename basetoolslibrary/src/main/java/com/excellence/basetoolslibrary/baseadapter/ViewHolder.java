@@ -43,19 +43,50 @@ public class ViewHolder implements ViewHelper<ViewHolder> {
     private Context mContext = null;
     private View mConvertView = null;
     private SparseArray<View> mViews = null;
+    private int mLayoutId = 0;
+
+    /**
+     * 变化跟踪：最近一次绑定的数据、位置、代数和修改序号
+     */
+    Object mBoundItem = null;
+    int mBoundPosition = -1;
+    int mBoundGeneration = 0;
+    int mBoundStamp = 0;
 
     public ViewHolder(Context context, ViewGroup parent, int layoutId) {
         mContext = context;
+        mLayoutId = layoutId;
         mViews = new SparseArray<>();
         mConvertView = LayoutInflater.from(context).inflate(layoutId, parent, false);
         mConvertView.setTag(this);
     }
 
+    /**
+     * 复用布局相同的convertView，否则重新创建
+     *
+     * @param context
+     * @param convertView 复用视图
+     * @param parent
+     * @param layoutId 布局资源Id
+     * @return
+     */
     public static ViewHolder getViewHolder(Context context, View convertView, ViewGroup parent, int layoutId) {
-        if (convertView == null) {
-            return new ViewHolder(context, parent, layoutId);
+        if (convertView != null) {
+            Object tag = convertView.getTag();
+            if (tag instanceof ViewHolder && ((ViewHolder) tag).mLayoutId == layoutId) {
+                return (ViewHolder) tag;
+            }
         }
-        return (ViewHolder) convertView.getTag();
+        return new ViewHolder(context, parent, layoutId);
+    }
+
+    /**
+     * 获取布局资源Id
+     *
+     * @return
+     */
+    public int getLayoutId() {
+        return mLayoutId;
     }
 
     public View getConvertView() {
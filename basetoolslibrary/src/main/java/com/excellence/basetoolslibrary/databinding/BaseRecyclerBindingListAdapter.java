@@ -56,15 +56,20 @@ public class BaseRecyclerBindingListAdapter<T> extends MultiItemTypeBindingRecyc
     @NonNull
     @Override
     public RecyclerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        ViewDataBinding binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), mLayoutId, parent, false);
-        return RecyclerViewHolder.getViewHolder(binding, mLifecycleOwner);
+        long start = beginCreateMetrics(viewType);
+        try {
+            ViewDataBinding binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), mLayoutId, parent, false);
+            return RecyclerViewHolder.getViewHolder(binding, mLifecycleOwner);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerViewHolder holder, int position) {
         ViewDataBinding binding = holder.getBinding();
         binding.setVariable(mVariableId, getItem(position));
-        binding.executePendingBindings();
+        dispatchPendingBindings(binding);
         setViewListener(holder, position);
     }
 }
@@ -0,0 +1,329 @@
+package com.excellence.basetoolslibrary.databinding;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.IntDef;
+import androidx.core.view.ViewCompat;
+import androidx.databinding.ViewDataBinding;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 绑定策略：控制{@link ViewDataBinding#executePendingBindings()}的执行时机
+ *
+ *              {@link #STRATEGY_IMMEDIATE}：绑定时立即执行（默认）
+ *              {@link #STRATEGY_NEXT_FRAME}：推迟到下一帧统一执行
+ *              {@link #STRATEGY_PREFETCH_AWARE}：布局过程中绑定的可见项在绘制前统一执行，布局之外的绑定（GapWorker预取、滑动填充）立即执行
+ *
+ *              推迟执行时，item测量使用的是旧内容，适用于固定尺寸的item
+ *              只在主线程使用
+ * </pre>
+ */
+public class BindingDispatcher {
+
+    /**
+     * 立即执行
+     */
+    public static final int STRATEGY_IMMEDIATE = 0;
+
+    /**
+     * 推迟到下一帧执行
+     */
+    public static final int STRATEGY_NEXT_FRAME = 1;
+
+    /**
+     * 区分预取：布局中绑定的可见项在绘制前批量执行，预取项在绑定时执行
+     */
+    public static final int STRATEGY_PREFETCH_AWARE = 2;
+
+    private static final int STRATEGY_COUNT = 3;
+
+    @IntDef({STRATEGY_IMMEDIATE, STRATEGY_NEXT_FRAME, STRATEGY_PREFETCH_AWARE})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Strategy {
+    }
+
+    private final Metrics[] mMetrics = new Metrics[STRATEGY_COUNT];
+    private final List<ViewDataBinding> mVisibleBindings = new ArrayList<>();
+
+    private int mStrategy = STRATEGY_IMMEDIATE;
+    private boolean isFrameScheduled = false;
+    private View mPreDrawView = null;
+    private ViewTreeObserver mViewTreeObserver = null;
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            isFrameScheduled = false;
+            flush(mVisibleBindings);
+        }
+    };
+
+    private final ViewTreeObserver.OnPreDrawListener mPreDrawListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            removePreDrawListener();
+            flush(mVisibleBindings);
+            return true;
+        }
+    };
+
+    public BindingDispatcher() {
+        for (int i = 0; i < STRATEGY_COUNT; i++) {
+            mMetrics[i] = new Metrics(i);
+        }
+    }
+
+    /**
+     * 设置绑定策略，切换时先执行所有未完成的绑定
+     *
+     * @param strategy {@link #STRATEGY_IMMEDIATE}、{@link #STRATEGY_NEXT_FRAME}、{@link #STRATEGY_PREFETCH_AWARE}
+     */
+    public void setStrategy(@Strategy int strategy) {
+        if (strategy < 0 || strategy >= STRATEGY_COUNT) {
+            strategy = STRATEGY_IMMEDIATE;
+        }
+        if (mStrategy != strategy) {
+            flushAll();
+            mStrategy = strategy;
+        }
+    }
+
+    @Strategy
+    public int getStrategy() {
+        return mStrategy;
+    }
+
+    /**
+     * 执行或者推迟执行绑定
+     *
+     * @param binding 绑定
+     * @param container 列表控件，用于判断绘制时机；为null时立即执行
+     */
+    public void dispatch(ViewDataBinding binding, View container) {
+        if (binding == null) {
+            return;
+        }
+        switch (mStrategy) {
+            case STRATEGY_NEXT_FRAME:
+                mVisibleBindings.add(binding);
+                if (!isFrameScheduled) {
+                    isFrameScheduled = true;
+                    Choreographer.getInstance().postFrameCallback(mFrameCallback);
+                }
+                break;
+
+            case STRATEGY_PREFETCH_AWARE:
+                if (container == null || !ViewCompat.isAttachedToWindow(container)) {
+                    execute(binding, false);
+                    break;
+                }
+                /**
+                 * 列表测量、布局时绑定的item在同一帧绘制，推迟到绘制前批量执行；
+                 * GapWorker在帧绘制之后、下一帧之前预取，列表不在测量、布局中，按预取的时间预算立即执行
+                 * 滑动填充的item同样不在布局中，立即执行，与原来一致；两者无法区分，统计为布局之外的绑定
+                 */
+                if (isInLayoutPass(container)) {
+                    mVisibleBindings.add(binding);
+                    addPreDrawListener(container);
+                } else {
+                    execute(binding, true);
+                }
+                break;
+
+            case STRATEGY_IMMEDIATE:
+            default:
+                execute(binding, false);
+                break;
+        }
+    }
+
+    /**
+     * 立即执行所有未完成的绑定
+     */
+    public void flushAll() {
+        if (isFrameScheduled) {
+            isFrameScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        }
+        removePreDrawListener();
+        flush(mVisibleBindings);
+    }
+
+    /**
+     * 获取绑定耗时统计
+     *
+     * @param strategy 绑定策略
+     * @return 统计快照
+     */
+    public Metrics getMetrics(@Strategy int strategy) {
+        if (strategy < 0 || strategy >= STRATEGY_COUNT) {
+            return null;
+        }
+        return mMetrics[strategy].copy();
+    }
+
+    /**
+     * 重置耗时统计
+     */
+    public void resetMetrics() {
+        for (int i = 0; i < STRATEGY_COUNT; i++) {
+            mMetrics[i] = new Metrics(i);
+        }
+    }
+
+    /**
+     * 测量、布局过程中列表控件的{@link View#isLayoutRequested()}一直为true，直到布局结束
+     */
+    private static boolean isInLayoutPass(View container) {
+        return container.isLayoutRequested() || ViewCompat.isInLayout(container);
+    }
+
+    private void addPreDrawListener(View container) {
+        if (mViewTreeObserver != null && mViewTreeObserver.isAlive() && mPreDrawView == container) {
+            return;
+        }
+        removePreDrawListener();
+        mPreDrawView = container;
+        mViewTreeObserver = container.getViewTreeObserver();
+        mViewTreeObserver.addOnPreDrawListener(mPreDrawListener);
+    }
+
+    private void removePreDrawListener() {
+        if (mViewTreeObserver != null) {
+            if (mViewTreeObserver.isAlive()) {
+                mViewTreeObserver.removeOnPreDrawListener(mPreDrawListener);
+            } else if (mPreDrawView != null) {
+                mPreDrawView.getViewTreeObserver().removeOnPreDrawListener(mPreDrawListener);
+            }
+            mViewTreeObserver = null;
+        }
+    }
+
+    private void flush(List<ViewDataBinding> bindings) {
+        int size = bindings.size();
+        if (size == 0) {
+            return;
+        }
+        mMetrics[mStrategy].mBatchCount++;
+        /**
+         * 执行过程中可能再次触发绑定，按下标遍历
+         */
+        for (int i = 0; i < bindings.size(); i++) {
+            execute(bindings.get(i), false);
+        }
+        bindings.clear();
+    }
+
+    private void execute(ViewDataBinding binding, boolean isOutOfLayout) {
+        long start = System.nanoTime();
+        binding.executePendingBindings();
+        long cost = System.nanoTime() - start;
+
+        Metrics metrics = mMetrics[mStrategy];
+        metrics.mBindCount++;
+        metrics.mTotalTimeNanos += cost;
+        metrics.mMaxTimeNanos = Math.max(metrics.mMaxTimeNanos, cost);
+        if (isOutOfLayout) {
+            metrics.mOutOfLayoutCount++;
+        }
+    }
+
+    /**
+     * 绑定耗时统计
+     */
+    public static class Metrics {
+
+        private final int mStrategy;
+        private long mBindCount = 0;
+        private long mOutOfLayoutCount = 0;
+        private long mBatchCount = 0;
+        private long mTotalTimeNanos = 0;
+        private long mMaxTimeNanos = 0;
+
+        private Metrics(int strategy) {
+            mStrategy = strategy;
+        }
+
+        private Metrics copy() {
+            Metrics metrics = new Metrics(mStrategy);
+            metrics.mBindCount = mBindCount;
+            metrics.mOutOfLayoutCount = mOutOfLayoutCount;
+            metrics.mBatchCount = mBatchCount;
+            metrics.mTotalTimeNanos = mTotalTimeNanos;
+            metrics.mMaxTimeNanos = mMaxTimeNanos;
+            return metrics;
+        }
+
+        /**
+         * 绑定策略
+         */
+        @Strategy
+        public int getStrategy() {
+            return mStrategy;
+        }
+
+        /**
+         * 执行绑定次数
+         */
+        public long getBindCount() {
+            return mBindCount;
+        }
+
+        /**
+         * {@link #STRATEGY_PREFETCH_AWARE}下，在布局之外绑定时立即执行的次数，包含GapWorker预取和滑动填充
+         */
+        public long getOutOfLayoutCount() {
+            return mOutOfLayoutCount;
+        }
+
+        /**
+         * 批量执行次数
+         */
+        public long getBatchCount() {
+            return mBatchCount;
+        }
+
+        /**
+         * 总耗时，单位纳秒
+         */
+        public long getTotalTimeNanos() {
+            return mTotalTimeNanos;
+        }
+
+        /**
+         * 最大耗时，单位纳秒
+         */
+        public long getMaxTimeNanos() {
+            return mMaxTimeNanos;
+        }
+
+        /**
+         * 平均耗时，单位纳秒
+         */
+        public long getAverageTimeNanos() {
+            return mBindCount == 0 ? 0 : mTotalTimeNanos / mBindCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{" +
+                    "strategy=" + mStrategy +
+                    ", bindCount=" + mBindCount +
+                    ", outOfLayoutCount=" + mOutOfLayoutCount +
+                    ", batchCount=" + mBatchCount +
+                    ", totalTimeNanos=" + mTotalTimeNanos +
+                    ", maxTimeNanos=" + mMaxTimeNanos +
+                    '}';
+        }
+    }
+}
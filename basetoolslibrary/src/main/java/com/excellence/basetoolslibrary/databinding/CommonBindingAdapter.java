@@ -37,13 +37,30 @@ public class CommonBindingAdapter<T> extends MultiItemTypeBindingAdapter<T> {
 
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
+        int viewType = getItemViewType(position);
         ViewDataBinding binding;
-        if (convertView == null) {
-            binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), mLayoutId, parent, false);
-        } else {
-            binding = DataBindingUtil.getBinding(convertView);
+        long start = beginCreateMetrics(viewType, convertView);
+        try {
+            if (convertView == null) {
+                binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), mLayoutId, parent, false);
+            } else {
+                binding = DataBindingUtil.getBinding(convertView);
+            }
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
+        start = beginBindMetrics(viewType);
+        try {
+            binding.setVariable(mVariableId, getItem(position));
+            /**
+             * 未设置绑定策略时与原来一致，不主动执行，由dataBinding在下一帧执行
+             */
+            if (isBindingStrategySet()) {
+                dispatchPendingBindings(binding, parent);
+            }
+        } finally {
+            endBindMetrics(viewType, start);
         }
-        binding.setVariable(mVariableId, getItem(position));
         return binding.getRoot();
     }
 }
@@ -6,12 +6,7 @@ import androidx.annotation.CallSuper;
 import androidx.annotation.NonNull;
 import androidx.databinding.ViewDataBinding;
 import androidx.lifecycle.Lifecycle;
-import androidx.lifecycle.LifecycleObserver;
 import androidx.lifecycle.LifecycleOwner;
-import androidx.lifecycle.OnLifecycleEvent;
-
-import static androidx.lifecycle.Lifecycle.Event.ON_CREATE;
-import static androidx.lifecycle.Lifecycle.Event.ON_DESTROY;
 
 /**
  * <pre>
@@ -19,20 +14,31 @@ import static androidx.lifecycle.Lifecycle.Event.ON_DESTROY;
  *     blog   : http://tiimor.cn
  *     time   : 2020/8/24
  *     desc   : RecyclerView基于生命周期的ViewHolder，用于DataBinding绑定和解绑周期
- * </pre> 
+ *
+ *              父LifecycleOwner的事件由{@link LifecycleDispatcher}统一分发，分发器销毁后附加时重新获取
+ *              回收时销毁ViewLifecycleOwner，再次附加时使用新的ViewLifecycleOwner
+ * </pre>
  */
-public class DataBoundViewHolder extends RecyclerViewHolder implements LifecycleObserver {
+public class DataBoundViewHolder extends RecyclerViewHolder {
+
+    private final LifecycleOwner mParentLifecycleOwner;
+    private ViewLifecycleOwner mViewLifecycleOwner = new ViewLifecycleOwner();
+    private LifecycleDispatcher mDispatcher;
 
-    private LifecycleOwner mParentLifecycleOwner;
-    private ViewLifecycleOwner mViewLifecycleOwner;
+    /**
+     * {@link LifecycleDispatcher}侵入式链表节点
+     */
+    DataBoundViewHolder mPrev = null;
+    DataBoundViewHolder mNext = null;
+    boolean isAttached = false;
 
     public DataBoundViewHolder(@NonNull ViewDataBinding binding,
                                @NonNull LifecycleOwner parentLifecycleOwner) {
         super(binding);
         mParentLifecycleOwner = parentLifecycleOwner;
+        mDispatcher = LifecycleDispatcher.get(parentLifecycleOwner);
     }
 
-    @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
     public void onParentLifecycleChange(@NonNull LifecycleOwner source,
                                         @NonNull Lifecycle.Event event) {
         mViewLifecycleOwner.handleLifecycleEvent(event);
@@ -41,23 +47,36 @@ public class DataBoundViewHolder extends RecyclerViewHolder implements Lifecycle
     @Override
     @CallSuper
     public void markAttachedToWindow() {
-        mViewLifecycleOwner = new ViewLifecycleOwner();
-        mViewLifecycleOwner.initialize();
-        mViewLifecycleOwner.handleLifecycleEvent(ON_CREATE);
-        mBinding.setLifecycleOwner(mViewLifecycleOwner);
-        mParentLifecycleOwner.getLifecycle().addObserver(this);
+        if (mDispatcher.isDestroyed()) {
+            mDispatcher = LifecycleDispatcher.get(mParentLifecycleOwner);
+        }
+        mDispatcher.attach(this);
     }
 
     @Override
     @CallSuper
     public void markDetachedFromWindow() {
-        mParentLifecycleOwner.getLifecycle().removeObserver(this);
-        mViewLifecycleOwner.handleLifecycleEvent(ON_DESTROY);
-        mViewLifecycleOwner = null;
+        mDispatcher.detach(this);
     }
 
+    @Override
+    @CallSuper
+    public void markRecycled() {
+        mDispatcher.release(this);
+    }
+
+    /**
+     * 当前的ViewLifecycleOwner，回收后再次附加时会更换
+     *
+     * @return
+     */
     @NonNull
     public ViewLifecycleOwner getViewLifecycleOwner() {
         return mViewLifecycleOwner;
     }
+
+    ViewLifecycleOwner resetViewLifecycleOwner() {
+        mViewLifecycleOwner = new ViewLifecycleOwner();
+        return mViewLifecycleOwner;
+    }
 }
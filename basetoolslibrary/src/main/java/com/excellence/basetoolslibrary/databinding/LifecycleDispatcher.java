@@ -0,0 +1,240 @@
+package com.excellence.basetoolslibrary.databinding;
+
+import com.excellence.basetoolslibrary.databinding.lifecycle.ViewLifecycleOwner;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : {@link DataBoundViewHolder}生命周期分发
+ *
+ *              每个父LifecycleOwner只注册一次观察者，同一父LifecycleOwner下的所有适配器（包括嵌套列表）共用
+ *              生命周期事件只分发给已附加到窗口的ViewHolder，使用侵入式双向链表，附加和分离都是O(1)
+ *              ViewHolder分离时生命周期回退到CREATED并移出链表，只被弱引用记录，被RecyclerView丢弃后即可回收
+ *              再次附加时恢复，ViewLifecycleOwner在滑出、滑入时不重建
+ *              ViewHolder被回收（{@link #release(DataBoundViewHolder)}）或父LifecycleOwner销毁时，ViewLifecycleOwner销毁，
+ *              dataBinding注册的LiveData观察者随之移除；之后再次附加时使用新的ViewLifecycleOwner
+ *
+ *              分发器表以父LifecycleOwner为弱键、分发器为弱值：已附加的ViewHolder持有父LifecycleOwner，
+ *              强引用的值会让弱键无法回收；分发器注册为父Lifecycle的观察者，父LifecycleOwner存活期间不会被回收
+ * </pre>
+ */
+public class LifecycleDispatcher implements LifecycleObserver {
+
+    private static final Map<LifecycleOwner, WeakReference<LifecycleDispatcher>> DISPATCHERS = new WeakHashMap<>();
+
+    private final Lifecycle mParentLifecycle;
+
+    /**
+     * 已附加到窗口的ViewHolder
+     */
+    private DataBoundViewHolder mAttachedHead = null;
+
+    /**
+     * 已分离、未回收的ViewHolder，父LifecycleOwner销毁时一起销毁
+     */
+    private final Set<DataBoundViewHolder> mDetachedHolders = Collections.newSetFromMap(new WeakHashMap<DataBoundViewHolder, Boolean>());
+
+    private int mAttachedCount = 0;
+    private boolean isDestroyed = false;
+
+    /**
+     * 获取父LifecycleOwner对应的分发器
+     *
+     * @param parentLifecycleOwner 父LifecycleOwner
+     * @return
+     */
+    @MainThread
+    @NonNull
+    public static LifecycleDispatcher get(@NonNull LifecycleOwner parentLifecycleOwner) {
+        WeakReference<LifecycleDispatcher> reference = DISPATCHERS.get(parentLifecycleOwner);
+        LifecycleDispatcher dispatcher = reference == null ? null : reference.get();
+        if (dispatcher == null || dispatcher.isDestroyed) {
+            dispatcher = new LifecycleDispatcher(parentLifecycleOwner);
+            DISPATCHERS.put(parentLifecycleOwner, new WeakReference<>(dispatcher));
+        }
+        return dispatcher;
+    }
+
+    private LifecycleDispatcher(@NonNull LifecycleOwner parentLifecycleOwner) {
+        mParentLifecycle = parentLifecycleOwner.getLifecycle();
+        isDestroyed = mParentLifecycle.getCurrentState() == Lifecycle.State.DESTROYED;
+        if (!isDestroyed) {
+            mParentLifecycle.addObserver(this);
+        }
+    }
+
+    @OnLifecycleEvent(Lifecycle.Event.ON_ANY)
+    public void onParentLifecycleChange(@NonNull LifecycleOwner source,
+                                        @NonNull Lifecycle.Event event) {
+        if (isDestroyed) {
+            return;
+        }
+
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            destroy(source);
+            return;
+        }
+
+        DataBoundViewHolder holder = mAttachedHead;
+        while (holder != null) {
+            /**
+             * 分发过程中可能有ViewHolder分离，先记录下一个
+             */
+            DataBoundViewHolder next = holder.mNext;
+            holder.onParentLifecycleChange(source, event);
+            holder = next;
+        }
+    }
+
+    /**
+     * 父LifecycleOwner是否已销毁，销毁后{@link #get(LifecycleOwner)}返回新的分发器
+     *
+     * @return
+     */
+    public boolean isDestroyed() {
+        return isDestroyed;
+    }
+
+    /**
+     * 已附加到窗口的ViewHolder数量
+     *
+     * @return
+     */
+    public int getAttachedCount() {
+        return mAttachedCount;
+    }
+
+    void attach(@NonNull DataBoundViewHolder holder) {
+        if (holder.isAttached) {
+            return;
+        }
+
+        if (isDestroyed) {
+            /**
+             * 父LifecycleOwner已销毁，不再分发事件，直接销毁
+             */
+            if (holder.getViewLifecycleOwner().isInitialized()) {
+                holder.getViewLifecycleOwner().moveToState(Lifecycle.State.DESTROYED);
+            }
+            return;
+        }
+
+        mDetachedHolders.remove(holder);
+        holder.isAttached = true;
+        link(holder);
+        mAttachedCount++;
+
+        ViewLifecycleOwner owner = holder.getViewLifecycleOwner();
+        if (owner.isInitialized() && owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            /**
+             * 回收或父LifecycleOwner销毁后再次附加，销毁的Lifecycle不能恢复，换新的
+             */
+            owner = holder.resetViewLifecycleOwner();
+        }
+        if (!owner.isInitialized()) {
+            owner.initialize();
+            owner.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+            holder.getBinding().setLifecycleOwner(owner);
+        }
+        Lifecycle.State state = mParentLifecycle.getCurrentState();
+        if (state.isAtLeast(Lifecycle.State.CREATED)) {
+            owner.moveToState(state);
+        }
+    }
+
+    void detach(@NonNull DataBoundViewHolder holder) {
+        if (isDestroyed || !holder.isAttached) {
+            return;
+        }
+
+        unlink(holder);
+        holder.isAttached = false;
+        mAttachedCount--;
+        mDetachedHolders.add(holder);
+
+        holder.getViewLifecycleOwner().moveToState(Lifecycle.State.CREATED);
+    }
+
+    /**
+     * ViewHolder被回收到缓存池或被丢弃，销毁ViewLifecycleOwner
+     *
+     * @param holder ViewHolder
+     */
+    void release(@NonNull DataBoundViewHolder holder) {
+        if (holder.isAttached) {
+            unlink(holder);
+            holder.isAttached = false;
+            mAttachedCount--;
+        }
+        mDetachedHolders.remove(holder);
+        if (holder.getViewLifecycleOwner().isInitialized()) {
+            holder.getViewLifecycleOwner().moveToState(Lifecycle.State.DESTROYED);
+        }
+    }
+
+    private void destroy(LifecycleOwner source) {
+        isDestroyed = true;
+        mParentLifecycle.removeObserver(this);
+        WeakReference<LifecycleDispatcher> reference = DISPATCHERS.get(source);
+        if (reference != null && reference.get() == this) {
+            DISPATCHERS.remove(source);
+        }
+
+        DataBoundViewHolder holder = mAttachedHead;
+        while (holder != null) {
+            DataBoundViewHolder next = holder.mNext;
+            holder.mPrev = null;
+            holder.mNext = null;
+            holder.isAttached = false;
+            holder.getViewLifecycleOwner().moveToState(Lifecycle.State.DESTROYED);
+            holder = next;
+        }
+        mAttachedHead = null;
+        mAttachedCount = 0;
+
+        List<DataBoundViewHolder> detachedHolders = new ArrayList<>(mDetachedHolders);
+        mDetachedHolders.clear();
+        for (DataBoundViewHolder detachedHolder : detachedHolders) {
+            detachedHolder.getViewLifecycleOwner().moveToState(Lifecycle.State.DESTROYED);
+        }
+    }
+
+    private void link(DataBoundViewHolder holder) {
+        holder.mPrev = null;
+        holder.mNext = mAttachedHead;
+        if (mAttachedHead != null) {
+            mAttachedHead.mPrev = holder;
+        }
+        mAttachedHead = holder;
+    }
+
+    private void unlink(DataBoundViewHolder holder) {
+        if (holder.mPrev != null) {
+            holder.mPrev.mNext = holder.mNext;
+        } else {
+            mAttachedHead = holder.mNext;
+        }
+        if (holder.mNext != null) {
+            holder.mNext.mPrev = holder.mPrev;
+        }
+        holder.mPrev = null;
+        holder.mNext = null;
+    }
+}
@@ -7,6 +7,8 @@ import android.widget.BaseAdapter;
 
 import com.excellence.basetoolslibrary.databinding.base.ItemViewDelegate;
 import com.excellence.basetoolslibrary.databinding.base.ItemViewDelegateManager;
+import com.excellence.basetoolslibrary.helper.AdapterMetrics;
+import com.excellence.basetoolslibrary.helper.BatchUpdatable;
 import com.excellence.basetoolslibrary.helper.DataHelper;
 
 import java.util.ArrayList;
@@ -26,10 +28,20 @@ import androidx.databinding.ViewDataBinding;
  * </pre>
  */
 
-public class MultiItemTypeBindingAdapter<T> extends BaseAdapter implements DataHelper<T> {
+public class MultiItemTypeBindingAdapter<T> extends BaseAdapter implements DataHelper<T>, BatchUpdatable {
 
     protected List<T> mData = new ArrayList<>();
     private ItemViewDelegateManager<T> mItemViewDelegateManager;
+    private final AdapterMetrics.Recorder mMetricsRecorder = new AdapterMetrics.Recorder(new AdapterMetrics.ClassResolver() {
+        @Override
+        public Class<?> getMetricsClass(int viewType) {
+            return MultiItemTypeBindingAdapter.this.getMetricsClass(viewType);
+        }
+    });
+    private final BindingDispatcher mBindingDispatcher = new BindingDispatcher();
+    private boolean isBindingStrategySet = false;
+    private boolean isBatchUpdating = false;
+    private boolean isNotifyPending = false;
 
     public MultiItemTypeBindingAdapter(T[] data) {
         this(data == null ? null : Arrays.asList(data));
@@ -150,19 +162,162 @@ public class MultiItemTypeBindingAdapter<T> extends BaseAdapter implements DataH
 
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
-        ItemViewDelegate<T> delegate = getItemViewDelegate(getItemViewType(position));
+        int viewType = getItemViewType(position);
+        ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
         ViewDataBinding binding;
-        if (convertView == null) {
-            binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), delegate.getItemViewLayoutId(), parent, false);
-        } else {
-            binding = DataBindingUtil.getBinding(convertView);
+        long start = beginCreateMetrics(viewType, convertView);
+        try {
+            if (convertView == null) {
+                binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), delegate.getItemViewLayoutId(), parent, false);
+            } else {
+                binding = DataBindingUtil.getBinding(convertView);
+            }
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
+        start = beginBindMetrics(viewType);
+        try {
+            binding.setVariable(delegate.getItemVariable(), getItem(position));
+            delegate.convert(binding, getItem(position), position);
+            dispatchPendingBindings(binding, parent);
+        } finally {
+            endBindMetrics(viewType, start);
         }
-        binding.setVariable(delegate.getItemVariable(), getItem(position));
-        delegate.convert(binding, getItem(position), position);
-        binding.executePendingBindings();
         return binding.getRoot();
     }
 
+    /**
+     * 按绑定策略执行{@link ViewDataBinding#executePendingBindings()}
+     *
+     * @param binding 绑定
+     * @param parent ListView、GridView
+     */
+    protected void dispatchPendingBindings(ViewDataBinding binding, ViewGroup parent) {
+        mBindingDispatcher.dispatch(binding, parent);
+    }
+
+    /**
+     * 设置耗时统计，按视图类型和视图类统计创建、绑定耗时
+     *
+     * @param metrics 耗时统计，null则关闭
+     */
+    public void setAdapterMetrics(AdapterMetrics metrics) {
+        mMetricsRecorder.setMetrics(metrics);
+    }
+
+    public AdapterMetrics getAdapterMetrics() {
+        return mMetricsRecorder.getMetrics();
+    }
+
+    /**
+     * 统计使用的视图类：多布局时为对应的ItemViewDelegate，单布局时为适配器
+     *
+     * @param viewType 布局类型
+     * @return
+     */
+    protected Class<?> getMetricsClass(int viewType) {
+        if (userItemViewDelegateManager()) {
+            ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
+            if (delegate != null) {
+                return delegate.getClass();
+            }
+        }
+        return getClass();
+    }
+
+    /**
+     * 开始统计创建耗时，convertView不为空时记录为复用
+     *
+     * @param viewType 布局类型
+     * @param convertView 复用视图
+     * @return 开始时间，0表示不统计
+     */
+    protected final long beginCreateMetrics(int viewType, View convertView) {
+        if (convertView != null) {
+            mMetricsRecorder.recordRecycle(viewType);
+            return 0;
+        }
+        return mMetricsRecorder.beginCreate(viewType);
+    }
+
+    protected final void endCreateMetrics(int viewType, long start) {
+        mMetricsRecorder.endCreate(viewType, start);
+    }
+
+    /**
+     * 开始统计绑定耗时，需要在try/finally中与{@link #endBindMetrics(int, long)}成对调用
+     *
+     * @param viewType 布局类型
+     * @return 开始时间，0表示不统计
+     */
+    protected final long beginBindMetrics(int viewType) {
+        return mMetricsRecorder.beginBind(viewType);
+    }
+
+    protected final void endBindMetrics(int viewType, long start) {
+        mMetricsRecorder.endBind(viewType, start);
+    }
+
+    /**
+     * 设置绑定策略；{@link CommonBindingAdapter}未设置时不主动执行，与原来一致
+     *
+     * @param strategy {@link BindingDispatcher#STRATEGY_IMMEDIATE}：立即执行（默认）
+     *                 {@link BindingDispatcher#STRATEGY_NEXT_FRAME}：推迟到下一帧
+     *                 {@link BindingDispatcher#STRATEGY_PREFETCH_AWARE}：绘制前批量执行
+     */
+    public void setBindingStrategy(@BindingDispatcher.Strategy int strategy) {
+        isBindingStrategySet = true;
+        mBindingDispatcher.setStrategy(strategy);
+    }
+
+    /**
+     * 是否调用过{@link #setBindingStrategy(int)}
+     *
+     * @return
+     */
+    protected boolean isBindingStrategySet() {
+        return isBindingStrategySet;
+    }
+
+    /**
+     * 获取绑定策略，可查询各策略的耗时统计
+     *
+     * @return
+     */
+    public BindingDispatcher getBindingDispatcher() {
+        return mBindingDispatcher;
+    }
+
+    /**
+     * 开始批量修改，数据集方法的刷新合并为{@link #endBatchUpdate()}时的一次{@link #notifyDataSetChanged()}
+     */
+    @Override
+    public void beginBatchUpdate() {
+        isBatchUpdating = true;
+    }
+
+    @Override
+    public void endBatchUpdate() {
+        isBatchUpdating = false;
+        if (isNotifyPending) {
+            isNotifyPending = false;
+            super.notifyDataSetChanged();
+        }
+    }
+
+    public boolean isBatchUpdating() {
+        return isBatchUpdating;
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        if (isBatchUpdating) {
+            isNotifyPending = true;
+            return;
+        }
+        super.notifyDataSetChanged();
+    }
+
     /**** 以下为辅助方法 ****/
 
     @Override
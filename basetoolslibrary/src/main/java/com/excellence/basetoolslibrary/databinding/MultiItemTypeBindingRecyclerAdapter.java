@@ -7,6 +7,8 @@ import android.view.ViewGroup;
 
 import com.excellence.basetoolslibrary.databinding.base.ItemViewDelegate;
 import com.excellence.basetoolslibrary.databinding.base.ItemViewDelegateManager;
+import com.excellence.basetoolslibrary.helper.AdapterMetrics;
+import com.excellence.basetoolslibrary.helper.BatchUpdatable;
 import com.excellence.basetoolslibrary.helper.DataHelper;
 
 import java.util.ArrayList;
@@ -18,6 +20,9 @@ import androidx.annotation.NonNull;
 import androidx.databinding.DataBindingUtil;
 import androidx.databinding.ViewDataBinding;
 import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 /**
@@ -32,7 +37,7 @@ import androidx.recyclerview.widget.RecyclerView;
  */
 
 public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter<RecyclerViewHolder>
-        implements DataHelper<T> {
+        implements DataHelper<T>, BatchUpdatable {
 
     protected final LifecycleOwner mLifecycleOwner;
 
@@ -43,6 +48,16 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
     private OnItemFocusChangeListener mOnItemFocusChangeListener = null;
     private OnItemKeyListener mOnItemKeyListener = null;
     private int mSelectedItemPosition = -1;
+    private final ListUpdateCallback mUpdateCallback = new AdapterListUpdateCallback(this);
+    private BatchingListUpdateCallback mBatchingCallback = null;
+    private final AdapterMetrics.Recorder mMetricsRecorder = new AdapterMetrics.Recorder(new AdapterMetrics.ClassResolver() {
+        @Override
+        public Class<?> getMetricsClass(int viewType) {
+            return MultiItemTypeBindingRecyclerAdapter.this.getMetricsClass(viewType);
+        }
+    });
+    private final BindingDispatcher mBindingDispatcher = new BindingDispatcher();
+    private RecyclerView mRecyclerView = null;
 
     public MultiItemTypeBindingRecyclerAdapter(T[] data) {
         this(data, null);
@@ -141,6 +156,19 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
         return mData == null ? 0 : mData.size();
     }
 
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mRecyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        mBindingDispatcher.flushAll();
+        mRecyclerView = null;
+    }
+
     @Override
     public void onViewAttachedToWindow(@NonNull RecyclerViewHolder holder) {
         holder.markAttachedToWindow();
@@ -154,9 +182,14 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
     @NonNull
     @Override
     public RecyclerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        int layoutId = mItemViewDelegateManager.getItemViewLayoutId(viewType);
-        ViewDataBinding binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), layoutId, parent, false);
-        return RecyclerViewHolder.getViewHolder(binding, mLifecycleOwner);
+        long start = beginCreateMetrics(viewType);
+        try {
+            int layoutId = mItemViewDelegateManager.getItemViewLayoutId(viewType);
+            ViewDataBinding binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), layoutId, parent, false);
+            return RecyclerViewHolder.getViewHolder(binding, mLifecycleOwner);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
     }
 
     @Override
@@ -167,10 +200,106 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
         T item = getItem(position);
         binding.setVariable(delegate.getItemVariable(), item);
         delegate.convert(binding, item, position);
-        binding.executePendingBindings();
+        dispatchPendingBindings(binding);
         setViewListener(holder, position);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerViewHolder holder, int position, @NonNull List<Object> payloads) {
+        int viewType = holder.getItemViewType();
+        long start = mMetricsRecorder.beginBind(viewType);
+        try {
+            super.onBindViewHolder(holder, position, payloads);
+        } finally {
+            mMetricsRecorder.endBind(viewType, start);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerViewHolder holder) {
+        super.onViewRecycled(holder);
+        holder.markRecycled();
+        mMetricsRecorder.recordRecycle(holder.getItemViewType());
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(@NonNull RecyclerViewHolder holder) {
+        holder.markRecycled();
+        return super.onFailedToRecycleView(holder);
+    }
+
+    /**
+     * 按绑定策略执行{@link ViewDataBinding#executePendingBindings()}
+     *
+     * @param binding 绑定
+     */
+    protected void dispatchPendingBindings(ViewDataBinding binding) {
+        mBindingDispatcher.dispatch(binding, mRecyclerView);
+    }
+
+    /**
+     * 设置绑定策略
+     *
+     * @param strategy {@link BindingDispatcher#STRATEGY_IMMEDIATE}：立即执行（默认）
+     *                 {@link BindingDispatcher#STRATEGY_NEXT_FRAME}：推迟到下一帧
+     *                 {@link BindingDispatcher#STRATEGY_PREFETCH_AWARE}：区分预取
+     */
+    public void setBindingStrategy(@BindingDispatcher.Strategy int strategy) {
+        mBindingDispatcher.setStrategy(strategy);
+    }
+
+    /**
+     * 获取绑定策略，可查询各策略的耗时统计
+     *
+     * @return
+     */
+    public BindingDispatcher getBindingDispatcher() {
+        return mBindingDispatcher;
+    }
+
+    /**
+     * 设置耗时统计，按视图类型和视图类统计创建、绑定耗时
+     *
+     * @param metrics 耗时统计，null则关闭
+     */
+    public void setAdapterMetrics(AdapterMetrics metrics) {
+        mMetricsRecorder.setMetrics(metrics);
+    }
+
+    public AdapterMetrics getAdapterMetrics() {
+        return mMetricsRecorder.getMetrics();
+    }
+
+    /**
+     * 统计使用的视图类：多布局时为对应的ItemViewDelegate，单布局时为适配器
+     *
+     * @param viewType 布局类型
+     * @return
+     */
+    protected Class<?> getMetricsClass(int viewType) {
+        if (userItemViewDelegateManager()) {
+            ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
+            if (delegate != null) {
+                return delegate.getClass();
+            }
+        }
+        return getClass();
+    }
+
+    /**
+     * 开始统计创建耗时，需要在try/finally中与{@link #endCreateMetrics(int, long)}成对调用
+     *
+     * @param viewType 布局类型
+     * @return 开始时间
+     */
+    protected final long beginCreateMetrics(int viewType) {
+        return mMetricsRecorder.beginCreate(viewType);
+    }
+
+    protected final void endCreateMetrics(int viewType, long start) {
+        mMetricsRecorder.endCreate(viewType, start);
+    }
+
     protected void setViewListener(final RecyclerViewHolder holder, int position) {
         final ViewDataBinding binding = holder.getBinding();
         View itemView = binding.getRoot();
@@ -242,6 +371,38 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
         return mSelectedItemPosition;
     }
 
+    /**
+     * 开始批量修改，数据集方法的刷新合并到{@link #endBatchUpdate()}时发出
+     */
+    @Override
+    public void beginBatchUpdate() {
+        if (mBatchingCallback == null) {
+            mBatchingCallback = new BatchingListUpdateCallback(mUpdateCallback);
+        }
+    }
+
+    @Override
+    public void endBatchUpdate() {
+        BatchingListUpdateCallback callback = mBatchingCallback;
+        if (callback != null) {
+            mBatchingCallback = null;
+            callback.dispatchLastEvent();
+        }
+    }
+
+    public boolean isBatchUpdating() {
+        return mBatchingCallback != null;
+    }
+
+    /**
+     * 数据集方法的刷新：批量修改时合并，否则直接刷新
+     *
+     * @return
+     */
+    protected final ListUpdateCallback getUpdateCallback() {
+        return mBatchingCallback != null ? mBatchingCallback : mUpdateCallback;
+    }
+
     /**** 以下为辅助方法 ****/
 
     /**
@@ -295,12 +456,12 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
      */
     @Override
     public void notifyNewData(List<T> data) {
-        notifyItemRangeRemoved(0, mData.size());
+        getUpdateCallback().onRemoved(0, mData.size());
         mData.clear();
         if (data != null) {
             mData.addAll(data);
         }
-        notifyItemRangeChanged(0, mData.size());
+        getUpdateCallback().onChanged(0, mData.size(), null);
     }
 
     /**
@@ -330,7 +491,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
         if (data != null) {
             mData.addAll(position, data);
         }
-        notifyItemRangeChanged(position, mData.size() - position);
+        getUpdateCallback().onChanged(position, mData.size() - position, null);
     }
 
     /**
@@ -358,7 +519,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
             position = mData.size();
         }
         mData.add(position, item);
-        notifyItemRangeChanged(position, mData.size() - position);
+        getUpdateCallback().onChanged(position, mData.size() - position, null);
     }
 
     /**
@@ -384,7 +545,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
         }
 
         mData.set(position, item);
-        notifyItemChanged(position);
+        getUpdateCallback().onChanged(position, 1, null);
     }
 
     /**
@@ -419,7 +580,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
             return;
         }
         mData.remove(position);
-        notifyItemRemoved(position);
+        getUpdateCallback().onRemoved(position, 1);
     }
 
     /**
@@ -444,7 +605,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
         for (int i = startPosition; i <= endPosition; i++) {
             removeList.add(mData.get(i));
         }
-        notifyItemRangeRemoved(startPosition, removeList.size());
+        getUpdateCallback().onRemoved(startPosition, removeList.size());
         mData.removeAll(removeList);
     }
 
@@ -467,7 +628,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
             return;
         }
         Collections.swap(mData, fromPosition, toPosition);
-        notifyItemMoved(fromPosition, toPosition);
+        getUpdateCallback().onMoved(fromPosition, toPosition);
     }
 
     /**
@@ -494,7 +655,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
         int index = fromPosition;
         fromPosition = Math.min(index, toPosition);
         toPosition = Math.max(index, toPosition);
-        notifyItemRangeChanged(fromPosition, Math.abs(toPosition - fromPosition) + 1);
+        getUpdateCallback().onChanged(fromPosition, Math.abs(toPosition - fromPosition) + 1, null);
     }
 
     /**
@@ -502,7 +663,7 @@ public class MultiItemTypeBindingRecyclerAdapter<T> extends RecyclerView.Adapter
      */
     @Override
     public void clear() {
-        notifyItemRangeRemoved(0, mData.size());
+        getUpdateCallback().onRemoved(0, mData.size());
         mData.clear();
     }
 
@@ -7,6 +7,7 @@ import android.view.ViewGroup;
 
 import com.excellence.basetoolslibrary.databinding.base.ItemViewDelegate;
 import com.excellence.basetoolslibrary.databinding.base.ItemViewDelegateManager;
+import com.excellence.basetoolslibrary.helper.AdapterMetrics;
 
 import java.util.List;
 
@@ -18,6 +19,7 @@ import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.AsyncDifferConfig;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
 import static com.excellence.basetoolslibrary.utils.EmptyUtils.isEmpty;
 
@@ -41,6 +43,14 @@ public class MultiItemTypeBindingRecyclerListAdapter<T> extends ListAdapter<T, R
     private OnItemLongClickListener mOnItemLongClickListener = null;
     private OnItemFocusChangeListener mOnItemFocusChangeListener = null;
     private int mSelectedItemPosition = -1;
+    private final AdapterMetrics.Recorder mMetricsRecorder = new AdapterMetrics.Recorder(new AdapterMetrics.ClassResolver() {
+        @Override
+        public Class<?> getMetricsClass(int viewType) {
+            return MultiItemTypeBindingRecyclerListAdapter.this.getMetricsClass(viewType);
+        }
+    });
+    private final BindingDispatcher mBindingDispatcher = new BindingDispatcher();
+    private RecyclerView mRecyclerView = null;
 
     public MultiItemTypeBindingRecyclerListAdapter(@NonNull DiffUtil.ItemCallback<T> diffCallback) {
         this(diffCallback, null);
@@ -141,6 +151,19 @@ public class MultiItemTypeBindingRecyclerListAdapter<T> extends ListAdapter<T, R
         return super.getItem(position);
     }
 
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mRecyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        mBindingDispatcher.flushAll();
+        mRecyclerView = null;
+    }
+
     @Override
     public void onViewAttachedToWindow(@NonNull RecyclerViewHolder holder) {
         holder.markAttachedToWindow();
@@ -154,9 +177,14 @@ public class MultiItemTypeBindingRecyclerListAdapter<T> extends ListAdapter<T, R
     @NonNull
     @Override
     public RecyclerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        int layoutId = mItemViewDelegateManager.getItemViewLayoutId(viewType);
-        ViewDataBinding binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), layoutId, parent, false);
-        return RecyclerViewHolder.getViewHolder(binding, mLifecycleOwner);
+        long start = beginCreateMetrics(viewType);
+        try {
+            int layoutId = mItemViewDelegateManager.getItemViewLayoutId(viewType);
+            ViewDataBinding binding = DataBindingUtil.inflate(LayoutInflater.from(parent.getContext()), layoutId, parent, false);
+            return RecyclerViewHolder.getViewHolder(binding, mLifecycleOwner);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
     }
 
     @Override
@@ -167,10 +195,106 @@ public class MultiItemTypeBindingRecyclerListAdapter<T> extends ListAdapter<T, R
         T item = getItem(position);
         binding.setVariable(delegate.getItemVariable(), item);
         delegate.convert(binding, item, position);
-        binding.executePendingBindings();
+        dispatchPendingBindings(binding);
         setViewListener(holder, position);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerViewHolder holder, int position, @NonNull List<Object> payloads) {
+        int viewType = holder.getItemViewType();
+        long start = mMetricsRecorder.beginBind(viewType);
+        try {
+            super.onBindViewHolder(holder, position, payloads);
+        } finally {
+            mMetricsRecorder.endBind(viewType, start);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerViewHolder holder) {
+        super.onViewRecycled(holder);
+        holder.markRecycled();
+        mMetricsRecorder.recordRecycle(holder.getItemViewType());
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(@NonNull RecyclerViewHolder holder) {
+        holder.markRecycled();
+        return super.onFailedToRecycleView(holder);
+    }
+
+    /**
+     * 按绑定策略执行{@link ViewDataBinding#executePendingBindings()}
+     *
+     * @param binding 绑定
+     */
+    protected void dispatchPendingBindings(ViewDataBinding binding) {
+        mBindingDispatcher.dispatch(binding, mRecyclerView);
+    }
+
+    /**
+     * 设置绑定策略
+     *
+     * @param strategy {@link BindingDispatcher#STRATEGY_IMMEDIATE}：立即执行（默认）
+     *                 {@link BindingDispatcher#STRATEGY_NEXT_FRAME}：推迟到下一帧
+     *                 {@link BindingDispatcher#STRATEGY_PREFETCH_AWARE}：区分预取
+     */
+    public void setBindingStrategy(@BindingDispatcher.Strategy int strategy) {
+        mBindingDispatcher.setStrategy(strategy);
+    }
+
+    /**
+     * 获取绑定策略，可查询各策略的耗时统计
+     *
+     * @return
+     */
+    public BindingDispatcher getBindingDispatcher() {
+        return mBindingDispatcher;
+    }
+
+    /**
+     * 设置耗时统计，按视图类型和视图类统计创建、绑定耗时
+     *
+     * @param metrics 耗时统计，null则关闭
+     */
+    public void setAdapterMetrics(AdapterMetrics metrics) {
+        mMetricsRecorder.setMetrics(metrics);
+    }
+
+    public AdapterMetrics getAdapterMetrics() {
+        return mMetricsRecorder.getMetrics();
+    }
+
+    /**
+     * 统计使用的视图类：多布局时为对应的ItemViewDelegate，单布局时为适配器
+     *
+     * @param viewType 布局类型
+     * @return
+     */
+    protected Class<?> getMetricsClass(int viewType) {
+        if (userItemViewDelegateManager()) {
+            ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
+            if (delegate != null) {
+                return delegate.getClass();
+            }
+        }
+        return getClass();
+    }
+
+    /**
+     * 开始统计创建耗时，需要在try/finally中与{@link #endCreateMetrics(int, long)}成对调用
+     *
+     * @param viewType 布局类型
+     * @return 开始时间
+     */
+    protected final long beginCreateMetrics(int viewType) {
+        return mMetricsRecorder.beginCreate(viewType);
+    }
+
+    protected final void endCreateMetrics(int viewType, long start) {
+        mMetricsRecorder.endCreate(viewType, start);
+    }
+
     protected void setViewListener(final RecyclerViewHolder holder, int position) {
         final ViewDataBinding binding = holder.getBinding();
         View itemView = binding.getRoot();
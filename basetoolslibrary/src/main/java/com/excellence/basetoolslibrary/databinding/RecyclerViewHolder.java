@@ -41,4 +41,11 @@ public class RecyclerViewHolder extends RecyclerView.ViewHolder {
     public void markDetachedFromWindow() {
 
     }
+
+    /**
+     * 被回收到缓存池，或者因为瞬时状态无法回收而被丢弃
+     */
+    public void markRecycled() {
+
+    }
 }
\ No newline at end of file
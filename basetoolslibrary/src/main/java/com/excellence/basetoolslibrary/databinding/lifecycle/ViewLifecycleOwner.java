@@ -38,4 +38,40 @@ public class ViewLifecycleOwner implements LifecycleOwner {
     public void handleLifecycleEvent(@NonNull Lifecycle.Event event) {
         mLifecycleRegistry.handleLifecycleEvent(event);
     }
+
+    /**
+     * Moves the Lifecycle to the given state, dispatching the intermediate events.
+     * The Lifecycle can not leave {@link Lifecycle.State#DESTROYED} once it gets there.
+     */
+    public void moveToState(@NonNull Lifecycle.State state) {
+        initialize();
+        Lifecycle.State current = mLifecycleRegistry.getCurrentState();
+        if (current == state || current == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        switch (state) {
+            case DESTROYED:
+                if (current != Lifecycle.State.INITIALIZED) {
+                    handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+                }
+                break;
+
+            case CREATED:
+                handleLifecycleEvent(current.isAtLeast(Lifecycle.State.STARTED)
+                        ? Lifecycle.Event.ON_STOP : Lifecycle.Event.ON_CREATE);
+                break;
+
+            case STARTED:
+                handleLifecycleEvent(current.isAtLeast(Lifecycle.State.RESUMED)
+                        ? Lifecycle.Event.ON_PAUSE : Lifecycle.Event.ON_START);
+                break;
+
+            case RESUMED:
+                handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+                break;
+
+            default:
+                break;
+        }
+    }
 }
\ No newline at end of file
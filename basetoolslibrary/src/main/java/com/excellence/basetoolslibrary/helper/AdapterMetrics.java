@@ -0,0 +1,465 @@
+package com.excellence.basetoolslibrary.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import androidx.annotation.NonNull;
+import androidx.core.os.TraceCompat;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 适配器耗时统计：按视图类型和视图类（ItemViewDelegate）统计创建和绑定耗时
+ *
+ *              耗时记录在无锁直方图中，桶按微秒以2的幂递增
+ *              每个视图开启一个{@link TraceCompat}区段，可在systrace/perfetto中查看
+ *              适配器通过{@link Recorder}记录，未设置统计时只多一次判空
+ * </pre>
+ */
+public class AdapterMetrics {
+
+    /**
+     * 直方图桶数：[0,1us)、[1us,2us)、[2us,4us)...最后一个桶包含所有更大的值
+     */
+    public static final int BUCKET_COUNT = 24;
+
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private final String mName;
+    private final Object mLock = new Object();
+
+    /**
+     * 写时复制：读取无锁，新增视图时加锁复制
+     */
+    private volatile Entry[] mEntries = new Entry[0];
+
+    public AdapterMetrics() {
+        this("BaseTools");
+    }
+
+    /**
+     * @param name Trace区段名前缀
+     */
+    public AdapterMetrics(String name) {
+        mName = name;
+    }
+
+    /**
+     * 开始创建视图
+     *
+     * @param viewType 视图类型
+     * @param delegateClass 视图类
+     * @return 开始时间
+     */
+    public long beginCreate(int viewType, Class<?> delegateClass) {
+        TraceCompat.beginSection(obtain(viewType, delegateClass).mCreateSection);
+        return System.nanoTime();
+    }
+
+    /**
+     * 结束创建视图
+     *
+     * @param viewType 视图类型
+     * @param delegateClass 视图类
+     * @param startNanos {@link #beginCreate(int, Class)}的返回值
+     */
+    public void endCreate(int viewType, Class<?> delegateClass, long startNanos) {
+        long cost = System.nanoTime() - startNanos;
+        TraceCompat.endSection();
+        obtain(viewType, delegateClass).mCreate.record(cost);
+    }
+
+    /**
+     * 开始绑定视图
+     *
+     * @param viewType 视图类型
+     * @param delegateClass 视图类
+     * @return 开始时间
+     */
+    public long beginBind(int viewType, Class<?> delegateClass) {
+        TraceCompat.beginSection(obtain(viewType, delegateClass).mBindSection);
+        return System.nanoTime();
+    }
+
+    /**
+     * 结束绑定视图
+     *
+     * @param viewType 视图类型
+     * @param delegateClass 视图类
+     * @param startNanos {@link #beginBind(int, Class)}的返回值
+     */
+    public void endBind(int viewType, Class<?> delegateClass, long startNanos) {
+        long cost = System.nanoTime() - startNanos;
+        TraceCompat.endSection();
+        obtain(viewType, delegateClass).mBind.record(cost);
+    }
+
+    /**
+     * 记录视图回收复用
+     *
+     * @param viewType 视图类型
+     * @param delegateClass 视图类
+     */
+    public void recordRecycle(int viewType, Class<?> delegateClass) {
+        obtain(viewType, delegateClass).mRecycleCount.incrementAndGet();
+    }
+
+    /**
+     * 获取统计快照
+     *
+     * @return
+     */
+    public List<Snapshot> getSnapshot() {
+        Entry[] entries = mEntries;
+        List<Snapshot> snapshots = new ArrayList<>(entries.length);
+        for (Entry entry : entries) {
+            snapshots.add(new Snapshot(entry));
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset() {
+        synchronized (mLock) {
+            mEntries = new Entry[0];
+        }
+    }
+
+    private Entry obtain(int viewType, Class<?> delegateClass) {
+        Entry entry = find(mEntries, viewType, delegateClass);
+        if (entry != null) {
+            return entry;
+        }
+
+        synchronized (mLock) {
+            Entry[] entries = mEntries;
+            entry = find(entries, viewType, delegateClass);
+            if (entry == null) {
+                entry = new Entry(mName, viewType, delegateClass);
+                Entry[] newEntries = new Entry[entries.length + 1];
+                System.arraycopy(entries, 0, newEntries, 0, entries.length);
+                newEntries[entries.length] = entry;
+                mEntries = newEntries;
+            }
+            return entry;
+        }
+    }
+
+    private static Entry find(Entry[] entries, int viewType, Class<?> delegateClass) {
+        for (Entry entry : entries) {
+            if (entry.mViewType == viewType && entry.mDelegateClass == delegateClass) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按视图类型获取统计使用的视图类
+     */
+    public interface ClassResolver {
+
+        Class<?> getMetricsClass(int viewType);
+    }
+
+    /**
+     * 适配器持有的统计入口，统计可随时设置或关闭
+     *
+     * 开始和结束需要在try/finally中成对调用，返回的开始时间为0表示不统计；
+     * 开始后统计被关闭，结束时仍然关闭Trace区段
+     */
+    public static final class Recorder {
+
+        private final ClassResolver mResolver;
+        private volatile AdapterMetrics mMetrics = null;
+
+        public Recorder(@NonNull ClassResolver resolver) {
+            mResolver = resolver;
+        }
+
+        public void setMetrics(AdapterMetrics metrics) {
+            mMetrics = metrics;
+        }
+
+        public AdapterMetrics getMetrics() {
+            return mMetrics;
+        }
+
+        /**
+         * 开始统计创建耗时
+         *
+         * @param viewType 视图类型
+         * @return 开始时间，0表示不统计
+         */
+        public long beginCreate(int viewType) {
+            AdapterMetrics metrics = mMetrics;
+            return metrics == null ? 0 : metrics.beginCreate(viewType, mResolver.getMetricsClass(viewType));
+        }
+
+        public void endCreate(int viewType, long startNanos) {
+            if (startNanos == 0) {
+                return;
+            }
+            AdapterMetrics metrics = mMetrics;
+            if (metrics == null) {
+                TraceCompat.endSection();
+                return;
+            }
+            metrics.endCreate(viewType, mResolver.getMetricsClass(viewType), startNanos);
+        }
+
+        /**
+         * 开始统计绑定耗时
+         *
+         * @param viewType 视图类型
+         * @return 开始时间，0表示不统计
+         */
+        public long beginBind(int viewType) {
+            AdapterMetrics metrics = mMetrics;
+            return metrics == null ? 0 : metrics.beginBind(viewType, mResolver.getMetricsClass(viewType));
+        }
+
+        public void endBind(int viewType, long startNanos) {
+            if (startNanos == 0) {
+                return;
+            }
+            AdapterMetrics metrics = mMetrics;
+            if (metrics == null) {
+                TraceCompat.endSection();
+                return;
+            }
+            metrics.endBind(viewType, mResolver.getMetricsClass(viewType), startNanos);
+        }
+
+        /**
+         * 记录视图回收复用
+         *
+         * @param viewType 视图类型
+         */
+        public void recordRecycle(int viewType) {
+            AdapterMetrics metrics = mMetrics;
+            if (metrics != null) {
+                metrics.recordRecycle(viewType, mResolver.getMetricsClass(viewType));
+            }
+        }
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        if (micros <= 0) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * 桶的上界，单位纳秒
+     *
+     * @param bucket 桶下标
+     * @return
+     */
+    public static long getBucketUpperBoundNanos(int bucket) {
+        if (bucket >= BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+        return (1L << bucket) * 1000;
+    }
+
+    private static String sectionName(String name, String action, int viewType, Class<?> delegateClass) {
+        String section = name + ":" + action + ":" + (delegateClass == null ? "null" : delegateClass.getSimpleName()) + "#" + viewType;
+        return section.length() > MAX_SECTION_NAME_LENGTH ? section.substring(0, MAX_SECTION_NAME_LENGTH) : section;
+    }
+
+    private static final class Entry {
+
+        private final int mViewType;
+        private final Class<?> mDelegateClass;
+        private final String mCreateSection;
+        private final String mBindSection;
+        private final Histogram mCreate = new Histogram();
+        private final Histogram mBind = new Histogram();
+        private final AtomicLong mRecycleCount = new AtomicLong();
+
+        Entry(String name, int viewType, Class<?> delegateClass) {
+            mViewType = viewType;
+            mDelegateClass = delegateClass;
+            mCreateSection = sectionName(name, "create", viewType, delegateClass);
+            mBindSection = sectionName(name, "bind", viewType, delegateClass);
+        }
+    }
+
+    private static final class Histogram {
+
+        private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong mCount = new AtomicLong();
+        private final AtomicLong mTotalNanos = new AtomicLong();
+        private final AtomicLong mMaxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            mBuckets.incrementAndGet(bucketOf(nanos));
+            mCount.incrementAndGet();
+            mTotalNanos.addAndGet(nanos);
+            long max = mMaxNanos.get();
+            while (nanos > max && !mMaxNanos.compareAndSet(max, nanos)) {
+                max = mMaxNanos.get();
+            }
+        }
+
+        long[] buckets() {
+            long[] buckets = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = mBuckets.get(i);
+            }
+            return buckets;
+        }
+    }
+
+    /**
+     * 单个视图的统计快照
+     */
+    public static class Snapshot {
+
+        private final int mViewType;
+        private final String mDelegateClassName;
+        private final long mCreateCount;
+        private final long mCreateTotalNanos;
+        private final long mCreateMaxNanos;
+        private final long[] mCreateHistogram;
+        private final long mBindCount;
+        private final long mBindTotalNanos;
+        private final long mBindMaxNanos;
+        private final long[] mBindHistogram;
+        private final long mRecycleCount;
+
+        Snapshot(Entry entry) {
+            mViewType = entry.mViewType;
+            mDelegateClassName = entry.mDelegateClass == null ? null : entry.mDelegateClass.getName();
+            mCreateCount = entry.mCreate.mCount.get();
+            mCreateTotalNanos = entry.mCreate.mTotalNanos.get();
+            mCreateMaxNanos = entry.mCreate.mMaxNanos.get();
+            mCreateHistogram = entry.mCreate.buckets();
+            mBindCount = entry.mBind.mCount.get();
+            mBindTotalNanos = entry.mBind.mTotalNanos.get();
+            mBindMaxNanos = entry.mBind.mMaxNanos.get();
+            mBindHistogram = entry.mBind.buckets();
+            mRecycleCount = entry.mRecycleCount.get();
+        }
+
+        public int getViewType() {
+            return mViewType;
+        }
+
+        public String getDelegateClassName() {
+            return mDelegateClassName;
+        }
+
+        /**
+         * 创建次数
+         */
+        public long getCreateCount() {
+            return mCreateCount;
+        }
+
+        public long getCreateTotalNanos() {
+            return mCreateTotalNanos;
+        }
+
+        public long getCreateMaxNanos() {
+            return mCreateMaxNanos;
+        }
+
+        /**
+         * 创建耗时直方图，下标见{@link AdapterMetrics#getBucketUpperBoundNanos(int)}
+         */
+        public long[] getCreateHistogram() {
+            return mCreateHistogram.clone();
+        }
+
+        /**
+         * 绑定次数
+         */
+        public long getBindCount() {
+            return mBindCount;
+        }
+
+        public long getBindTotalNanos() {
+            return mBindTotalNanos;
+        }
+
+        public long getBindMaxNanos() {
+            return mBindMaxNanos;
+        }
+
+        /**
+         * 绑定耗时直方图，下标见{@link AdapterMetrics#getBucketUpperBoundNanos(int)}
+         */
+        public long[] getBindHistogram() {
+            return mBindHistogram.clone();
+        }
+
+        /**
+         * 回收复用次数
+         */
+        public long getRecycleCount() {
+            return mRecycleCount;
+        }
+
+        /**
+         * 创建耗时百分位，返回所在桶的上界
+         *
+         * @param percentile 0~100
+         * @return 单位纳秒
+         */
+        public long getCreatePercentileNanos(double percentile) {
+            return percentile(mCreateHistogram, mCreateCount, percentile);
+        }
+
+        /**
+         * 绑定耗时百分位，返回所在桶的上界
+         *
+         * @param percentile 0~100
+         * @return 单位纳秒
+         */
+        public long getBindPercentileNanos(double percentile) {
+            return percentile(mBindHistogram, mBindCount, percentile);
+        }
+
+        private static long percentile(long[] histogram, long count, double percentile) {
+            if (count <= 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100.0);
+            long sum = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                sum += histogram[i];
+                if (sum >= target) {
+                    return getBucketUpperBoundNanos(i);
+                }
+            }
+            return getBucketUpperBoundNanos(histogram.length - 1);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "viewType=" + mViewType +
+                    ", delegate=" + mDelegateClassName +
+                    ", createCount=" + mCreateCount +
+                    ", createMaxNanos=" + mCreateMaxNanos +
+                    ", bindCount=" + mBindCount +
+                    ", bindP50Nanos=" + getBindPercentileNanos(50) +
+                    ", bindP99Nanos=" + getBindPercentileNanos(99) +
+                    ", bindMaxNanos=" + mBindMaxNanos +
+                    ", recycleCount=" + mRecycleCount +
+                    '}';
+        }
+    }
+}
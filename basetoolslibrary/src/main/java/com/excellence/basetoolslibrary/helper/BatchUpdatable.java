@@ -0,0 +1,30 @@
+package com.excellence.basetoolslibrary.helper;
+
+import androidx.annotation.MainThread;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 适配器批量修改
+ *
+ *              {@link #beginBatchUpdate()}与{@link #endBatchUpdate()}之间，{@link DataHelper}的修改方法照常修改数据，
+ *              刷新先记录下来：RecyclerView适配器合并相邻的同类区间，ListView、GridView适配器只记录需要刷新
+ *              {@link #endBatchUpdate()}时统一发出
+ * </pre>
+ */
+public interface BatchUpdatable {
+
+    /**
+     * 开始批量修改，已经开始时忽略
+     */
+    @MainThread
+    void beginBatchUpdate();
+
+    /**
+     * 结束批量修改，发出合并后的刷新
+     */
+    @MainThread
+    void endBatchUpdate();
+}
@@ -0,0 +1,554 @@
+package com.excellence.basetoolslibrary.helper;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.widget.BaseAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.ListUpdateCallback;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 线程安全的适配器数据操作
+ *
+ *              任意线程调用{@link DataHelper}的修改方法，操作先进入无锁队列，主线程每帧统一执行一次
+ *              适配器的操作通过适配器自身的修改方法执行，排序、预处理、文字预排版、变化跟踪等与直接调用一致，
+ *              追加到末尾的操作调用不带位置的方法；适配器实现{@link BatchUpdatable}时，一帧内的刷新合并后统一发出
+ *              普通数据集直接修改{@link DataHelper#getData()}，连续的插入、删除、修改合并成区间刷新
+ *              读取方法返回最近一次执行后的只读快照，可在任意线程调用，不包含队列中尚未执行的操作；
+ *              快照在数据变化后首次读取时才复制，执行操作与复制快照互斥
+ *
+ *              使用后不要再直接调用适配器的修改方法，否则快照与适配器数据不一致
+ *              适用于{@link RecyclerView.Adapter}和{@link BaseAdapter}，不适用于基于AsyncListDiffer的ListAdapter
+ * </pre>
+ */
+public class ConcurrentDataHelper<T> implements DataHelper<T> {
+
+    /**
+     * 追加到末尾
+     */
+    private static final int POSITION_END = Integer.MAX_VALUE;
+
+    private final DataHelper<T> mTarget;
+
+    /**
+     * 普通数据集的刷新回调；为null时通过适配器的修改方法执行
+     */
+    private final ListUpdateCallback mCallback;
+    private final Queue<Operation<T>> mOperations = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isScheduled = new AtomicBoolean(false);
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Object mSnapshotLock = new Object();
+
+    /**
+     * 为null时下一次读取重新复制
+     */
+    private List<T> mSnapshot = null;
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            flush();
+        }
+    };
+
+    private final Runnable mScheduleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    };
+
+    /**
+     * RecyclerView适配器
+     *
+     * @param adapter 适配器
+     * @return
+     */
+    @MainThread
+    public static <T, A extends RecyclerView.Adapter<?> & DataHelper<T>> ConcurrentDataHelper<T> fromRecyclerAdapter(@NonNull A adapter) {
+        return new ConcurrentDataHelper<T>(adapter);
+    }
+
+    /**
+     * ListView、GridView适配器
+     *
+     * @param adapter 适配器
+     * @return
+     */
+    @MainThread
+    public static <T, A extends BaseAdapter & DataHelper<T>> ConcurrentDataHelper<T> fromAdapter(@NonNull A adapter) {
+        return new ConcurrentDataHelper<T>(adapter);
+    }
+
+    /**
+     * 普通数据集：直接修改{@link DataHelper#getData()}，通过回调刷新
+     * 适配器请使用{@link #fromRecyclerAdapter(RecyclerView.Adapter)}或{@link #fromAdapter(BaseAdapter)}
+     *
+     * @param target 数据集
+     * @param callback 刷新回调
+     */
+    @MainThread
+    public ConcurrentDataHelper(@NonNull DataHelper<T> target, @NonNull ListUpdateCallback callback) {
+        mTarget = checkTarget(target);
+        mCallback = callback;
+    }
+
+    private ConcurrentDataHelper(DataHelper<T> target) {
+        mTarget = target;
+        mCallback = null;
+    }
+
+    /**
+     * 适配器的修改方法会自行刷新，直接修改数据会绕过排序等处理
+     */
+    private static <T> DataHelper<T> checkTarget(DataHelper<T> target) {
+        if (target instanceof RecyclerView.Adapter || target instanceof BaseAdapter) {
+            throw new IllegalArgumentException("Use fromRecyclerAdapter or fromAdapter for adapter targets: " + target);
+        }
+        return target;
+    }
+
+    /**
+     * 立即执行队列中的操作，只在主线程调用
+     */
+    @MainThread
+    public void flush() {
+        isScheduled.set(false);
+        if (mOperations.isEmpty()) {
+            return;
+        }
+
+        synchronized (mSnapshotLock) {
+            if (mCallback == null) {
+                flushToTarget();
+            } else {
+                flushToData();
+            }
+            mSnapshot = null;
+        }
+    }
+
+    /**
+     * 适配器：批量修改期间适配器只记录刷新，结束时统一发出
+     */
+    private void flushToTarget() {
+        BatchUpdatable batch = mTarget instanceof BatchUpdatable ? (BatchUpdatable) mTarget : null;
+        if (batch != null) {
+            batch.beginBatchUpdate();
+        }
+        try {
+            Operation<T> operation;
+            while ((operation = mOperations.poll()) != null) {
+                try {
+                    applyToTarget(operation);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            if (batch != null) {
+                batch.endBatchUpdate();
+            }
+        }
+    }
+
+    private void flushToData() {
+        List<T> data = mTarget.getData();
+        BatchingListUpdateCallback callback = new BatchingListUpdateCallback(mCallback);
+        Operation<T> operation;
+        while ((operation = mOperations.poll()) != null) {
+            try {
+                apply(data, operation, callback);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        callback.dispatchLastEvent();
+    }
+
+    /**
+     * 队列中尚未执行的操作数量
+     *
+     * @return
+     */
+    public int getPendingCount() {
+        return mOperations.size();
+    }
+
+    private void enqueue(Operation<T> operation) {
+        mOperations.offer(operation);
+        if (isScheduled.compareAndSet(false, true)) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                mScheduleRunnable.run();
+            } else {
+                mMainHandler.post(mScheduleRunnable);
+            }
+        }
+    }
+
+    private List<T> snapshot() {
+        synchronized (mSnapshotLock) {
+            if (mSnapshot == null) {
+                List<T> data = mTarget.getData();
+                mSnapshot = data == null ? Collections.<T>emptyList() : Collections.unmodifiableList(new ArrayList<>(data));
+            }
+            return mSnapshot;
+        }
+    }
+
+    /**
+     * 调用适配器的修改方法
+     */
+    private void applyToTarget(Operation<T> operation) {
+        switch (operation.mType) {
+            case Operation.NEW_DATA:
+                mTarget.notifyNewData(operation.mItems);
+                break;
+
+            case Operation.ADD_ALL:
+                if (operation.mPosition == POSITION_END) {
+                    mTarget.addAll(operation.mItems);
+                } else {
+                    mTarget.addAll(operation.mPosition, operation.mItems);
+                }
+                break;
+
+            case Operation.ADD:
+                if (operation.mPosition == POSITION_END) {
+                    mTarget.add(operation.mItem);
+                } else {
+                    mTarget.add(operation.mPosition, operation.mItem);
+                }
+                break;
+
+            case Operation.MODIFY_ITEM:
+                mTarget.modify(operation.mItem);
+                break;
+
+            case Operation.MODIFY_POSITION:
+                mTarget.modify(operation.mPosition, operation.mItem);
+                break;
+
+            case Operation.REPLACE:
+                mTarget.modify(operation.mOldItem, operation.mItem);
+                break;
+
+            case Operation.REMOVE_ITEM:
+                mTarget.remove(operation.mItem);
+                break;
+
+            case Operation.REMOVE_RANGE:
+                mTarget.remove(operation.mPosition, operation.mToPosition);
+                break;
+
+            case Operation.SWAP:
+                mTarget.swap(operation.mPosition, operation.mToPosition);
+                break;
+
+            case Operation.MOVE:
+                mTarget.move(operation.mPosition, operation.mToPosition);
+                break;
+
+            case Operation.CLEAR:
+                mTarget.clear();
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void apply(List<T> data, Operation<T> operation, ListUpdateCallback callback) {
+        int size = data.size();
+        switch (operation.mType) {
+            case Operation.NEW_DATA: {
+                data.clear();
+                if (operation.mItems != null) {
+                    data.addAll(operation.mItems);
+                }
+                int newSize = data.size();
+                int common = Math.min(size, newSize);
+                if (common > 0) {
+                    callback.onChanged(0, common, null);
+                }
+                if (newSize > size) {
+                    callback.onInserted(size, newSize - size);
+                } else if (newSize < size) {
+                    callback.onRemoved(newSize, size - newSize);
+                }
+                break;
+            }
+
+            case Operation.ADD_ALL: {
+                if (operation.mItems == null || operation.mItems.isEmpty()) {
+                    break;
+                }
+                int position = clamp(operation.mPosition, size);
+                data.addAll(position, operation.mItems);
+                callback.onInserted(position, operation.mItems.size());
+                break;
+            }
+
+            case Operation.ADD: {
+                int position = clamp(operation.mPosition, size);
+                data.add(position, operation.mItem);
+                callback.onInserted(position, 1);
+                break;
+            }
+
+            case Operation.MODIFY_ITEM: {
+                int position = data.indexOf(operation.mItem);
+                if (position >= 0) {
+                    callback.onChanged(position, 1, null);
+                }
+                break;
+            }
+
+            case Operation.MODIFY_POSITION: {
+                int position = operation.mPosition;
+                if (position >= 0 && position < size) {
+                    data.set(position, operation.mItem);
+                    callback.onChanged(position, 1, null);
+                }
+                break;
+            }
+
+            case Operation.REPLACE: {
+                int position = data.indexOf(operation.mOldItem);
+                if (position >= 0) {
+                    data.set(position, operation.mItem);
+                    callback.onChanged(position, 1, null);
+                }
+                break;
+            }
+
+            case Operation.REMOVE_ITEM: {
+                int position = data.indexOf(operation.mItem);
+                if (position >= 0) {
+                    data.remove(position);
+                    callback.onRemoved(position, 1);
+                }
+                break;
+            }
+
+            case Operation.REMOVE_RANGE: {
+                int start = Math.min(operation.mPosition, operation.mToPosition);
+                int end = Math.max(operation.mPosition, operation.mToPosition);
+                if (start < 0 || end > size - 1) {
+                    break;
+                }
+                data.subList(start, end + 1).clear();
+                callback.onRemoved(start, end - start + 1);
+                break;
+            }
+
+            case Operation.SWAP: {
+                int from = operation.mPosition;
+                int to = operation.mToPosition;
+                if (from < 0 || from > size - 1 || to < 0 || to > size - 1 || from == to) {
+                    break;
+                }
+                Collections.swap(data, from, to);
+                callback.onChanged(from, 1, null);
+                callback.onChanged(to, 1, null);
+                break;
+            }
+
+            case Operation.MOVE: {
+                int from = operation.mPosition;
+                int to = operation.mToPosition;
+                if (from < 0 || from > size - 1 || to < 0 || to > size - 1 || from == to) {
+                    break;
+                }
+                data.add(to, data.remove(from));
+                callback.onMoved(from, to);
+                break;
+            }
+
+            case Operation.CLEAR: {
+                if (size > 0) {
+                    data.clear();
+                    callback.onRemoved(0, size);
+                }
+                break;
+            }
+
+            default:
+                break;
+        }
+    }
+
+    private static int clamp(int position, int size) {
+        if (position < 0) {
+            return 0;
+        }
+        return Math.min(position, size);
+    }
+
+    /**** 读取：最近一次执行后的快照 ****/
+
+    /**
+     * 获取数据集快照
+     *
+     * @return 只读数据集
+     */
+    @Override
+    public List<T> getData() {
+        return snapshot();
+    }
+
+    /**
+     * 获取单个数据
+     *
+     * @param position
+     * @return 越界返回null
+     */
+    @Override
+    public T getItem(int position) {
+        List<T> snapshot = snapshot();
+        return position < 0 || position >= snapshot.size() ? null : snapshot.get(position);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return snapshot().contains(item);
+    }
+
+    /**** 修改：任意线程调用，下一帧执行 ****/
+
+    @Override
+    public void notifyNewData(List<T> data) {
+        enqueue(new Operation<T>(Operation.NEW_DATA).items(data));
+    }
+
+    @Override
+    public void addAll(List<T> data) {
+        addAll(POSITION_END, data);
+    }
+
+    @Override
+    public void addAll(int position, List<T> data) {
+        enqueue(new Operation<T>(Operation.ADD_ALL).position(position).items(data));
+    }
+
+    @Override
+    public void add(T item) {
+        add(POSITION_END, item);
+    }
+
+    @Override
+    public void add(int position, T item) {
+        enqueue(new Operation<T>(Operation.ADD).position(position).item(item));
+    }
+
+    @Override
+    public void modify(T item) {
+        enqueue(new Operation<T>(Operation.MODIFY_ITEM).item(item));
+    }
+
+    @Override
+    public void modify(int position, T item) {
+        enqueue(new Operation<T>(Operation.MODIFY_POSITION).position(position).item(item));
+    }
+
+    @Override
+    public void modify(T oldItem, T newItem) {
+        Operation<T> operation = new Operation<T>(Operation.REPLACE).item(newItem);
+        operation.mOldItem = oldItem;
+        enqueue(operation);
+    }
+
+    @Override
+    public void remove(T item) {
+        enqueue(new Operation<T>(Operation.REMOVE_ITEM).item(item));
+    }
+
+    @Override
+    public void remove(int position) {
+        remove(position, position);
+    }
+
+    @Override
+    public void remove(int startPosition, int endPosition) {
+        enqueue(new Operation<T>(Operation.REMOVE_RANGE).position(startPosition).toPosition(endPosition));
+    }
+
+    @Override
+    public void swap(int fromPosition, int toPosition) {
+        enqueue(new Operation<T>(Operation.SWAP).position(fromPosition).toPosition(toPosition));
+    }
+
+    @Override
+    public void move(int fromPosition, int toPosition) {
+        enqueue(new Operation<T>(Operation.MOVE).position(fromPosition).toPosition(toPosition));
+    }
+
+    @Override
+    public void clear() {
+        enqueue(new Operation<T>(Operation.CLEAR));
+    }
+
+    private static final class Operation<T> {
+
+        static final int NEW_DATA = 0;
+        static final int ADD_ALL = 1;
+        static final int ADD = 2;
+        static final int MODIFY_ITEM = 3;
+        static final int MODIFY_POSITION = 4;
+        static final int REPLACE = 5;
+        static final int REMOVE_ITEM = 6;
+        static final int REMOVE_RANGE = 7;
+        static final int SWAP = 8;
+        static final int MOVE = 9;
+        static final int CLEAR = 10;
+
+        final int mType;
+        int mPosition = 0;
+        int mToPosition = 0;
+        T mItem = null;
+        T mOldItem = null;
+        List<T> mItems = null;
+
+        Operation(int type) {
+            mType = type;
+        }
+
+        Operation<T> position(int position) {
+            mPosition = position;
+            return this;
+        }
+
+        Operation<T> toPosition(int toPosition) {
+            mToPosition = toPosition;
+            return this;
+        }
+
+        Operation<T> item(T item) {
+            mItem = item;
+            return this;
+        }
+
+        /**
+         * 入队时复制，调用方之后修改原集合不影响队列中的操作
+         */
+        Operation<T> items(List<T> items) {
+            mItems = items == null ? null : new ArrayList<>(items);
+            return this;
+        }
+    }
+}
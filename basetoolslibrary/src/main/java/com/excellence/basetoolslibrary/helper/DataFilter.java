@@ -0,0 +1,388 @@
+package com.excellence.basetoolslibrary.helper;
+
+import android.text.TextUtils;
+import android.widget.Filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.MainThread;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 适配器数据过滤
+ *
+ *              过滤在{@link Filter}的工作线程中进行，使用调用{@link #filter(CharSequence)}时的数据快照
+ *              新的查询会取消正在进行的旧查询，旧查询的结果不会发布
+ *              过滤结果都是全量数据的有序子集，新旧结果之间的差异按下标线性合并得出，不需要DiffUtil
+ *
+ *              显示过滤结果时对数据集的增删改只作用于显示的数据，下一次过滤前合并回全量数据：
+ *              隐藏的数据保持原来的相对位置，显示的数据按修改后的顺序放回原来的位置，新增的数据跟在前一条显示数据之后
+ *              过滤进行中数据集被修改时，丢弃这次结果，合并后重新过滤
+ *              整体替换或清空数据集时调用{@link #reset()}，以新的数据为全量数据
+ * </pre>
+ */
+public class DataFilter<T> extends Filter {
+
+    /**
+     * 每过滤多少条数据检查一次是否取消
+     */
+    private static final int CANCEL_CHECK_INTERVAL = 256;
+
+    private final FilterHost<T> mHost;
+    private final AtomicInteger mGeneration = new AtomicInteger();
+    private volatile FilterPredicate<T> mPredicate = null;
+    private volatile Request<T> mRequest = null;
+
+    /**
+     * 以下只在主线程访问
+     */
+    private List<T> mSource = null;
+    private int[] mIndices = null;
+    private List<T> mPublished = null;
+
+    public DataFilter(FilterHost<T> host) {
+        mHost = host;
+    }
+
+    /**
+     * 设置过滤条件，默认匹配{@link String#valueOf(Object)}是否包含查询字符串（忽略大小写）
+     *
+     * @param predicate 过滤条件
+     */
+    public void setFilterPredicate(FilterPredicate<T> predicate) {
+        mPredicate = predicate;
+    }
+
+    /**
+     * 是否正在显示过滤后的数据
+     *
+     * @return {@code true}:是<br>{@code false}:否
+     */
+    @MainThread
+    public boolean isFiltering() {
+        return mSource != null;
+    }
+
+    /**
+     * 数据集被整体替换或清空，放弃隐藏的数据，以当前数据为全量数据
+     */
+    @MainThread
+    public void reset() {
+        mSource = null;
+        mIndices = null;
+        mPublished = null;
+    }
+
+    @MainThread
+    @Override
+    public void filter(CharSequence constraint, FilterListener listener) {
+        List<T> data = mHost.getData();
+        List<T> source;
+        List<T> displayed;
+        int[] indices;
+        if (mSource == null) {
+            source = Collections.unmodifiableList(new ArrayList<>(data));
+            indices = null;
+            displayed = source;
+        } else if (isSameData(data, mPublished)) {
+            source = mSource;
+            indices = mIndices;
+            displayed = mPublished;
+        } else {
+            displayed = Collections.unmodifiableList(new ArrayList<>(data));
+            indices = new int[displayed.size()];
+            source = merge(mSource, mIndices, mPublished, displayed, indices);
+            mSource = source;
+            mIndices = indices;
+            mPublished = displayed;
+        }
+        mRequest = new Request<>(mGeneration.incrementAndGet(), constraint, source, displayed, indices, listener);
+        super.filter(constraint, listener);
+    }
+
+    /**
+     * 把修改后的显示数据合并回全量数据
+     *
+     * @param source 全量数据
+     * @param indices 上次发布的数据在全量数据中的下标
+     * @param published 上次发布的数据
+     * @param displayed 修改后的显示数据
+     * @param outIndices 输出显示数据在合并结果中的下标
+     * @return 合并后的全量数据
+     */
+    private static <T> List<T> merge(List<T> source, int[] indices, List<T> published, List<T> displayed, int[] outIndices) {
+        Map<T, Integer> slots = new IdentityHashMap<>(published.size() * 2);
+        for (int i = 0; i < published.size(); i++) {
+            slots.put(published.get(i), indexAt(indices, i));
+        }
+
+        /**
+         * 每条显示数据的锚点：原有数据为原来的下标，新增数据沿用前一条的锚点；锚点保持递增，显示顺序不变
+         */
+        int[] anchors = new int[displayed.size()];
+        int anchor = -1;
+        for (int i = 0; i < displayed.size(); i++) {
+            Integer slot = slots.get(displayed.get(i));
+            if (slot != null && slot > anchor) {
+                anchor = slot;
+            }
+            anchors[i] = anchor;
+        }
+
+        boolean[] isShown = new boolean[source.size()];
+        for (int i = 0; i < published.size(); i++) {
+            isShown[indexAt(indices, i)] = true;
+        }
+
+        List<T> merged = new ArrayList<>(source.size() - published.size() + displayed.size());
+        int next = 0;
+        for (int i = 0; i < source.size(); i++) {
+            while (next < displayed.size() && anchors[next] <= i) {
+                outIndices[next] = merged.size();
+                merged.add(displayed.get(next++));
+            }
+            if (!isShown[i]) {
+                merged.add(source.get(i));
+            }
+        }
+        while (next < displayed.size()) {
+            outIndices[next] = merged.size();
+            merged.add(displayed.get(next++));
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    @Override
+    protected FilterResults performFiltering(CharSequence constraint) {
+        FilterResults results = new FilterResults();
+        Request<T> request = mRequest;
+        if (request == null || request.mGeneration != mGeneration.get()) {
+            return results;
+        }
+
+        List<T> source = request.mSource;
+        int[] indices = null;
+        int count = source.size();
+        if (!TextUtils.isEmpty(request.mConstraint)) {
+            FilterPredicate<T> predicate = mPredicate;
+            String lowerConstraint = request.mConstraint.toString().toLowerCase(Locale.getDefault());
+            int[] matched = new int[count];
+            count = 0;
+            for (int i = 0; i < source.size(); i++) {
+                if (i % CANCEL_CHECK_INTERVAL == 0 && request.mGeneration != mGeneration.get()) {
+                    return results;
+                }
+                T item = source.get(i);
+                boolean isAccepted = predicate != null
+                        ? predicate.accept(item, request.mConstraint)
+                        : String.valueOf(item).toLowerCase(Locale.getDefault()).contains(lowerConstraint);
+                if (isAccepted) {
+                    matched[count++] = i;
+                }
+            }
+            indices = new int[count];
+            System.arraycopy(matched, 0, indices, 0, count);
+        }
+
+        List<T> data;
+        if (indices == null) {
+            data = source;
+        } else {
+            data = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                data.add(source.get(index));
+            }
+            data = Collections.unmodifiableList(data);
+        }
+        results.values = new Result<>(request, indices, data);
+        results.count = data.size();
+        return results;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void publishResults(CharSequence constraint, FilterResults results) {
+        if (results == null || !(results.values instanceof Result)) {
+            return;
+        }
+        Result<T> result = (Result<T>) results.values;
+        Request<T> request = result.mRequest;
+        if (request.mGeneration != mGeneration.get()) {
+            return;
+        }
+
+        if (!isSameData(mHost.getData(), request.mDisplayed)) {
+            /**
+             * 过滤期间数据集被修改，结果已过时，合并修改后重新过滤
+             */
+            filter(request.mConstraint, request.mListener);
+            return;
+        }
+        FilterDiff diff = new FilterDiff(request.mIndices, request.mDisplayed.size(), result.mIndices, result.mData.size());
+
+        if (result.mIndices == null) {
+            mSource = null;
+            mIndices = null;
+        } else {
+            mSource = request.mSource;
+            mIndices = result.mIndices;
+        }
+        mPublished = result.mData;
+        mHost.onFilterResult(result.mData, diff);
+    }
+
+    /**
+     * 按引用比较数据集
+     */
+    private static <T> boolean isSameData(List<T> data, List<T> other) {
+        if (data == null || other == null || data.size() != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < data.size(); i++) {
+            if (data.get(i) != other.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 过滤条件
+     *
+     * @param <T>
+     */
+    public interface FilterPredicate<T> {
+
+        /**
+         * 在工作线程中调用
+         *
+         * @param item 数据
+         * @param constraint 查询字符串
+         * @return {@code true}:保留<br>{@code false}:过滤
+         */
+        boolean accept(T item, CharSequence constraint);
+    }
+
+    /**
+     * 过滤的适配器
+     *
+     * @param <T>
+     */
+    public interface FilterHost<T> {
+
+        /**
+         * 当前显示的数据
+         *
+         * @return
+         */
+        List<T> getData();
+
+        /**
+         * 发布过滤结果，在主线程中调用
+         *
+         * @param data 新的显示数据，不可修改
+         * @param diff 旧显示数据到新显示数据的差异，为null时需要全量刷新
+         */
+        void onFilterResult(List<T> data, FilterDiff diff);
+    }
+
+    /**
+     * 两次过滤结果的差异
+     */
+    public static class FilterDiff {
+
+        private final int[] mOldIndices;
+        private final int mOldSize;
+        private final int[] mNewIndices;
+        private final int mNewSize;
+
+        FilterDiff(int[] oldIndices, int oldSize, int[] newIndices, int newSize) {
+            mOldIndices = oldIndices;
+            mOldSize = oldSize;
+            mNewIndices = newIndices;
+            mNewSize = newSize;
+        }
+
+        /**
+         * 分发连续的插入和删除区间，与{@link androidx.recyclerview.widget.DiffUtil.DiffResult#dispatchUpdatesTo(ListUpdateCallback)}用法相同
+         *
+         * @param callback
+         */
+        public void dispatchUpdatesTo(ListUpdateCallback callback) {
+            int oldIndex = 0;
+            int newIndex = 0;
+            int position = 0;
+            while (oldIndex < mOldSize || newIndex < mNewSize) {
+                int oldValue = oldIndex < mOldSize ? indexAt(mOldIndices, oldIndex) : Integer.MAX_VALUE;
+                int newValue = newIndex < mNewSize ? indexAt(mNewIndices, newIndex) : Integer.MAX_VALUE;
+                if (oldValue == newValue) {
+                    oldIndex++;
+                    newIndex++;
+                    position++;
+                } else if (oldValue < newValue) {
+                    int count = 0;
+                    while (oldIndex < mOldSize && indexAt(mOldIndices, oldIndex) < newValue) {
+                        oldIndex++;
+                        count++;
+                    }
+                    callback.onRemoved(position, count);
+                } else {
+                    int count = 0;
+                    while (newIndex < mNewSize && indexAt(mNewIndices, newIndex) < oldValue) {
+                        newIndex++;
+                        count++;
+                    }
+                    callback.onInserted(position, count);
+                    position += count;
+                }
+            }
+        }
+
+    }
+
+    private static int indexAt(int[] indices, int index) {
+        return indices == null ? index : indices[index];
+    }
+
+    private static final class Request<T> {
+
+        private final int mGeneration;
+        private final CharSequence mConstraint;
+        private final List<T> mSource;
+        private final List<T> mDisplayed;
+        private final int[] mIndices;
+        private final FilterListener mListener;
+
+        Request(int generation, CharSequence constraint, List<T> source, List<T> displayed, int[] indices, FilterListener listener) {
+            mGeneration = generation;
+            mConstraint = constraint;
+            mSource = source;
+            mDisplayed = displayed;
+            mIndices = indices;
+            mListener = listener;
+        }
+    }
+
+    private static final class Result<T> {
+
+        private final Request<T> mRequest;
+        private final int[] mIndices;
+        private final List<T> mData;
+
+        Result(Request<T> request, int[] indices, List<T> data) {
+            mRequest = request;
+            mIndices = indices;
+            mData = data;
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.excellence.basetoolslibrary.pageradapter;
 
 import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import androidx.viewpager.widget.PagerAdapter;
+import androidx.viewpager.widget.ViewPager;
 
 /**
  * <pre>
@@ -13,14 +25,55 @@ import androidx.viewpager.widget.PagerAdapter;
  *     blog   : http://tiimor.cn
  *     time   : 2017/7/21
  *     desc   : viewpager通用适配器：分页加载
+ *
+ *              回收模式{@link #setRecyclingEnabled(boolean)}：
+ *              页面按{@link #getPageKey(int)}识别，刷新时key不变的页面保留，只重建变化的页面
+ *              {@link #isPageChanged(Object, int)}判断保留的页面内容是否变化，默认变化：可复用的页面重新绑定，否则重建
+ *              重写{@link #createPage(Context, ViewGroup, int)}和{@link #bindPage(View, int)}后，
+ *              销毁的页面按{@link #getPageType(int)}放入缓存池复用；否则按key缓存{@link #loadView(Context, int)}的结果，
+ *              按最近使用保留{@link #setMaxKeyViews(int)}个
+ *              空闲时按offscreenPageLimit预加载即将显示的页面
  * </pre>
  */
 
 public abstract class BasePagerAdapter extends PagerAdapter {
 
+    private static final int DEFAULT_MAX_SCRAP = 3;
+    private static final int DEFAULT_MAX_KEY_VIEWS = 5;
+
     private SparseArray<View> mViews = null;
     private int mPageCount = 0;
 
+    /**
+     * 回收模式
+     */
+    private boolean isRecyclingEnabled = false;
+    private final Map<Object, Integer> mKeyPositions = new HashMap<>();
+    private final Map<Object, View> mKeyViews = new LinkedHashMap<Object, View>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, View> eldest) {
+            return size() > getKeyViewsCapacity();
+        }
+    };
+
+    /**
+     * 本次刷新中内容变化的key，{@link #notifyDataSetChanged()}结束后清空
+     */
+    private final Set<Object> mChangedKeys = new HashSet<>();
+    private final SparseArray<List<View>> mScrapViews = new SparseArray<>();
+    private int mMaxScrap = DEFAULT_MAX_SCRAP;
+    private int mMaxKeyViews = DEFAULT_MAX_KEY_VIEWS;
+    private ViewPager mViewPager = null;
+    private boolean isIdleScheduled = false;
+
+    private final MessageQueue.IdleHandler mPrefetchHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            isIdleScheduled = prefetchNext();
+            return isIdleScheduled;
+        }
+    };
+
     /**
      * paging load
      */
@@ -41,6 +94,49 @@ public abstract class BasePagerAdapter extends PagerAdapter {
     public void setData(int pageCount) {
         mViews.clear();
         mPageCount = pageCount;
+        if (isRecyclingEnabled) {
+            updateKeys();
+        }
+    }
+
+    /**
+     * 开启回收模式，需要在设置给ViewPager之前调用
+     *
+     * @param enabled {@code true}:开启<br>{@code false}:关闭
+     */
+    public void setRecyclingEnabled(boolean enabled) {
+        isRecyclingEnabled = enabled;
+        mViews.clear();
+        mKeyViews.clear();
+        mScrapViews.clear();
+        mChangedKeys.clear();
+        if (enabled) {
+            updateKeys();
+        } else {
+            mKeyPositions.clear();
+        }
+    }
+
+    public boolean isRecyclingEnabled() {
+        return isRecyclingEnabled;
+    }
+
+    /**
+     * 每种页面类型缓存池的大小
+     *
+     * @param maxScrap 缓存页面数
+     */
+    public void setMaxScrap(int maxScrap) {
+        mMaxScrap = Math.max(0, maxScrap);
+    }
+
+    /**
+     * 按key缓存的{@link #loadView(Context, int)}页面数，不少于ViewPager同时保留的页面数
+     *
+     * @param maxKeyViews 缓存页面数
+     */
+    public void setMaxKeyViews(int maxKeyViews) {
+        mMaxKeyViews = Math.max(0, maxKeyViews);
     }
 
     @Override
@@ -50,22 +146,58 @@ public abstract class BasePagerAdapter extends PagerAdapter {
 
     /**
      * 一定要重写，否则刷新不成功
+     * 回收模式下，key不变的页面保留，位置变化时移动；内容变化时可复用的页面重新绑定，否则重建
      *
      * @param object
      * @return
      */
     @Override
     public int getItemPosition(Object object) {
-        return POSITION_NONE;
+        if (!(object instanceof Page)) {
+            return POSITION_NONE;
+        }
+        Page page = (Page) object;
+        Integer position = mKeyPositions.get(page.mKey);
+        if (position == null || getPageType(position) != page.mType) {
+            return POSITION_NONE;
+        }
+        boolean isChanged = mChangedKeys.contains(page.mKey);
+        if (isChanged && !page.isBindable) {
+            return POSITION_NONE;
+        }
+        boolean isMoved = position != page.mPosition;
+        page.mPosition = position;
+        if (page.isBindable && (isChanged || isMoved)) {
+            bindPage(page.mView, position);
+        }
+        return isMoved ? position : POSITION_UNCHANGED;
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        try {
+            super.notifyDataSetChanged();
+        } finally {
+            mChangedKeys.clear();
+        }
     }
 
     @Override
     public boolean isViewFromObject(View view, Object object) {
+        if (object instanceof Page) {
+            return view == ((Page) object).mView;
+        }
         return view == object;
     }
 
     @Override
     public Object instantiateItem(ViewGroup container, int position) {
+        if (isRecyclingEnabled) {
+            Page page = obtainPage(container, position);
+            container.addView(page.mView);
+            return page;
+        }
+
         View view = mViews.get(position);
         if (view == null) {
             view = loadView(container.getContext(), position);
@@ -77,13 +209,237 @@ public abstract class BasePagerAdapter extends PagerAdapter {
 
     @Override
     public void destroyItem(ViewGroup container, int position, Object object) {
+        if (object instanceof Page) {
+            Page page = (Page) object;
+            container.removeView(page.mView);
+            if (page.isBindable) {
+                addScrap(page.mType, page.mView);
+            }
+            return;
+        }
         container.removeView((View) object);
     }
 
+    @Override
+    public void finishUpdate(ViewGroup container) {
+        super.finishUpdate(container);
+        if (isRecyclingEnabled && container instanceof ViewPager) {
+            mViewPager = (ViewPager) container;
+            schedulePrefetch();
+        }
+    }
+
     protected abstract View loadView(Context context, int pageIndex);
 
+    /**
+     * 回收模式：页面标识，标识相同的页面刷新时不重建
+     *
+     * @param pageIndex 页面位置
+     * @return 默认为页面位置
+     */
+    protected Object getPageKey(int pageIndex) {
+        return pageIndex;
+    }
+
+    /**
+     * 回收模式：刷新时key不变的页面内容是否变化
+     *
+     * @param key 页面标识
+     * @param pageIndex 页面新的位置
+     * @return 默认{@code true}，可复用的页面重新绑定，{@link #loadView(Context, int)}的页面重建
+     */
+    protected boolean isPageChanged(Object key, int pageIndex) {
+        return true;
+    }
+
+    /**
+     * 回收模式：页面类型，只有类型相同的页面才会复用
+     *
+     * @param pageIndex 页面位置
+     * @return 默认为0
+     */
+    protected int getPageType(int pageIndex) {
+        return 0;
+    }
+
+    /**
+     * 回收模式：创建可复用的页面，与{@link #bindPage(View, int)}一起重写
+     *
+     * @param context
+     * @param container
+     * @param pageType 页面类型
+     * @return 默认返回null，使用{@link #loadView(Context, int)}
+     */
+    protected View createPage(Context context, ViewGroup container, int pageType) {
+        return null;
+    }
+
+    /**
+     * 回收模式：绑定页面数据
+     *
+     * @param page {@link #createPage(Context, ViewGroup, int)}创建的页面
+     * @param pageIndex 页面位置
+     */
+    protected void bindPage(View page, int pageIndex) {
+
+    }
+
     public void notifyNewData(int pageCount) {
         setData(pageCount);
         notifyDataSetChanged();
     }
+
+    private void updateKeys() {
+        mKeyPositions.clear();
+        mChangedKeys.clear();
+        for (int i = 0; i < getCount(); i++) {
+            Object key = getPageKey(i);
+            mKeyPositions.put(key, i);
+            if (isPageChanged(key, i)) {
+                mChangedKeys.add(key);
+            }
+        }
+        /**
+         * 内容变化的页面不再复用缓存的视图
+         */
+        Iterator<Object> iterator = mKeyViews.keySet().iterator();
+        while (iterator.hasNext()) {
+            Object key = iterator.next();
+            if (!mKeyPositions.containsKey(key) || mChangedKeys.contains(key)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private int getKeyViewsCapacity() {
+        ViewPager viewPager = mViewPager;
+        int limit = viewPager == null ? 0 : viewPager.getOffscreenPageLimit() * 2 + 3;
+        return Math.max(mMaxKeyViews, limit);
+    }
+
+    private Page obtainPage(ViewGroup container, int position) {
+        Object key = getPageKey(position);
+        int type = getPageType(position);
+
+        /**
+         * 按key缓存的是{@link #loadView(Context, int)}的页面，内容变化时已在{@link #updateKeys()}移除，无需绑定
+         */
+        View view = mKeyViews.get(key);
+        if (view != null && view.getParent() == null) {
+            return new Page(view, key, type, position, false);
+        }
+
+        view = takeScrap(type);
+        if (view == null) {
+            view = createPage(container.getContext(), container, type);
+        }
+        if (view != null) {
+            bindPage(view, position);
+            return new Page(view, key, type, position, true);
+        }
+
+        view = loadView(container.getContext(), position);
+        mKeyViews.put(key, view);
+        return new Page(view, key, type, position, false);
+    }
+
+    private View takeScrap(int type) {
+        List<View> scrap = mScrapViews.get(type);
+        if (scrap == null || scrap.isEmpty()) {
+            return null;
+        }
+        return scrap.remove(scrap.size() - 1);
+    }
+
+    private void addScrap(int type, View view) {
+        List<View> scrap = mScrapViews.get(type);
+        if (scrap == null) {
+            scrap = new ArrayList<>();
+            mScrapViews.put(type, scrap);
+        }
+        if (scrap.size() < mMaxScrap) {
+            scrap.add(view);
+        }
+    }
+
+    private void schedulePrefetch() {
+        if (!isIdleScheduled) {
+            isIdleScheduled = true;
+            Looper.myQueue().addIdleHandler(mPrefetchHandler);
+        }
+    }
+
+    /**
+     * 预加载当前页offscreenPageLimit之外的下一页，每次空闲只加载一页
+     *
+     * @return {@code true}:还有需要预加载的页面<br>{@code false}:完成
+     */
+    private boolean prefetchNext() {
+        ViewPager viewPager = mViewPager;
+        if (!isRecyclingEnabled || viewPager == null || viewPager.getAdapter() != this) {
+            return false;
+        }
+        int current = viewPager.getCurrentItem();
+        int distance = viewPager.getOffscreenPageLimit() + 1;
+        int[] targets = new int[]{current + distance, current - distance};
+        for (int position : targets) {
+            if (position < 0 || position >= getCount()) {
+                continue;
+            }
+            try {
+                if (prefetch(viewPager, position)) {
+                    return true;
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true}:加载了页面<br>{@code false}:已有可用页面
+     */
+    private boolean prefetch(ViewGroup container, int position) {
+        Object key = getPageKey(position);
+        if (mKeyViews.containsKey(key)) {
+            return false;
+        }
+        int type = getPageType(position);
+        List<View> scrap = mScrapViews.get(type);
+        if (scrap != null && !scrap.isEmpty()) {
+            return false;
+        }
+        View view = createPage(container.getContext(), container, type);
+        if (view != null) {
+            if (mMaxScrap == 0) {
+                return false;
+            }
+            addScrap(type, view);
+            return true;
+        }
+        mKeyViews.put(key, loadView(container.getContext(), position));
+        return true;
+    }
+
+    /**
+     * 回收模式下{@link #instantiateItem(ViewGroup, int)}返回的页面
+     */
+    private static final class Page {
+
+        private final View mView;
+        private final Object mKey;
+        private final int mType;
+        private final boolean isBindable;
+        private int mPosition;
+
+        Page(View view, Object key, int type, int position, boolean isBindable) {
+            mView = view;
+            mKey = key;
+            mType = type;
+            mPosition = position;
+            this.isBindable = isBindable;
+        }
+    }
 }
@@ -39,9 +39,19 @@ public abstract class BaseRecyclerAdapter<T> extends MultiItemTypeRecyclerAdapte
         mLayoutId = layoutId;
     }
 
+    @Override
+    public int getItemViewLayoutId(int viewType) {
+        return mLayoutId;
+    }
+
     @Override
     public RecyclerViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, mLayoutId);
+        long start = beginCreateMetrics(viewType);
+        try {
+            return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, mLayoutId);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
     }
 
     @Override
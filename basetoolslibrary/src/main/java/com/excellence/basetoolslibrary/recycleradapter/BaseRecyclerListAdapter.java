@@ -33,7 +33,12 @@ public abstract class BaseRecyclerListAdapter<T> extends MultiItemTypeRecyclerLi
     @NonNull
     @Override
     public RecyclerViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, mLayoutId);
+        long start = beginCreateMetrics(viewType);
+        try {
+            return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, mLayoutId);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
     }
 
     @Override
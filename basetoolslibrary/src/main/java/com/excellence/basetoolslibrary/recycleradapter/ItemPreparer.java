@@ -0,0 +1,338 @@
+package com.excellence.basetoolslibrary.recycleradapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import com.excellence.basetoolslibrary.recycleradapter.base.ItemViewDelegate;
+import com.excellence.basetoolslibrary.recycleradapter.base.PreparedItemViewDelegate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.MainThread;
+import androidx.collection.LruCache;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : Item预处理：在后台线程执行{@link PreparedItemViewDelegate#prepare(Object)}，按数据缓存显示模型
+ *
+ *              提交数据时预处理起始位置之后的一个窗口，滑动时预处理滑动方向上即将可见的窗口
+ *              缓存按数据对象（引用相等）保存，数据替换后自然失效；数据内容修改后需要{@link #invalidate(Object)}
+ *              绑定时未命中缓存则同步预处理
+ * </pre>
+ */
+public class ItemPreparer<T> {
+
+    private static final String TAG = ItemPreparer.class.getSimpleName();
+
+    private static final int DEFAULT_CACHE_SIZE = 300;
+    private static final int DEFAULT_WINDOW_SIZE = 20;
+
+    private final Executor mExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<ItemKey, Object> mCache;
+    private final ConcurrentMap<ItemKey, Object> mPendingKeys = new ConcurrentHashMap<>();
+    private final AtomicInteger mGeneration = new AtomicInteger();
+    private int mWindowSize = DEFAULT_WINDOW_SIZE;
+
+    public ItemPreparer() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize 缓存条数
+     */
+    public ItemPreparer(int cacheSize) {
+        this(createDefaultExecutor(), cacheSize);
+    }
+
+    /**
+     * @param executor 后台预处理线程池
+     * @param cacheSize 缓存条数
+     */
+    public ItemPreparer(Executor executor, int cacheSize) {
+        mExecutor = executor;
+        mCache = new LruCache<>(Math.max(1, cacheSize));
+    }
+
+    private static Executor createDefaultExecutor() {
+        int count = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(count, count, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable r) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        r.run();
+                    }
+                }, TAG + "-" + mCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 设置预处理窗口大小，窗口不超过缓存的一半，避免预处理的结果在使用前被淘汰
+     *
+     * @param windowSize 提交数据或滑动时预处理的条数
+     */
+    public void setWindowSize(int windowSize) {
+        mWindowSize = Math.max(1, Math.min(windowSize, mCache.maxSize() / 2));
+    }
+
+    public int getWindowSize() {
+        return Math.min(mWindowSize, Math.max(1, mCache.maxSize() / 2));
+    }
+
+    /**
+     * 预处理从start开始的一个窗口
+     *
+     * @param host 适配器
+     * @param start 起始位置
+     */
+    @MainThread
+    public void prepare(PrepareHost<T> host, int start) {
+        prepare(host, start, start + getWindowSize());
+    }
+
+    /**
+     * 预处理[start, end)范围内的数据
+     *
+     * @param host 适配器
+     * @param start 起始位置
+     * @param end 结束位置（不包含）
+     */
+    @MainThread
+    public void prepare(PrepareHost<T> host, int start, int end) {
+        start = Math.max(0, start);
+        end = Math.min(end, host.getItemCount());
+        for (int i = start; i < end; i++) {
+            T item = host.getItem(i);
+            if (item == null) {
+                continue;
+            }
+            ItemViewDelegate<T> delegate;
+            try {
+                delegate = host.getItemViewDelegate(item, i);
+            } catch (Exception e) {
+                e.printStackTrace();
+                continue;
+            }
+            if (delegate instanceof PreparedItemViewDelegate) {
+                schedule((PreparedItemViewDelegate<T, ?>) delegate, item);
+            }
+        }
+    }
+
+    /**
+     * 列表滑动时，预处理滑动方向上即将可见的窗口；只支持{@link LinearLayoutManager}及其子类
+     *
+     * @param host 适配器
+     * @param recyclerView 列表
+     * @param dx 水平滑动距离
+     * @param dy 竖直滑动距离
+     */
+    @MainThread
+    public void onScrolled(PrepareHost<T> host, RecyclerView recyclerView, int dx, int dy) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager linearLayoutManager = (LinearLayoutManager) layoutManager;
+        int delta = linearLayoutManager.getOrientation() == RecyclerView.HORIZONTAL ? dx : dy;
+        if (delta > 0) {
+            int last = linearLayoutManager.findLastVisibleItemPosition();
+            if (last != RecyclerView.NO_POSITION) {
+                prepare(host, last + 1);
+            }
+        } else if (delta < 0) {
+            int first = linearLayoutManager.findFirstVisibleItemPosition();
+            if (first != RecyclerView.NO_POSITION) {
+                prepare(host, first - getWindowSize(), first);
+            }
+        }
+    }
+
+    /**
+     * 绑定时获取显示模型：命中缓存直接使用，否则同步预处理
+     *
+     * @param delegate 视图
+     * @param item 数据
+     * @return 显示模型
+     */
+    @MainThread
+    @SuppressWarnings("unchecked")
+    public <M> M obtain(PreparedItemViewDelegate<T, M> delegate, T item) {
+        if (item == null) {
+            return delegate.prepare(null);
+        }
+        ItemKey key = new ItemKey(item, delegate);
+        Object model = mCache.get(key);
+        if (model != null) {
+            return (M) model;
+        }
+        M prepared = delegate.prepare(item);
+        if (prepared != null) {
+            mCache.put(key, prepared);
+        }
+        return prepared;
+    }
+
+    /**
+     * 绑定视图
+     *
+     * @param delegate 视图
+     * @param viewHolder
+     * @param item 数据
+     * @param position 位置
+     */
+    @MainThread
+    public <M> void convert(PreparedItemViewDelegate<T, M> delegate, RecyclerViewHolder viewHolder, T item, int position) {
+        delegate.convert(viewHolder, item, obtain(delegate, item), position);
+    }
+
+    /**
+     * 数据内容修改后，清除其显示模型
+     *
+     * @param item 数据
+     */
+    @MainThread
+    public void invalidate(T item) {
+        if (item == null) {
+            return;
+        }
+        for (ItemKey key : mCache.snapshot().keySet()) {
+            if (key.mItem == item) {
+                mCache.remove(key);
+            }
+        }
+        for (ItemKey key : mPendingKeys.keySet()) {
+            if (key.mItem == item) {
+                mPendingKeys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 清空缓存，正在执行的预处理结果丢弃
+     */
+    @MainThread
+    public void clear() {
+        mGeneration.incrementAndGet();
+        mPendingKeys.clear();
+        mCache.evictAll();
+    }
+
+    private <M> void schedule(final PreparedItemViewDelegate<T, M> delegate, final T item) {
+        final ItemKey key = new ItemKey(item, delegate);
+        /**
+         * 每次调度一个令牌，失效或重新调度后，旧的结果不再写入缓存
+         */
+        final Object token = new Object();
+        if (mCache.get(key) != null || mPendingKeys.putIfAbsent(key, token) != null) {
+            return;
+        }
+
+        final int generation = mGeneration.get();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration.get()) {
+                    return;
+                }
+                M model = null;
+                try {
+                    model = delegate.prepare(item);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                final M result = model;
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration.get() || !mPendingKeys.remove(key, token)) {
+                            return;
+                        }
+                        if (result != null) {
+                            mCache.put(key, result);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 预处理的数据源，由适配器实现
+     *
+     * @param <T>
+     */
+    public interface PrepareHost<T> {
+
+        int getItemCount();
+
+        T getItem(int position);
+
+        /**
+         * 获取数据对应的视图
+         *
+         * @param item 数据
+         * @param position 位置
+         * @return 视图，没有多布局时返回null
+         */
+        ItemViewDelegate<T> getItemViewDelegate(T item, int position);
+    }
+
+    /**
+     * 按引用比较数据
+     */
+    private static final class ItemKey {
+
+        private final Object mItem;
+        private final Object mDelegate;
+        private final int mHashCode;
+
+        ItemKey(Object item, Object delegate) {
+            mItem = item;
+            mDelegate = delegate;
+            mHashCode = 31 * System.identityHashCode(item) + System.identityHashCode(delegate);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ItemKey)) {
+                return false;
+            }
+            ItemKey key = (ItemKey) o;
+            return mItem == key.mItem && mDelegate == key.mDelegate;
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
+}
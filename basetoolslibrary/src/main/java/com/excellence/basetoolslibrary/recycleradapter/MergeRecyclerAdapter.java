@@ -0,0 +1,519 @@
+package com.excellence.basetoolslibrary.recycleradapter;
+
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 多适配器拼接：把头部、横幅、多个数据分段组合到同一个RecyclerView
+ *
+ *              全局视图类型使用布局资源Id，不同分段中布局相同的视图共用一个视图类型，ViewHolder跨分段复用
+ *              位置映射使用分段起始位置的前缀和数组，二分查找O(log n)
+ *              分段的notify按分段起始位置转换后转发，位置和总数按已通知的分段数量计算，与RecyclerView看到的一致
+ *              分段只通知修改而数量变化时，多出或减少的部分转为插入或删除
+ *              分段的监听事件位置已转换为分段内的位置
+ *              ViewHolder的回收、附加、分离事件转发给最后绑定它的分段
+ * </pre>
+ */
+public class MergeRecyclerAdapter extends RecyclerView.Adapter<RecyclerViewHolder> {
+
+    private final List<Section> mSections = new ArrayList<>();
+    private final Map<MultiItemTypeRecyclerAdapter<?>, Section> mSectionMap = new HashMap<>();
+
+    /**
+     * 全局视图类型 -> 创建该类型ViewHolder的分段和分段内视图类型
+     */
+    private final SparseArray<TypeEntry> mTypes = new SparseArray<>();
+
+    /**
+     * 布局Id为0时使用的全局视图类型，从-1递减
+     */
+    private int mNextFallbackType = -1;
+
+    /**
+     * mOffsets[i]为第i个分段的起始位置，mOffsets[size]为总数
+     */
+    private int[] mOffsets = new int[]{0};
+    private boolean isOffsetsDirty = false;
+    private final List<RecyclerView> mRecyclerViews = new ArrayList<>();
+
+    /**
+     * ViewHolder -> 最后绑定它的分段
+     */
+    private final Map<RecyclerViewHolder, Section> mBoundSections = new WeakHashMap<>();
+
+    public MergeRecyclerAdapter(MultiItemTypeRecyclerAdapter<?>... sections) {
+        this(sections == null ? null : Arrays.asList(sections));
+    }
+
+    public MergeRecyclerAdapter(List<? extends MultiItemTypeRecyclerAdapter<?>> sections) {
+        if (sections != null) {
+            for (MultiItemTypeRecyclerAdapter<?> section : sections) {
+                addSection(section);
+            }
+        }
+    }
+
+    /**
+     * 添加分段
+     *
+     * @param section 分段适配器
+     * @return
+     */
+    public MergeRecyclerAdapter addSection(MultiItemTypeRecyclerAdapter<?> section) {
+        return addSection(mSections.size(), section);
+    }
+
+    /**
+     * 插入分段
+     *
+     * @param index 分段位置
+     * @param section 分段适配器
+     * @return
+     */
+    public MergeRecyclerAdapter addSection(int index, MultiItemTypeRecyclerAdapter<?> section) {
+        if (section == null) {
+            return this;
+        }
+        if (mSectionMap.containsKey(section) || section.mMergeAdapter != null) {
+            throw new IllegalArgumentException("Section is already added to a MergeRecyclerAdapter: " + section);
+        }
+        index = Math.max(0, Math.min(index, mSections.size()));
+
+        Section item = new Section(section);
+        int start = computeStart(index);
+        item.mCount = section.getItemCount();
+        mSections.add(index, item);
+        mSectionMap.put(section, item);
+        section.mMergeAdapter = this;
+        section.registerAdapterDataObserver(item.mObserver);
+        for (RecyclerView recyclerView : mRecyclerViews) {
+            section.onAttachedToRecyclerView(recyclerView);
+        }
+        isOffsetsDirty = true;
+
+        int count = item.mCount;
+        if (count > 0) {
+            notifyItemRangeInserted(start, count);
+        }
+        return this;
+    }
+
+    /**
+     * 移除分段
+     *
+     * @param section 分段适配器
+     * @return
+     */
+    public MergeRecyclerAdapter removeSection(MultiItemTypeRecyclerAdapter<?> section) {
+        Section item = mSectionMap.remove(section);
+        if (item == null) {
+            return this;
+        }
+        int index = mSections.indexOf(item);
+        int start = computeStart(index);
+        int count = item.mCount;
+        mSections.remove(index);
+        section.unregisterAdapterDataObserver(item.mObserver);
+        for (RecyclerView recyclerView : mRecyclerViews) {
+            section.onDetachedFromRecyclerView(recyclerView);
+        }
+        section.mMergeAdapter = null;
+        removeTypes(item);
+        mBoundSections.values().removeAll(Collections.singleton(item));
+        isOffsetsDirty = true;
+
+        if (count > 0) {
+            notifyItemRangeRemoved(start, count);
+        }
+        return this;
+    }
+
+    /**
+     * 获取所有分段
+     *
+     * @return
+     */
+    public List<MultiItemTypeRecyclerAdapter<?>> getSections() {
+        List<MultiItemTypeRecyclerAdapter<?>> sections = new ArrayList<>(mSections.size());
+        for (Section section : mSections) {
+            sections.add(section.mAdapter);
+        }
+        return Collections.unmodifiableList(sections);
+    }
+
+    public int getSectionCount() {
+        return mSections.size();
+    }
+
+    /**
+     * 获取位置所在的分段
+     *
+     * @param position 全局位置
+     * @return 分段适配器，越界返回null
+     */
+    public MultiItemTypeRecyclerAdapter<?> getSectionForPosition(int position) {
+        int index = findSectionIndex(position);
+        return index < 0 ? null : mSections.get(index).mAdapter;
+    }
+
+    /**
+     * 全局位置转换为分段内的位置
+     *
+     * @param section 分段适配器
+     * @param position 全局位置
+     * @return 分段内的位置，不在该分段返回{@link RecyclerView#NO_POSITION}
+     */
+    public int getLocalPosition(MultiItemTypeRecyclerAdapter<?> section, int position) {
+        int index = findSectionIndex(position);
+        if (index < 0 || mSections.get(index).mAdapter != section) {
+            return RecyclerView.NO_POSITION;
+        }
+        return position - mOffsets[index];
+    }
+
+    /**
+     * 分段内的位置转换为全局位置
+     *
+     * @param section 分段适配器
+     * @param localPosition 分段内的位置
+     * @return 全局位置，分段不存在返回{@link RecyclerView#NO_POSITION}
+     */
+    public int getGlobalPosition(MultiItemTypeRecyclerAdapter<?> section, int localPosition) {
+        Section item = mSectionMap.get(section);
+        if (item == null) {
+            return RecyclerView.NO_POSITION;
+        }
+        ensureOffsets();
+        return mOffsets[mSections.indexOf(item)] + localPosition;
+    }
+
+    /**
+     * 全局视图类型转换为分段内的视图类型
+     *
+     * @param section 分段适配器
+     * @param globalType 全局视图类型
+     * @return 分段内的视图类型，分段没有使用该类型时原样返回
+     */
+    int getLocalViewType(MultiItemTypeRecyclerAdapter<?> section, int globalType) {
+        Section item = mSectionMap.get(section);
+        if (item == null) {
+            return globalType;
+        }
+        int index = item.mTypes.indexOfValue(globalType);
+        return index < 0 ? globalType : item.mTypes.keyAt(index);
+    }
+
+    @Override
+    public int getItemCount() {
+        ensureOffsets();
+        return mOffsets[mSections.size()];
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        int index = findSectionIndex(position);
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Invalid position " + position + ", item count " + getItemCount());
+        }
+        Section section = mSections.get(index);
+        int localType = section.mAdapter.getItemViewType(position - mOffsets[index]);
+        return obtainGlobalType(section, localType);
+    }
+
+    @NonNull
+    @Override
+    public RecyclerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        TypeEntry entry = mTypes.get(viewType);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown view type " + viewType);
+        }
+        return entry.mSection.mAdapter.onCreateViewHolder(parent, entry.mLocalType);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerViewHolder holder, int position) {
+        onBindViewHolder(holder, position, Collections.<Object>emptyList());
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerViewHolder holder, int position, @NonNull List<Object> payloads) {
+        int index = findSectionIndex(position);
+        if (index < 0) {
+            return;
+        }
+        Section section = mSections.get(index);
+        mBoundSections.put(holder, section);
+        section.mAdapter.onBindViewHolder(holder, position - mOffsets[index], payloads);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerViewHolder holder) {
+        Section section = mBoundSections.remove(holder);
+        if (section == null) {
+            section = findOwner(holder);
+        }
+        if (section != null) {
+            section.mAdapter.onViewRecycled(holder);
+        }
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(@NonNull RecyclerViewHolder holder) {
+        Section section = findOwner(holder);
+        return section != null ? section.mAdapter.onFailedToRecycleView(holder) : super.onFailedToRecycleView(holder);
+    }
+
+    @Override
+    public void onViewAttachedToWindow(@NonNull RecyclerViewHolder holder) {
+        Section section = findOwner(holder);
+        if (section != null) {
+            section.mAdapter.onViewAttachedToWindow(holder);
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(@NonNull RecyclerViewHolder holder) {
+        Section section = findOwner(holder);
+        if (section != null) {
+            section.mAdapter.onViewDetachedFromWindow(holder);
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mRecyclerViews.add(recyclerView);
+        for (Section section : mSections) {
+            section.mAdapter.onAttachedToRecyclerView(recyclerView);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        mRecyclerViews.remove(recyclerView);
+        for (Section section : mSections) {
+            section.mAdapter.onDetachedFromRecyclerView(recyclerView);
+        }
+    }
+
+    /**
+     * ViewHolder所属的分段：最后绑定它的分段，未绑定过时为创建它的分段
+     */
+    private Section findOwner(RecyclerViewHolder holder) {
+        Section section = mBoundSections.get(holder);
+        if (section != null) {
+            return section;
+        }
+        TypeEntry entry = mTypes.get(holder.getItemViewType());
+        return entry == null ? null : entry.mSection;
+    }
+
+    private int obtainGlobalType(Section section, int localType) {
+        int globalType = section.mTypes.get(localType, 0);
+        if (globalType != 0) {
+            return globalType;
+        }
+
+        int layoutId = 0;
+        try {
+            layoutId = section.mAdapter.getItemViewLayoutId(localType);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        globalType = layoutId != 0 ? layoutId : mNextFallbackType--;
+        if (mTypes.get(globalType) == null) {
+            mTypes.put(globalType, new TypeEntry(section, localType));
+        }
+        section.mTypes.put(localType, globalType);
+        return globalType;
+    }
+
+    /**
+     * 移除分段时，由该分段创建的视图类型转交给其他使用相同布局的分段
+     */
+    private void removeTypes(Section removed) {
+        for (int i = mTypes.size() - 1; i >= 0; i--) {
+            TypeEntry entry = mTypes.valueAt(i);
+            if (entry.mSection != removed) {
+                continue;
+            }
+            int globalType = mTypes.keyAt(i);
+            TypeEntry replacement = null;
+            for (Section section : mSections) {
+                int index = section.mTypes.indexOfValue(globalType);
+                if (index >= 0) {
+                    replacement = new TypeEntry(section, section.mTypes.keyAt(index));
+                    break;
+                }
+            }
+            if (replacement != null) {
+                mTypes.setValueAt(i, replacement);
+            } else {
+                mTypes.removeAt(i);
+            }
+        }
+    }
+
+    private int computeStart(int index) {
+        int start = 0;
+        for (int i = 0; i < index; i++) {
+            start += mSections.get(i).mCount;
+        }
+        return start;
+    }
+
+    private void ensureOffsets() {
+        if (!isOffsetsDirty && mOffsets.length == mSections.size() + 1) {
+            return;
+        }
+        int[] offsets = new int[mSections.size() + 1];
+        for (int i = 0; i < mSections.size(); i++) {
+            offsets[i + 1] = offsets[i] + mSections.get(i).mCount;
+        }
+        mOffsets = offsets;
+        isOffsetsDirty = false;
+    }
+
+    /**
+     * 二分查找位置所在的分段，跳过空分段
+     *
+     * @param position 全局位置
+     * @return 分段下标，越界返回-1
+     */
+    private int findSectionIndex(int position) {
+        ensureOffsets();
+        int count = mSections.size();
+        if (position < 0 || position >= mOffsets[count]) {
+            return -1;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mOffsets[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int getSectionStart(Section section) {
+        return computeStart(mSections.indexOf(section));
+    }
+
+    private static final class TypeEntry {
+
+        private final Section mSection;
+        private final int mLocalType;
+
+        TypeEntry(Section section, int localType) {
+            mSection = section;
+            mLocalType = localType;
+        }
+    }
+
+    private final class Section {
+
+        private final MultiItemTypeRecyclerAdapter<?> mAdapter;
+
+        /**
+         * 分段内视图类型 -> 全局视图类型
+         */
+        private final SparseIntArray mTypes = new SparseIntArray();
+
+        /**
+         * 已通知的数量：分段的notify可能在修改数据之前调用，插入、删除按通知的数量增减，不读取分段的当前数量
+         */
+        private int mCount = 0;
+
+        private final RecyclerView.AdapterDataObserver mObserver = new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                isOffsetsDirty = true;
+                mCount = mAdapter.getItemCount();
+                notifyDataSetChanged();
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                onItemRangeChanged(positionStart, itemCount, null);
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+                isOffsetsDirty = true;
+                int start = getSectionStart(Section.this);
+                int oldCount = mCount;
+                int newCount = mAdapter.getItemCount();
+                int changedCount = Math.min(itemCount, Math.min(oldCount, newCount) - positionStart);
+                if (changedCount > 0) {
+                    notifyItemRangeChanged(start + positionStart, changedCount, payload);
+                }
+                /**
+                 * 只通知修改而数量变化（如先插入再刷新之后的区间），差值转为末尾的插入或删除
+                 */
+                mCount = newCount;
+                if (newCount > oldCount) {
+                    notifyItemRangeInserted(start + oldCount, newCount - oldCount);
+                } else if (newCount < oldCount) {
+                    notifyItemRangeRemoved(start + newCount, oldCount - newCount);
+                }
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                isOffsetsDirty = true;
+                int start = getSectionStart(Section.this);
+                mCount += itemCount;
+                notifyItemRangeInserted(start + positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                isOffsetsDirty = true;
+                int start = getSectionStart(Section.this);
+                mCount = Math.max(0, mCount - itemCount);
+                notifyItemRangeRemoved(start + positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                isOffsetsDirty = true;
+                int start = getSectionStart(Section.this);
+                /**
+                 * RecyclerView只支持单个移动，区间移动拆分为逐个移动，移动后区间从toPosition开始
+                 */
+                for (int i = 0; i < itemCount; i++) {
+                    if (fromPosition < toPosition) {
+                        notifyItemMoved(start + fromPosition, start + toPosition + itemCount - 1);
+                    } else {
+                        notifyItemMoved(start + fromPosition + i, start + toPosition + i);
+                    }
+                }
+            }
+        };
+
+        Section(MultiItemTypeRecyclerAdapter<?> adapter) {
+            mAdapter = adapter;
+        }
+    }
+}
@@ -3,16 +3,27 @@ package com.excellence.basetoolslibrary.recycleradapter;
 import android.view.KeyEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Filter;
+import android.widget.Filterable;
 
+import com.excellence.basetoolslibrary.helper.AdapterMetrics;
+import com.excellence.basetoolslibrary.helper.BatchUpdatable;
+import com.excellence.basetoolslibrary.helper.DataFilter;
 import com.excellence.basetoolslibrary.helper.DataHelper;
 import com.excellence.basetoolslibrary.recycleradapter.base.ItemViewDelegate;
 import com.excellence.basetoolslibrary.recycleradapter.base.ItemViewDelegateManager;
+import com.excellence.basetoolslibrary.recycleradapter.base.PreparedItemViewDelegate;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.BatchingListUpdateCallback;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 /**
@@ -24,7 +35,7 @@ import androidx.recyclerview.widget.RecyclerView;
  * </pre>
  */
 
-public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<RecyclerViewHolder> implements DataHelper<T> {
+public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<RecyclerViewHolder> implements DataHelper<T>, BatchUpdatable, Filterable {
 
     protected List<T> mData = new ArrayList<>();
     private ItemViewDelegateManager<T> mItemViewDelegateManager = null;
@@ -33,6 +44,41 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
     private OnItemFocusChangeListener mOnItemFocusChangeListener = null;
     private OnItemKeyListener mOnItemKeyListener = null;
     private int mSelectedItemPosition = -1;
+    private final ListUpdateCallback mUpdateCallback = new AdapterListUpdateCallback(this);
+    private BatchingListUpdateCallback mBatchingCallback = null;
+
+    /**
+     * 作为{@link MergeRecyclerAdapter}的分段时，用于转换位置
+     */
+    MergeRecyclerAdapter mMergeAdapter = null;
+    private final AdapterMetrics.Recorder mMetricsRecorder = new AdapterMetrics.Recorder(new AdapterMetrics.ClassResolver() {
+        @Override
+        public Class<?> getMetricsClass(int viewType) {
+            return MultiItemTypeRecyclerAdapter.this.getMetricsClass(viewType);
+        }
+    });
+    private PrecomputedTextHelper mPrecomputedTextHelper = null;
+    private PrecomputedTextHelper.TextPrefetcher<T> mTextPrefetcher = null;
+    private DataFilter<T> mDataFilter = null;
+    private ItemPreparer<T> mItemPreparer = null;
+    private RecyclerView.OnScrollListener mPrepareScrollListener = null;
+    private final ItemPreparer.PrepareHost<T> mPrepareHost = new ItemPreparer.PrepareHost<T>() {
+        @Override
+        public int getItemCount() {
+            return MultiItemTypeRecyclerAdapter.this.getItemCount();
+        }
+
+        @Override
+        public T getItem(int position) {
+            return MultiItemTypeRecyclerAdapter.this.getItem(position);
+        }
+
+        @Override
+        public ItemViewDelegate<T> getItemViewDelegate(T item, int position) {
+            return userItemViewDelegateManager() ? mItemViewDelegateManager.getItemViewDelegate(item, position) : null;
+        }
+    };
+    private DataFilter.FilterPredicate<T> mFilterPredicate = null;
 
     public MultiItemTypeRecyclerAdapter(T[] data) {
         this(data == null ? null : Arrays.asList(data));
@@ -100,6 +146,17 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
         return mItemViewDelegateManager.getItemViewDelegate(viewType);
     }
 
+    /**
+     * 获取布局Id
+     *
+     * @param viewType 布局类型
+     * @return 布局资源Id
+     */
+    @LayoutRes
+    public int getItemViewLayoutId(int viewType) {
+        return mItemViewDelegateManager.getItemViewLayoutId(viewType);
+    }
+
     /**
      * 判断视图是否可用
      *
@@ -124,17 +181,144 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
 
     @Override
     public RecyclerViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        int layoutId = mItemViewDelegateManager.getItemViewLayoutId(viewType);
-        return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, layoutId);
+        long start = beginCreateMetrics(viewType);
+        try {
+            int layoutId = getItemViewLayoutId(viewType);
+            return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, layoutId);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
     }
 
     @Override
     public void onBindViewHolder(RecyclerViewHolder holder, int position) {
         ItemViewDelegate<T> delegate = getItemViewDelegate(getItemViewType(position));
-        delegate.convert(holder, getItem(position), position);
+        if (mItemPreparer != null && delegate instanceof PreparedItemViewDelegate) {
+            mItemPreparer.convert((PreparedItemViewDelegate<T, ?>) delegate, holder, getItem(position), position);
+        } else {
+            delegate.convert(holder, getItem(position), position);
+        }
         setViewListener(holder, position);
     }
 
+    @Override
+    public void onBindViewHolder(RecyclerViewHolder holder, int position, List<Object> payloads) {
+        holder.setPrecomputedTextHelper(mPrecomputedTextHelper);
+        T item = getItem(position);
+        if (holder.consumePrebound(item, position) && payloads.isEmpty()) {
+            return;
+        }
+        int viewType = getMetricsViewType(holder);
+        long start = mMetricsRecorder.beginBind(viewType);
+        try {
+            super.onBindViewHolder(holder, position, payloads);
+        } finally {
+            mMetricsRecorder.endBind(viewType, start);
+        }
+        holder.markPrebound(item, position);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        if (mPrepareScrollListener == null) {
+            mPrepareScrollListener = new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    if (mItemPreparer != null) {
+                        mItemPreparer.onScrolled(mPrepareHost, recyclerView, dx, dy);
+                    }
+                }
+            };
+        }
+        recyclerView.addOnScrollListener(mPrepareScrollListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (mPrepareScrollListener != null) {
+            recyclerView.removeOnScrollListener(mPrepareScrollListener);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerViewHolder holder) {
+        super.onViewRecycled(holder);
+        mMetricsRecorder.recordRecycle(getMetricsViewType(holder));
+    }
+
+    /**
+     * 设置耗时统计，按视图类型和视图类统计创建、绑定耗时
+     *
+     * @param metrics 耗时统计，null则关闭
+     */
+    public void setAdapterMetrics(AdapterMetrics metrics) {
+        mMetricsRecorder.setMetrics(metrics);
+    }
+
+    public AdapterMetrics getAdapterMetrics() {
+        return mMetricsRecorder.getMetrics();
+    }
+
+    /**
+     * 统计使用的视图类：多布局时为对应的ItemViewDelegate，单布局时为适配器
+     *
+     * @param viewType 布局类型
+     * @return
+     */
+    protected Class<?> getMetricsClass(int viewType) {
+        if (userItemViewDelegateManager()) {
+            ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
+            if (delegate != null) {
+                return delegate.getClass();
+            }
+        }
+        return getClass();
+    }
+
+    /**
+     * 开始统计创建耗时，需要在try/finally中与{@link #endCreateMetrics(int, long)}成对调用
+     *
+     * @param viewType 布局类型
+     * @return 开始时间
+     */
+    protected final long beginCreateMetrics(int viewType) {
+        return mMetricsRecorder.beginCreate(viewType);
+    }
+
+    protected final void endCreateMetrics(int viewType, long start) {
+        mMetricsRecorder.endCreate(viewType, start);
+    }
+
+    /**
+     * ViewHolder在本适配器中的视图类型：拼接时ViewHolder记录的是全局视图类型
+     *
+     * @param holder
+     * @return
+     */
+    int getMetricsViewType(RecyclerViewHolder holder) {
+        int viewType = holder.getItemViewType();
+        if (mMergeAdapter != null) {
+            return mMergeAdapter.getLocalViewType(this, viewType);
+        }
+        return viewType;
+    }
+
+    /**
+     * 监听事件中ViewHolder在本适配器中的位置
+     *
+     * @param holder
+     * @return 位置，{@link RecyclerView#NO_POSITION}表示已不在列表中
+     */
+    protected int getHolderPosition(RecyclerViewHolder holder) {
+        int position = holder.getAdapterPosition();
+        if (mMergeAdapter != null && position != RecyclerView.NO_POSITION) {
+            return mMergeAdapter.getLocalPosition(this, position);
+        }
+        return position;
+    }
+
     protected void setViewListener(final RecyclerViewHolder holder, int position) {
         View itemView = holder.getConvertView();
 
@@ -147,7 +331,7 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
             @Override
             public void onClick(View v) {
                 if (mOnItemClickListener != null) {
-                    mOnItemClickListener.onItemClick(holder, v, holder.getAdapterPosition());
+                    mOnItemClickListener.onItemClick(holder, v, getHolderPosition(holder));
                 }
             }
         });
@@ -156,14 +340,14 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
             @Override
             public boolean onLongClick(View v) {
                 return mOnItemLongClickListener != null
-                        && mOnItemLongClickListener.onItemLongClick(holder, v, holder.getAdapterPosition());
+                        && mOnItemLongClickListener.onItemLongClick(holder, v, getHolderPosition(holder));
             }
         });
 
         itemView.setOnFocusChangeListener(new View.OnFocusChangeListener() {
             @Override
             public void onFocusChange(View v, boolean hasFocus) {
-                int position = holder.getAdapterPosition();
+                int position = getHolderPosition(holder);
                 mSelectedItemPosition = hasFocus ? position : -1;
                 if (mOnItemFocusChangeListener != null && position >= 0) {
                     mOnItemFocusChangeListener.onItemFocusChange(holder, v, hasFocus, position);
@@ -175,7 +359,7 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
             @Override
             public boolean onKey(View v, int keyCode, KeyEvent event) {
                 return mOnItemKeyListener != null
-                        && mOnItemKeyListener.onKey(holder, v, keyCode, event, holder.getAdapterPosition());
+                        && mOnItemKeyListener.onKey(holder, v, keyCode, event, getHolderPosition(holder));
             }
         });
     }
@@ -196,6 +380,127 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
         mOnItemKeyListener = onItemKeyListener;
     }
 
+    /**
+     * 设置文本预计算，{@link RecyclerViewHolder#setText(int, CharSequence)}使用后台预计算的文本
+     *
+     * @param helper 文本预计算，null则关闭
+     */
+    public void setPrecomputedTextHelper(PrecomputedTextHelper helper) {
+        setPrecomputedTextHelper(helper, null);
+    }
+
+    /**
+     * 设置文本预计算，并在提交数据时预计算文本
+     *
+     * @param helper 文本预计算，null则关闭
+     * @param prefetcher 提交数据时预计算的文本
+     */
+    public void setPrecomputedTextHelper(PrecomputedTextHelper helper, PrecomputedTextHelper.TextPrefetcher<T> prefetcher) {
+        mPrecomputedTextHelper = helper;
+        mTextPrefetcher = prefetcher;
+        prefetchText(0);
+    }
+
+    private void prefetchText(int start) {
+        if (mPrecomputedTextHelper != null && mTextPrefetcher != null) {
+            mPrecomputedTextHelper.prefetch(mTextPrefetcher, mData, start);
+        }
+    }
+
+    /**
+     * 设置Item预处理，{@link PreparedItemViewDelegate#prepare(Object)}在提交数据和滑动时后台执行
+     *
+     * @param preparer Item预处理，null则关闭，绑定时同步预处理
+     */
+    public void setItemPreparer(ItemPreparer<T> preparer) {
+        if (mItemPreparer != null && mItemPreparer != preparer) {
+            mItemPreparer.clear();
+        }
+        mItemPreparer = preparer;
+        if (mItemPreparer != null) {
+            mItemPreparer.prepare(mPrepareHost, 0);
+        }
+    }
+
+    public ItemPreparer<T> getItemPreparer() {
+        return mItemPreparer;
+    }
+
+    /**
+     * 数据提交后，预计算文本、预处理Item
+     *
+     * @param start 新数据的起始位置
+     */
+    protected void onDataSubmitted(int start) {
+        prefetchText(start);
+        if (mItemPreparer != null) {
+            mItemPreparer.prepare(mPrepareHost, start);
+        }
+    }
+
+    /**
+     * 设置过滤条件，用于{@link #getFilter()}
+     *
+     * @param predicate 过滤条件，null则匹配{@link String#valueOf(Object)}是否包含查询字符串
+     */
+    public void setFilterPredicate(DataFilter.FilterPredicate<T> predicate) {
+        mFilterPredicate = predicate;
+        if (mDataFilter != null) {
+            mDataFilter.setFilterPredicate(predicate);
+        }
+    }
+
+    /**
+     * 后台过滤数据集，结果按差异刷新
+     *
+     * @return
+     */
+    @Override
+    public Filter getFilter() {
+        if (mDataFilter == null) {
+            mDataFilter = new DataFilter<>(new DataFilter.FilterHost<T>() {
+                @Override
+                public List<T> getData() {
+                    return mData;
+                }
+
+                @Override
+                public void onFilterResult(List<T> data, DataFilter.FilterDiff diff) {
+                    mData.clear();
+                    mData.addAll(data);
+                    onDataSubmitted(0);
+                    if (diff == null) {
+                        notifyDataSetChanged();
+                    } else {
+                        diff.dispatchUpdatesTo(new AdapterListUpdateCallback(MultiItemTypeRecyclerAdapter.this));
+                    }
+                }
+            });
+            mDataFilter.setFilterPredicate(mFilterPredicate);
+        }
+        return mDataFilter;
+    }
+
+    /**
+     * 数据集整体替换或清空时，放弃过滤隐藏的数据
+     */
+    protected void resetFilter() {
+        if (mDataFilter != null) {
+            mDataFilter.reset();
+        }
+    }
+
+    /**
+     * 数据内容修改后，清除其预处理结果
+     *
+     * @param item 数据
+     */
+    protected void invalidatePrepared(T item) {
+        if (mItemPreparer != null) {
+            mItemPreparer.invalidate(item);
+        }
+    }
+
     /**
      * 获取当前焦点位置
      *
@@ -205,6 +510,38 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
         return mSelectedItemPosition;
     }
 
+    /**
+     * 开始批量修改，数据集方法的刷新合并到{@link #endBatchUpdate()}时发出
+     */
+    @Override
+    public void beginBatchUpdate() {
+        if (mBatchingCallback == null) {
+            mBatchingCallback = new BatchingListUpdateCallback(mUpdateCallback);
+        }
+    }
+
+    @Override
+    public void endBatchUpdate() {
+        BatchingListUpdateCallback callback = mBatchingCallback;
+        if (callback != null) {
+            mBatchingCallback = null;
+            callback.dispatchLastEvent();
+        }
+    }
+
+    public boolean isBatchUpdating() {
+        return mBatchingCallback != null;
+    }
+
+    /**
+     * 数据集方法的刷新：批量修改时合并，否则直接刷新
+     *
+     * @return
+     */
+    protected final ListUpdateCallback getUpdateCallback() {
+        return mBatchingCallback != null ? mBatchingCallback : mUpdateCallback;
+    }
+
     /**** 以下为辅助方法 ****/
 
     /**
@@ -234,10 +571,12 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
      * @param data
      */
     public void notifyData(List<T> data) {
+        resetFilter();
         mData.clear();
         if (data != null) {
             mData.addAll(data);
         }
+        onDataSubmitted(0);
         notifyDataSetChanged();
     }
 
@@ -258,12 +597,14 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
      */
     @Override
     public void notifyNewData(List<T> data) {
-        notifyItemRangeRemoved(0, mData.size());
+        resetFilter();
+        getUpdateCallback().onRemoved(0, mData.size());
         mData.clear();
         if (data != null) {
             mData.addAll(data);
         }
-        notifyItemRangeChanged(0, mData.size());
+        onDataSubmitted(0);
+        getUpdateCallback().onChanged(0, mData.size(), null);
     }
 
     /**
@@ -293,7 +634,8 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
         if (data != null) {
             mData.addAll(position, data);
         }
-        notifyItemRangeChanged(position, mData.size() - position);
+        onDataSubmitted(position);
+        getUpdateCallback().onChanged(position, mData.size() - position, null);
     }
 
     /**
@@ -321,7 +663,8 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
             position = mData.size();
         }
         mData.add(position, item);
-        notifyItemRangeChanged(position, mData.size() - position);
+        onDataSubmitted(position);
+        getUpdateCallback().onChanged(position, mData.size() - position, null);
     }
 
     /**
@@ -346,8 +689,9 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
             return;
         }
 
+        invalidatePrepared(mData.get(position));
         mData.set(position, item);
-        notifyItemChanged(position);
+        getUpdateCallback().onChanged(position, 1, null);
     }
 
     /**
@@ -382,7 +726,7 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
             return;
         }
         mData.remove(position);
-        notifyItemRemoved(position);
+        getUpdateCallback().onRemoved(position, 1);
     }
 
     /**
@@ -407,7 +751,7 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
         for (int i = startPosition; i <= endPosition; i++) {
             removeList.add(mData.get(i));
         }
-        notifyItemRangeRemoved(startPosition, removeList.size());
+        getUpdateCallback().onRemoved(startPosition, removeList.size());
         mData.removeAll(removeList);
     }
 
@@ -430,7 +774,7 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
             return;
         }
         Collections.swap(mData, fromPosition, toPosition);
-        notifyItemMoved(fromPosition, toPosition);
+        getUpdateCallback().onMoved(fromPosition, toPosition);
     }
 
     /**
@@ -457,7 +801,7 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
         int index = fromPosition;
         fromPosition = Math.min(index, toPosition);
         toPosition = Math.max(index, toPosition);
-        notifyItemRangeChanged(fromPosition, Math.abs(toPosition - fromPosition) + 1);
+        getUpdateCallback().onChanged(fromPosition, Math.abs(toPosition - fromPosition) + 1, null);
     }
 
     /**
@@ -465,7 +809,8 @@ public class MultiItemTypeRecyclerAdapter<T> extends RecyclerView.Adapter<Recycl
      */
     @Override
     public void clear() {
-        notifyItemRangeRemoved(0, mData.size());
+        resetFilter();
+        getUpdateCallback().onRemoved(0, mData.size());
         mData.clear();
     }
 
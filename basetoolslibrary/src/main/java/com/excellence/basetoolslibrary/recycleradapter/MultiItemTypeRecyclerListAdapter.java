@@ -4,8 +4,10 @@ import android.view.KeyEvent;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.excellence.basetoolslibrary.helper.AdapterMetrics;
 import com.excellence.basetoolslibrary.recycleradapter.base.ItemViewDelegate;
 import com.excellence.basetoolslibrary.recycleradapter.base.ItemViewDelegateManager;
+import com.excellence.basetoolslibrary.recycleradapter.base.PreparedItemViewDelegate;
 
 import java.util.List;
 
@@ -14,6 +16,7 @@ import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.AsyncDifferConfig;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
 import static com.excellence.basetoolslibrary.utils.EmptyUtils.isEmpty;
 
@@ -33,6 +36,32 @@ public class MultiItemTypeRecyclerListAdapter<T> extends ListAdapter<T, Recycler
     private OnItemLongClickListener mOnItemLongClickListener = null;
     private OnItemFocusChangeListener mOnItemFocusChangeListener = null;
     private int mSelectedItemPosition = -1;
+    private final AdapterMetrics.Recorder mMetricsRecorder = new AdapterMetrics.Recorder(new AdapterMetrics.ClassResolver() {
+        @Override
+        public Class<?> getMetricsClass(int viewType) {
+            return MultiItemTypeRecyclerListAdapter.this.getMetricsClass(viewType);
+        }
+    });
+    private PrecomputedTextHelper mPrecomputedTextHelper = null;
+    private PrecomputedTextHelper.TextPrefetcher<T> mTextPrefetcher = null;
+    private ItemPreparer<T> mItemPreparer = null;
+    private RecyclerView.OnScrollListener mPrepareScrollListener = null;
+    private final ItemPreparer.PrepareHost<T> mPrepareHost = new ItemPreparer.PrepareHost<T>() {
+        @Override
+        public int getItemCount() {
+            return MultiItemTypeRecyclerListAdapter.this.getItemCount();
+        }
+
+        @Override
+        public T getItem(int position) {
+            return MultiItemTypeRecyclerListAdapter.this.getItem(position);
+        }
+
+        @Override
+        public ItemViewDelegate<T> getItemViewDelegate(T item, int position) {
+            return userItemViewDelegateManager() ? mItemViewDelegateManager.getItemViewDelegate(item, position) : null;
+        }
+    };
 
     public MultiItemTypeRecyclerListAdapter(@NonNull DiffUtil.ItemCallback<T> diffCallback) {
         super(diffCallback);
@@ -124,18 +153,116 @@ public class MultiItemTypeRecyclerListAdapter<T> extends ListAdapter<T, Recycler
     @NonNull
     @Override
     public RecyclerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        int layoutId = mItemViewDelegateManager.getItemViewLayoutId(viewType);
-        return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, layoutId);
+        long start = beginCreateMetrics(viewType);
+        try {
+            int layoutId = mItemViewDelegateManager.getItemViewLayoutId(viewType);
+            return RecyclerViewHolder.getViewHolder(parent.getContext(), parent, layoutId);
+        } finally {
+            endCreateMetrics(viewType, start);
+        }
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerViewHolder holder, int position) {
         ItemViewDelegate<T> delegate = getItemViewDelegate(getItemViewType(position));
-
-        delegate.convert(holder, getItem(position), position);
+        if (mItemPreparer != null && delegate instanceof PreparedItemViewDelegate) {
+            mItemPreparer.convert((PreparedItemViewDelegate<T, ?>) delegate, holder, getItem(position), position);
+        } else {
+            delegate.convert(holder, getItem(position), position);
+        }
         setViewListener(holder, position);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerViewHolder holder, int position, @NonNull List<Object> payloads) {
+        holder.setPrecomputedTextHelper(mPrecomputedTextHelper);
+        T item = getItem(position);
+        if (holder.consumePrebound(item, position) && payloads.isEmpty()) {
+            return;
+        }
+        int viewType = holder.getItemViewType();
+        long start = mMetricsRecorder.beginBind(viewType);
+        try {
+            super.onBindViewHolder(holder, position, payloads);
+        } finally {
+            mMetricsRecorder.endBind(viewType, start);
+        }
+        holder.markPrebound(item, position);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        if (mPrepareScrollListener == null) {
+            mPrepareScrollListener = new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                    if (mItemPreparer != null) {
+                        mItemPreparer.onScrolled(mPrepareHost, recyclerView, dx, dy);
+                    }
+                }
+            };
+        }
+        recyclerView.addOnScrollListener(mPrepareScrollListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (mPrepareScrollListener != null) {
+            recyclerView.removeOnScrollListener(mPrepareScrollListener);
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerViewHolder holder) {
+        super.onViewRecycled(holder);
+        mMetricsRecorder.recordRecycle(holder.getItemViewType());
+    }
+
+    /**
+     * 设置耗时统计，按视图类型和视图类统计创建、绑定耗时
+     *
+     * @param metrics 耗时统计，null则关闭
+     */
+    public void setAdapterMetrics(AdapterMetrics metrics) {
+        mMetricsRecorder.setMetrics(metrics);
+    }
+
+    public AdapterMetrics getAdapterMetrics() {
+        return mMetricsRecorder.getMetrics();
+    }
+
+    /**
+     * 统计使用的视图类：多布局时为对应的ItemViewDelegate，单布局时为适配器
+     *
+     * @param viewType 布局类型
+     * @return
+     */
+    protected Class<?> getMetricsClass(int viewType) {
+        if (userItemViewDelegateManager()) {
+            ItemViewDelegate<T> delegate = getItemViewDelegate(viewType);
+            if (delegate != null) {
+                return delegate.getClass();
+            }
+        }
+        return getClass();
+    }
+
+    /**
+     * 开始统计创建耗时，需要在try/finally中与{@link #endCreateMetrics(int, long)}成对调用
+     *
+     * @param viewType 布局类型
+     * @return 开始时间
+     */
+    protected final long beginCreateMetrics(int viewType) {
+        return mMetricsRecorder.beginCreate(viewType);
+    }
+
+    protected final void endCreateMetrics(int viewType, long start) {
+        mMetricsRecorder.endCreate(viewType, start);
+    }
+
     protected void setViewListener(final RecyclerViewHolder viewHolder, int position) {
         View itemView = viewHolder.getConvertView();
 
@@ -197,6 +324,48 @@ public class MultiItemTypeRecyclerListAdapter<T> extends ListAdapter<T, Recycler
         mOnItemKeyListener = onItemKeyListener;
     }
 
+    /**
+     * 设置文本预计算，{@link RecyclerViewHolder#setText(int, CharSequence)}使用后台预计算的文本
+     *
+     * @param helper 文本预计算，null则关闭
+     */
+    public void setPrecomputedTextHelper(PrecomputedTextHelper helper) {
+        setPrecomputedTextHelper(helper, null);
+    }
+
+    /**
+     * 设置文本预计算，并在{@link #submitList(List)}时预计算文本
+     *
+     * @param helper 文本预计算，null则关闭
+     * @param prefetcher 提交数据时预计算的文本
+     */
+    public void setPrecomputedTextHelper(PrecomputedTextHelper helper, PrecomputedTextHelper.TextPrefetcher<T> prefetcher) {
+        mPrecomputedTextHelper = helper;
+        mTextPrefetcher = prefetcher;
+        if (helper != null) {
+            helper.prefetch(prefetcher, getCurrentList(), 0);
+        }
+    }
+
+    /**
+     * 设置Item预处理，{@link PreparedItemViewDelegate#prepare(Object)}在{@link #submitList(List)}和滑动时后台执行
+     *
+     * @param preparer Item预处理，null则关闭，绑定时同步预处理
+     */
+    public void setItemPreparer(ItemPreparer<T> preparer) {
+        if (mItemPreparer != null && mItemPreparer != preparer) {
+            mItemPreparer.clear();
+        }
+        mItemPreparer = preparer;
+        if (mItemPreparer != null) {
+            mItemPreparer.prepare(mPrepareHost, 0);
+        }
+    }
+
+    public ItemPreparer<T> getItemPreparer() {
+        return mItemPreparer;
+    }
+
     /**
      * 获取当前焦点位置
      *
@@ -214,8 +383,36 @@ public class MultiItemTypeRecyclerListAdapter<T> extends ListAdapter<T, Recycler
              */
             super.submitList(null);
         } else {
+            if (mPrecomputedTextHelper != null) {
+                mPrecomputedTextHelper.prefetch(mTextPrefetcher, list, 0);
+            }
+            if (mItemPreparer != null) {
+                /**
+                 * 差异在后台计算，提交的数据集尚未成为当前数据集，直接预处理提交的数据集
+                 */
+                mItemPreparer.prepare(createPrepareHost(list), 0);
+            }
             super.submitList(list);
         }
     }
 
+    private ItemPreparer.PrepareHost<T> createPrepareHost(final List<T> list) {
+        return new ItemPreparer.PrepareHost<T>() {
+            @Override
+            public int getItemCount() {
+                return list.size();
+            }
+
+            @Override
+            public T getItem(int position) {
+                return list.get(position);
+            }
+
+            @Override
+            public ItemViewDelegate<T> getItemViewDelegate(T item, int position) {
+                return userItemViewDelegateManager() ? mItemViewDelegateManager.getItemViewDelegate(item, position) : null;
+            }
+        };
+    }
+
 }
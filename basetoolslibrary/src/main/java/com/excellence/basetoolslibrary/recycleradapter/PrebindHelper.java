@@ -0,0 +1,359 @@
+package com.excellence.basetoolslibrary.recycleradapter;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 空闲时预绑定：按焦点移动方向，在主线程空闲时创建并绑定即将显示的N行，放入预留缓存
+ *
+ *              列表布局时从{@link RecyclerView.RecycledViewPool}取视图，优先取预留的ViewHolder；
+ *              数据和位置与预绑定时一致则不再重新绑定，否则按正常流程绑定（仍省去创建）
+ *              数据变化时清除所有预绑定标记
+ *              适用于{@link MultiItemTypeRecyclerAdapter}和{@link MultiItemTypeRecyclerListAdapter}，
+ *              会替换列表的RecycledViewPool，不要在多个列表间共享
+ * </pre>
+ */
+public class PrebindHelper {
+
+    private static final int DEFAULT_ROW_COUNT = 1;
+
+    /**
+     * 每次空闲回调的预绑定时间上限，超过后等待下一次空闲
+     */
+    private static final long IDLE_BUDGET_MILLIS = 4;
+
+    private final RecyclerView mRecyclerView;
+    private final int mSpanCount;
+    private final int mRowCount;
+    private final ReservePool mPool = new ReservePool();
+    private final SparseArray<RecyclerViewHolder> mReserve = new SparseArray<>();
+
+    private RecyclerView.Adapter<RecyclerViewHolder> mAdapter = null;
+    private int mLastSelectedPosition = RecyclerView.NO_POSITION;
+    private int mDirection = 1;
+    private int mNextPosition = RecyclerView.NO_POSITION;
+    private int mEndPosition = RecyclerView.NO_POSITION;
+    private boolean isIdleScheduled = false;
+    private boolean isAttached = false;
+
+    private final RecyclerView.AdapterDataObserver mDataObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            clearReserve();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            clearReserve();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            clearReserve();
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            clearReserve();
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            clearReserve();
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            clearReserve();
+        }
+    };
+
+    private final ViewTreeObserver.OnGlobalFocusChangeListener mFocusChangeListener = new ViewTreeObserver.OnGlobalFocusChangeListener() {
+        @Override
+        public void onGlobalFocusChanged(View oldFocus, View newFocus) {
+            onSelectionChanged();
+        }
+    };
+
+    private final RecyclerView.OnScrollListener mScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                onSelectionChanged();
+            }
+        }
+    };
+
+    private final MessageQueue.IdleHandler mIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            isIdleScheduled = prebind();
+            return isIdleScheduled;
+        }
+    };
+
+    /**
+     * @param recyclerView 列表
+     * @param spanCount 每行的Item数
+     */
+    public PrebindHelper(@NonNull RecyclerView recyclerView, int spanCount) {
+        this(recyclerView, spanCount, DEFAULT_ROW_COUNT);
+    }
+
+    /**
+     * @param recyclerView 列表
+     * @param spanCount 每行的Item数
+     * @param rowCount 预绑定的行数
+     */
+    public PrebindHelper(@NonNull RecyclerView recyclerView, int spanCount, int rowCount) {
+        mRecyclerView = recyclerView;
+        mSpanCount = Math.max(1, spanCount);
+        mRowCount = Math.max(1, rowCount);
+    }
+
+    /**
+     * 开始预绑定，需要在设置适配器之后调用
+     */
+    @MainThread
+    @SuppressWarnings("unchecked")
+    public void attach() {
+        if (isAttached) {
+            return;
+        }
+        RecyclerView.Adapter<?> adapter = mRecyclerView.getAdapter();
+        if (!(adapter instanceof MultiItemTypeRecyclerAdapter) && !(adapter instanceof MultiItemTypeRecyclerListAdapter)) {
+            throw new IllegalArgumentException("PrebindHelper requires MultiItemTypeRecyclerAdapter or MultiItemTypeRecyclerListAdapter");
+        }
+        isAttached = true;
+        mAdapter = (RecyclerView.Adapter<RecyclerViewHolder>) adapter;
+        mAdapter.registerAdapterDataObserver(mDataObserver);
+        mRecyclerView.setRecycledViewPool(mPool);
+        mRecyclerView.getViewTreeObserver().addOnGlobalFocusChangeListener(mFocusChangeListener);
+        mRecyclerView.addOnScrollListener(mScrollListener);
+    }
+
+    /**
+     * 停止预绑定，预留的ViewHolder放回缓存池
+     */
+    @MainThread
+    public void detach() {
+        if (!isAttached) {
+            return;
+        }
+        isAttached = false;
+        if (isIdleScheduled) {
+            isIdleScheduled = false;
+            Looper.myQueue().removeIdleHandler(mIdleHandler);
+        }
+        clearReserve();
+        mAdapter.unregisterAdapterDataObserver(mDataObserver);
+        mRecyclerView.getViewTreeObserver().removeOnGlobalFocusChangeListener(mFocusChangeListener);
+        mRecyclerView.removeOnScrollListener(mScrollListener);
+        mAdapter = null;
+    }
+
+    /**
+     * 预留的ViewHolder数量
+     *
+     * @return
+     */
+    public int getReserveCount() {
+        return mReserve.size();
+    }
+
+    private int getSelectedItemPosition() {
+        int position = RecyclerView.NO_POSITION;
+        if (mAdapter instanceof MultiItemTypeRecyclerAdapter) {
+            position = ((MultiItemTypeRecyclerAdapter<?>) mAdapter).getSelectedItemPosition();
+        } else if (mAdapter instanceof MultiItemTypeRecyclerListAdapter) {
+            position = ((MultiItemTypeRecyclerListAdapter<?>) mAdapter).getSelectedItemPosition();
+        }
+        if (position < 0) {
+            View focusedChild = mRecyclerView.getFocusedChild();
+            if (focusedChild != null) {
+                position = mRecyclerView.getChildAdapterPosition(focusedChild);
+            }
+        }
+        return position;
+    }
+
+    private void onSelectionChanged() {
+        if (!isAttached) {
+            return;
+        }
+        int selected = getSelectedItemPosition();
+        if (selected < 0) {
+            return;
+        }
+        if (mLastSelectedPosition >= 0 && selected != mLastSelectedPosition) {
+            mDirection = selected > mLastSelectedPosition ? 1 : -1;
+        }
+        mLastSelectedPosition = selected;
+
+        /**
+         * 已显示范围之外，焦点方向上的N行
+         */
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        for (int i = 0; i < mRecyclerView.getChildCount(); i++) {
+            int position = mRecyclerView.getChildAdapterPosition(mRecyclerView.getChildAt(i));
+            if (position != RecyclerView.NO_POSITION) {
+                first = Math.min(first, position);
+                last = Math.max(last, position);
+            }
+        }
+        if (last < 0) {
+            return;
+        }
+        int count = mSpanCount * mRowCount;
+        if (mDirection > 0) {
+            mNextPosition = last + 1;
+            mEndPosition = Math.min(last + count, mAdapter.getItemCount() - 1);
+        } else {
+            mNextPosition = first - 1;
+            mEndPosition = Math.max(first - count, 0);
+        }
+        trimReserve(first, last, count);
+        scheduleIdle();
+    }
+
+    private void scheduleIdle() {
+        if (!isIdleScheduled && mNextPosition >= 0 && mNextPosition < mAdapter.getItemCount()) {
+            isIdleScheduled = true;
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+    }
+
+    /**
+     * 在时间预算内预绑定
+     *
+     * @return {@code true}:还有未完成的预绑定<br>{@code false}:已完成
+     */
+    private boolean prebind() {
+        if (!isAttached || mAdapter == null) {
+            return false;
+        }
+        long deadline = SystemClock.uptimeMillis() + IDLE_BUDGET_MILLIS;
+        while (hasNext()) {
+            int position = mNextPosition;
+            mNextPosition += mDirection;
+            if (mReserve.get(position) != null || mRecyclerView.findViewHolderForAdapterPosition(position) != null) {
+                continue;
+            }
+            try {
+                prebind(position);
+            } catch (Exception e) {
+                e.printStackTrace();
+                return false;
+            }
+            if (SystemClock.uptimeMillis() >= deadline) {
+                return hasNext();
+            }
+        }
+        return false;
+    }
+
+    private boolean hasNext() {
+        if (mNextPosition < 0 || mNextPosition >= mAdapter.getItemCount()) {
+            return false;
+        }
+        return mDirection > 0 ? mNextPosition <= mEndPosition : mNextPosition >= mEndPosition;
+    }
+
+    private void prebind(int position) {
+        int viewType = mAdapter.getItemViewType(position);
+        RecyclerViewHolder holder = (RecyclerViewHolder) mPool.getPoolView(viewType);
+        if (holder == null) {
+            holder = mAdapter.createViewHolder(mRecyclerView, viewType);
+        }
+        holder.isPrebinding = true;
+        try {
+            mAdapter.bindViewHolder(holder, position);
+        } finally {
+            holder.isPrebinding = false;
+        }
+        mReserve.put(position, holder);
+    }
+
+    /**
+     * 预留超出上限时，丢弃离当前显示范围最远的
+     */
+    private void trimReserve(int first, int last, int count) {
+        int max = count * 2;
+        while (mReserve.size() > max) {
+            int firstKey = mReserve.keyAt(0);
+            int lastKey = mReserve.keyAt(mReserve.size() - 1);
+            int index = (first - firstKey) > (lastKey - last) ? 0 : mReserve.size() - 1;
+            RecyclerViewHolder holder = mReserve.valueAt(index);
+            mReserve.removeAt(index);
+            holder.clearPrebound();
+            mPool.putPoolView(holder);
+        }
+    }
+
+    private void clearReserve() {
+        for (int i = 0; i < mReserve.size(); i++) {
+            RecyclerViewHolder holder = mReserve.valueAt(i);
+            holder.clearPrebound();
+            mPool.putPoolView(holder);
+        }
+        mReserve.clear();
+    }
+
+    /**
+     * 优先提供预留的ViewHolder：向后移动取位置最小的，向前移动取位置最大的
+     */
+    private RecyclerViewHolder takeReserved(int viewType) {
+        int size = mReserve.size();
+        for (int i = 0; i < size; i++) {
+            int index = mDirection > 0 ? i : size - 1 - i;
+            RecyclerViewHolder holder = mReserve.valueAt(index);
+            if (holder.getItemViewType() == viewType) {
+                mReserve.removeAt(index);
+                return holder;
+            }
+        }
+        return null;
+    }
+
+    private class ReservePool extends RecyclerView.RecycledViewPool {
+
+        @Override
+        public RecyclerView.ViewHolder getRecycledView(int viewType) {
+            RecyclerViewHolder holder = takeReserved(viewType);
+            if (holder != null) {
+                return holder;
+            }
+            return super.getRecycledView(viewType);
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            for (int i = 0; i < mReserve.size(); i++) {
+                mReserve.valueAt(i).clearPrebound();
+            }
+            mReserve.clear();
+        }
+
+        RecyclerView.ViewHolder getPoolView(int viewType) {
+            return super.getRecycledView(viewType);
+        }
+
+        void putPoolView(RecyclerView.ViewHolder holder) {
+            super.putRecycledView(holder);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.excellence.basetoolslibrary.recycleradapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.text.TextUtils;
+import android.util.SparseArray;
+import android.widget.TextView;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.IdRes;
+import androidx.collection.LruCache;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 文本预计算：后台线程计算{@link PrecomputedTextCompat}，绑定时直接使用
+ *              未计算完成时先显示原始文本，计算完成后再替换，不阻塞绑定
+ * </pre>
+ */
+public class PrecomputedTextHelper {
+
+    private static final String TAG = PrecomputedTextHelper.class.getSimpleName();
+
+    private static final int DEFAULT_CACHE_SIZE = 200;
+
+    private final Executor mExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<Key, PrecomputedTextCompat> mCache;
+    private final Map<Key, Boolean> mPendingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 以下只在主线程访问
+     */
+    private final SparseArray<PrecomputedTextCompat.Params> mParams = new SparseArray<>();
+    private final Map<TextView, Key> mWaitingViews = new WeakHashMap<>();
+
+    public PrecomputedTextHelper() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize 缓存条数
+     */
+    public PrecomputedTextHelper(int cacheSize) {
+        this(createDefaultExecutor(), cacheSize);
+    }
+
+    /**
+     * @param executor 后台计算线程池
+     * @param cacheSize 缓存条数
+     */
+    public PrecomputedTextHelper(Executor executor, int cacheSize) {
+        mExecutor = executor;
+        mCache = new LruCache<>(Math.max(1, cacheSize));
+    }
+
+    private static Executor createDefaultExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        r.run();
+                    }
+                }, TAG);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 获取缓存大小
+     *
+     * @return
+     */
+    public int getCacheSize() {
+        return mCache.maxSize();
+    }
+
+    /**
+     * 指定控件的文本样式，未指定时在第一次绑定时从控件中读取
+     *
+     * @param viewId 控件资源Id
+     * @param params 文本样式
+     */
+    public void setTextMetricsParams(@IdRes int viewId, PrecomputedTextCompat.Params params) {
+        mParams.put(viewId, params);
+    }
+
+    /**
+     * 预计算文本，提交数据时调用；文本样式未知时忽略
+     *
+     * @param viewId 控件资源Id
+     * @param text 文本
+     */
+    public void prefetch(@IdRes int viewId, CharSequence text) {
+        PrecomputedTextCompat.Params params = mParams.get(viewId);
+        if (params == null || TextUtils.isEmpty(text)) {
+            return;
+        }
+        Key key = new Key(text, params);
+        if (mCache.get(key) == null) {
+            schedule(key);
+        }
+    }
+
+    /**
+     * 设置文本：已计算完成则直接使用，否则先显示原始文本并后台计算
+     *
+     * @param view 文本控件
+     * @param viewId 控件资源Id
+     * @param text 文本
+     */
+    public void setText(TextView view, @IdRes int viewId, CharSequence text) {
+        if (TextUtils.isEmpty(text) || text instanceof PrecomputedTextCompat) {
+            mWaitingViews.remove(view);
+            view.setText(text);
+            return;
+        }
+
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(view);
+        mParams.put(viewId, params);
+        Key key = new Key(text, params);
+        PrecomputedTextCompat precomputedText = mCache.get(key);
+        if (precomputedText != null && applyPrecomputedText(view, precomputedText)) {
+            mWaitingViews.remove(view);
+            return;
+        }
+
+        view.setText(text);
+        mWaitingViews.put(view, key);
+        schedule(key);
+    }
+
+    /**
+     * 预计算数据集的文本，最多预计算缓存大小的条数
+     *
+     * @param prefetcher 文本提供
+     * @param data 数据集
+     * @param start 起始位置
+     * @param <T>
+     */
+    public <T> void prefetch(TextPrefetcher<T> prefetcher, List<T> data, int start) {
+        if (prefetcher == null || data == null) {
+            return;
+        }
+        int end = Math.min(data.size(), start + getCacheSize());
+        for (int i = Math.max(0, start); i < end; i++) {
+            prefetcher.onPrefetch(this, data.get(i));
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        mCache.evictAll();
+        mWaitingViews.clear();
+    }
+
+    private void schedule(final Key key) {
+        if (mPendingKeys.put(key, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        PrecomputedTextCompat precomputedText = PrecomputedTextCompat.create(key.mText, key.mParams);
+                        mCache.put(key, precomputedText);
+                        mMainHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                onPrecomputed(key);
+                            }
+                        });
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    } finally {
+                        mPendingKeys.remove(key);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            mPendingKeys.remove(key);
+            e.printStackTrace();
+        }
+    }
+
+    private void onPrecomputed(Key key) {
+        PrecomputedTextCompat precomputedText = mCache.get(key);
+        if (precomputedText == null || mWaitingViews.isEmpty()) {
+            return;
+        }
+        Iterator<Map.Entry<TextView, Key>> iterator = mWaitingViews.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TextView, Key> entry = iterator.next();
+            TextView view = entry.getKey();
+            if (view != null && key.equals(entry.getValue())) {
+                iterator.remove();
+                applyPrecomputedText(view, precomputedText);
+            }
+        }
+    }
+
+    /**
+     * 控件样式与预计算样式不一致时会抛出异常，此时使用原始文本
+     */
+    private boolean applyPrecomputedText(TextView view, PrecomputedTextCompat precomputedText) {
+        try {
+            TextViewCompat.setPrecomputedText(view, precomputedText);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 提交数据时预计算文本
+     *
+     * @param <T>
+     */
+    public interface TextPrefetcher<T> {
+
+        /**
+         * 调用{@link PrecomputedTextHelper#prefetch(int, CharSequence)}预计算该数据会显示的文本
+         *
+         * @param helper 文本预计算
+         * @param item 数据
+         */
+        void onPrefetch(PrecomputedTextHelper helper, T item);
+    }
+
+    private static final class Key {
+
+        private final CharSequence mText;
+        private final PrecomputedTextCompat.Params mParams;
+        private final int mHashCode;
+
+        Key(CharSequence text, PrecomputedTextCompat.Params params) {
+            mText = text;
+            mParams = params;
+            mHashCode = 31 * text.hashCode() + params.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return mHashCode == key.mHashCode && mText.equals(key.mText) && mParams.equals(key.mParams);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
+}
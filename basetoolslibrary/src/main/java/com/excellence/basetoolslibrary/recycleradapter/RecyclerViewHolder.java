@@ -44,6 +44,14 @@ public class RecyclerViewHolder extends RecyclerView.ViewHolder implements ViewH
     private Context mContext = null;
     private View mConvertView = null;
     private SparseArray<View> mViews = null;
+    private PrecomputedTextHelper mPrecomputedTextHelper = null;
+
+    /**
+     * {@link PrebindHelper}预绑定标记
+     */
+    boolean isPrebinding = false;
+    private Object mPreboundItem = null;
+    private int mPreboundPosition = RecyclerView.NO_POSITION;
 
     public RecyclerViewHolder(Context context, View itemView) {
         super(itemView);
@@ -66,6 +74,47 @@ public class RecyclerViewHolder extends RecyclerView.ViewHolder implements ViewH
         return mConvertView;
     }
 
+    /**
+     * 设置文本预计算，非空时{@link #setText(int, CharSequence)}使用后台预计算的文本
+     *
+     * @param helper 文本预计算
+     */
+    public void setPrecomputedTextHelper(PrecomputedTextHelper helper) {
+        mPrecomputedTextHelper = helper;
+    }
+
+    /**
+     * 预绑定完成，记录绑定的数据和位置；非预绑定时忽略
+     */
+    void markPrebound(Object item, int position) {
+        if (isPrebinding) {
+            mPreboundItem = item;
+            mPreboundPosition = position;
+        }
+    }
+
+    /**
+     * 清除预绑定标记
+     */
+    void clearPrebound() {
+        mPreboundItem = null;
+        mPreboundPosition = RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * 正式绑定时检查预绑定：数据和位置都一致时不需要重新绑定，检查后清除标记
+     *
+     * @param item 数据
+     * @param position 位置
+     * @return {@code true}:已预绑定<br>{@code false}:需要绑定
+     */
+    boolean consumePrebound(Object item, int position) {
+        boolean isPrebound = !isPrebinding && mPreboundPosition != RecyclerView.NO_POSITION
+                && mPreboundPosition == position && mPreboundItem == item;
+        clearPrebound();
+        return isPrebound;
+    }
+
     /**
      * 获取view控件
      *
@@ -110,9 +159,7 @@ public class RecyclerViewHolder extends RecyclerView.ViewHolder implements ViewH
      */
     @Override
     public RecyclerViewHolder setText(@IdRes int viewId, String text) {
-        TextView view = getView(viewId);
-        view.setText(text);
-        return this;
+        return setText(viewId, (CharSequence) text);
     }
 
     /**
@@ -125,7 +172,11 @@ public class RecyclerViewHolder extends RecyclerView.ViewHolder implements ViewH
     @Override
     public RecyclerViewHolder setText(@IdRes int viewId, CharSequence text) {
         TextView view = getView(viewId);
-        view.setText(text);
+        if (mPrecomputedTextHelper != null) {
+            mPrecomputedTextHelper.setText(view, viewId, text);
+        } else {
+            view.setText(text);
+        }
         return this;
     }
 
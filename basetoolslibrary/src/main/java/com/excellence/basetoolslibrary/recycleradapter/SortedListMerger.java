@@ -0,0 +1,365 @@
+package com.excellence.basetoolslibrary.recycleradapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 有序数据集的归并与差异：{@link SortedMultiItemTypeRecyclerAdapter}使用
+ *
+ *              同一条数据按{@link Callback#getItemKey(Object)}匹配，排序位置变化的数据刷新为移动而不是删除再插入
+ *              先从后往前分发删除，再分发移动、按位置升序分发插入和修改，每个操作的位置都是分发时的位置
+ *              旧顺序在新顺序中的最长递增子序列不动，只有其余的数据移动，每条最多移动一次，整体O(n log n)
+ * </pre>
+ */
+final class SortedListMerger {
+
+    static final int OP_INSERT = 0;
+    static final int OP_REMOVE = 1;
+    static final int OP_CHANGE = 2;
+    static final int OP_MOVE = 3;
+
+    private SortedListMerger() {
+
+    }
+
+    /**
+     * 新数据集替代旧数据集
+     *
+     * @param oldData 旧数据集，有序
+     * @param data 新数据集，无需有序
+     * @param callback
+     * @return
+     */
+    static <T> Result<T> replace(List<T> oldData, List<T> data, Callback<T> callback) {
+        List<T> newData = data == null ? new ArrayList<T>() : new ArrayList<>(data);
+        Collections.sort(newData, callback);
+        boolean[] isNew = new boolean[newData.size()];
+        for (int i = 0; i < isNew.length; i++) {
+            isNew[i] = true;
+        }
+        return diff(oldData, newData, isNew, callback);
+    }
+
+    /**
+     * 新增数据集：与已有数据相同的数据替换已有数据，其余按顺序插入，排序相等时已有数据在前
+     *
+     * @param oldData 旧数据集，有序
+     * @param data 新增数据集，无需有序
+     * @param callback
+     * @return
+     */
+    static <T> Result<T> addAll(List<T> oldData, List<T> data, Callback<T> callback) {
+        Map<Object, T> added = new LinkedHashMap<>();
+        if (data != null) {
+            for (T item : data) {
+                Object key = callback.getItemKey(item);
+                /**
+                 * 新增数据中重复的，以最后一条为准
+                 */
+                added.remove(key);
+                added.put(key, item);
+            }
+        }
+        List<T> newItems = new ArrayList<>(added.values());
+        Collections.sort(newItems, callback);
+
+        List<T> merged = new ArrayList<>(oldData.size() + newItems.size());
+        List<Boolean> isNewList = new ArrayList<>(oldData.size() + newItems.size());
+        int newIndex = 0;
+        for (T oldItem : oldData) {
+            if (added.containsKey(callback.getItemKey(oldItem))) {
+                continue;
+            }
+            while (newIndex < newItems.size() && callback.compare(newItems.get(newIndex), oldItem) < 0) {
+                merged.add(newItems.get(newIndex++));
+                isNewList.add(true);
+            }
+            merged.add(oldItem);
+            isNewList.add(false);
+        }
+        while (newIndex < newItems.size()) {
+            merged.add(newItems.get(newIndex++));
+            isNewList.add(true);
+        }
+
+        boolean[] isNew = new boolean[isNewList.size()];
+        for (int i = 0; i < isNew.length; i++) {
+            isNew[i] = isNewList.get(i);
+        }
+        return diff(oldData, merged, isNew, callback);
+    }
+
+    /**
+     * 计算旧数据集到新数据集的操作
+     *
+     * @param oldData 旧数据集
+     * @param newData 新数据集
+     * @param isNew 新数据集中的数据是否来自本次提交，只有提交的数据才检查内容是否变化
+     * @param callback
+     * @return
+     */
+    private static <T> Result<T> diff(List<T> oldData, List<T> newData, boolean[] isNew, Callback<T> callback) {
+        Map<Object, Integer> oldIndices = new HashMap<>(oldData.size() * 2);
+        for (int i = 0; i < oldData.size(); i++) {
+            Object key = callback.getItemKey(oldData.get(i));
+            if (!oldIndices.containsKey(key)) {
+                oldIndices.put(key, i);
+            }
+        }
+
+        boolean[] isMatched = new boolean[oldData.size()];
+        int[] matches = new int[newData.size()];
+        for (int i = 0; i < newData.size(); i++) {
+            Integer oldIndex = oldIndices.get(callback.getItemKey(newData.get(i)));
+            if (oldIndex != null && !isMatched[oldIndex]) {
+                isMatched[oldIndex] = true;
+                matches[i] = oldIndex;
+            } else {
+                matches[i] = -1;
+            }
+        }
+
+        Result<T> result = new Result<>(newData);
+        for (int i = oldData.size() - 1; i >= 0; i--) {
+            if (!isMatched[i]) {
+                result.record(OP_REMOVE, i, 0);
+            }
+        }
+        recordMoves(matches, result);
+        for (int i = 0; i < newData.size(); i++) {
+            if (matches[i] < 0) {
+                result.record(OP_INSERT, i, 0);
+            }
+        }
+        /**
+         * 修改在最后按位置升序分发，相邻的修改可以合并为区间
+         * 同一个对象无法比较修改前后的内容，按已修改处理
+         */
+        for (int i = 0; i < newData.size(); i++) {
+            int oldIndex = matches[i];
+            if (oldIndex < 0 || !isNew[i]) {
+                continue;
+            }
+            T oldItem = oldData.get(oldIndex);
+            T newItem = newData.get(i);
+            if (oldItem == newItem || !callback.areContentsTheSame(oldItem, newItem)) {
+                result.record(OP_CHANGE, i, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <pre>
+     * 分发移动：删除之后、插入之前，数据集中只有匹配上的数据，按旧顺序排列
+     *
+     * 旧下标在新顺序中的最长递增子序列保持不动，其余的数据各移动一次：
+     * 按新顺序依次移到新顺序中前一条数据之后，没有前一条时移到最前
+     * 前一条数据要么不动，要么已经移动过，所以每条数据移动后的相对位置就是最终的相对位置
+     *
+     * 移动过的数据以（锚点，链长）排序：锚点是前面最近的不动数据的旧下标，没有时为-1，链长是与锚点之间的数据数
+     * 未移动的数据以（旧下标，0）排序；所有可能的排序键离散化后用树状数组计算分发时的位置
+     * </pre>
+     *
+     * @param matches 新数据对应的旧下标，-1表示新增
+     * @param result
+     */
+    private static <T> void recordMoves(int[] matches, Result<T> result) {
+        int[] sequence = new int[matches.length];
+        int count = 0;
+        for (int oldIndex : matches) {
+            if (oldIndex >= 0) {
+                sequence[count++] = oldIndex;
+            }
+        }
+        if (count < 2) {
+            return;
+        }
+
+        boolean[] isStable = longestIncreasing(sequence, count);
+        long[] initialKeys = new long[count];
+        long[] finalKeys = new long[count];
+        long[] keys = new long[count * 2];
+        int keyCount = 0;
+        long stride = count + 1L;
+        long anchor = -1;
+        long chain = -1;
+        for (int i = 0; i < count; i++) {
+            initialKeys[i] = (sequence[i] + 1L) * stride;
+            keys[keyCount++] = initialKeys[i];
+            if (isStable[i]) {
+                anchor = sequence[i];
+                chain = 0;
+            } else {
+                chain++;
+                finalKeys[i] = (anchor + 1L) * stride + chain;
+                keys[keyCount++] = finalKeys[i];
+            }
+        }
+        keys = Arrays.copyOf(keys, keyCount);
+        Arrays.sort(keys);
+
+        /**
+         * 树状数组：已占用的排序键
+         */
+        int[] tree = new int[keyCount + 1];
+        for (int i = 0; i < count; i++) {
+            add(tree, Arrays.binarySearch(keys, initialKeys[i]), 1);
+        }
+        for (int i = 0; i < count; i++) {
+            if (isStable[i]) {
+                continue;
+            }
+            int initialRank = Arrays.binarySearch(keys, initialKeys[i]);
+            int from = countBefore(tree, initialRank);
+            add(tree, initialRank, -1);
+            int finalRank = Arrays.binarySearch(keys, finalKeys[i]);
+            int to = countBefore(tree, finalRank);
+            add(tree, finalRank, 1);
+            if (from != to) {
+                result.record(OP_MOVE, from, to);
+            }
+        }
+    }
+
+    /**
+     * 最长严格递增子序列，O(n log n)
+     *
+     * @return 是否在子序列中
+     */
+    private static boolean[] longestIncreasing(int[] sequence, int count) {
+        int[] tails = new int[count];
+        int[] previous = new int[count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sequence[tails[mid]] < sequence[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] isStable = new boolean[count];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            isStable[i] = true;
+        }
+        return isStable;
+    }
+
+    private static void add(int[] tree, int rank, int delta) {
+        for (int i = rank + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private static int countBefore(int[] tree, int rank) {
+        int sum = 0;
+        for (int i = rank; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 排序和匹配规则
+     *
+     * @param <T>
+     */
+    abstract static class Callback<T> implements Comparator<T> {
+
+        /**
+         * 同一条数据的标识，需要与{@link Object#equals(Object)}、{@link Object#hashCode()}一致
+         */
+        abstract Object getItemKey(T item);
+
+        /**
+         * 同一条数据的内容是否相同
+         */
+        abstract boolean areContentsTheSame(T oldItem, T newItem);
+    }
+
+    /**
+     * 归并结果
+     *
+     * @param <T>
+     */
+    static final class Result<T> {
+
+        private final List<T> mData;
+        private final List<int[]> mOps = new ArrayList<>();
+        private int mFirstChanged;
+
+        Result(List<T> data) {
+            mData = data;
+            mFirstChanged = data.size();
+        }
+
+        private void record(int type, int position, int toPosition) {
+            mOps.add(new int[]{type, position, toPosition});
+            int changed = type == OP_MOVE ? Math.min(position, toPosition) : position;
+            mFirstChanged = Math.min(mFirstChanged, changed);
+        }
+
+        /**
+         * 新数据集
+         */
+        List<T> getData() {
+            return mData;
+        }
+
+        /**
+         * 第一个有变化的位置，没有变化时为数据集大小
+         */
+        int getFirstChanged() {
+            return mFirstChanged;
+        }
+
+        int getOperationCount() {
+            return mOps.size();
+        }
+
+        void dispatchUpdatesTo(ListUpdateCallback callback) {
+            for (int[] op : mOps) {
+                switch (op[0]) {
+                    case OP_INSERT:
+                        callback.onInserted(op[1], 1);
+                        break;
+
+                    case OP_REMOVE:
+                        callback.onRemoved(op[1], 1);
+                        break;
+
+                    case OP_MOVE:
+                        callback.onMoved(op[1], op[2]);
+                        break;
+
+                    case OP_CHANGE:
+                    default:
+                        callback.onChanged(op[1], 1, null);
+                        break;
+                }
+            }
+        }
+    }
+}
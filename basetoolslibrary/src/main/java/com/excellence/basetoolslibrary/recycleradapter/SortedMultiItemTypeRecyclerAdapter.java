@@ -0,0 +1,357 @@
+package com.excellence.basetoolslibrary.recycleradapter;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 有序的多种类型布局RecyclerView通用适配器
+ *
+ *              数据集始终按比较器排序，插入位置由二分查找确定，忽略传入的位置
+ *              批量插入和替换数据集时先排序新数据，再按{@link #getItemKey(Object)}与旧数据归并，连续的插入、删除合并为区间刷新
+ *              同一条数据的排序位置变化时刷新为移动，批量插入已有的数据时替换而不会重复
+ *              位置由比较器决定，{@link #swap(int, int)}和{@link #move(int, int)}无效，只打印警告
+ *              {@link #add(Object)}按标识索引找到已有数据，再按比较器二分定位，不逐条比较标识
+ * </pre>
+ */
+public class SortedMultiItemTypeRecyclerAdapter<T> extends MultiItemTypeRecyclerAdapter<T> {
+
+    private static final String TAG = SortedMultiItemTypeRecyclerAdapter.class.getSimpleName();
+
+    private final Comparator<? super T> mComparator;
+    private final SortedListMerger.Callback<T> mMergeCallback = new SortedListMerger.Callback<T>() {
+        @Override
+        public int compare(T o1, T o2) {
+            return mComparator.compare(o1, o2);
+        }
+
+        @Override
+        Object getItemKey(T item) {
+            return item == null ? null : SortedMultiItemTypeRecyclerAdapter.this.getItemKey(item);
+        }
+
+        @Override
+        boolean areContentsTheSame(T oldItem, T newItem) {
+            return oldItem != null && newItem != null && SortedMultiItemTypeRecyclerAdapter.this.areContentsTheSame(oldItem, newItem);
+        }
+    };
+
+    /**
+     * 标识到数据的索引，null表示需要重建；查找时校验数据仍在数据集中，过滤、子类直接修改{@link #mData}后也不会出错
+     */
+    private Map<Object, T> mKeyIndex = null;
+
+    public SortedMultiItemTypeRecyclerAdapter(T[] data, @NonNull Comparator<? super T> comparator) {
+        this(data == null ? null : Arrays.asList(data), comparator);
+    }
+
+    public SortedMultiItemTypeRecyclerAdapter(List<T> data, @NonNull Comparator<? super T> comparator) {
+        super(data);
+        mComparator = comparator;
+        Collections.sort(mData, mComparator);
+    }
+
+    public Comparator<? super T> getComparator() {
+        return mComparator;
+    }
+
+    /**
+     * 数据的标识，标识相同的是同一条数据，排序位置变化时刷新为移动；默认为数据本身，即使用{@link Object#equals(Object)}
+     * 标识需要正确实现{@link Object#equals(Object)}和{@link Object#hashCode()}
+     *
+     * @param item 数据
+     * @return 标识
+     */
+    protected Object getItemKey(@NonNull T item) {
+        return item;
+    }
+
+    /**
+     * 同一条数据的内容是否相同，相同时不刷新；默认始终刷新
+     *
+     * @param oldItem 旧数据
+     * @param newItem 新数据
+     * @return {@code true}:是<br>{@code false}:否
+     */
+    protected boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+        return false;
+    }
+
+    /**
+     * 查找排序位置：相等的数据插入到最后
+     *
+     * @param item 数据
+     * @return 插入位置
+     */
+    public int findInsertPosition(T item) {
+        int low = 0;
+        int high = mData.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mComparator.compare(mData.get(mid), item) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void notifyData(List<T> data) {
+        List<T> copy = data == null ? new ArrayList<T>() : new ArrayList<>(data);
+        Collections.sort(copy, mComparator);
+        mKeyIndex = null;
+        super.notifyData(copy);
+    }
+
+    /**
+     * 新数据集与旧数据集归并，只刷新有变化的数据，排序位置变化的数据刷新为移动
+     *
+     * @param data 新数据集
+     */
+    @Override
+    public void notifyNewData(List<T> data) {
+        resetFilter();
+        apply(SortedListMerger.replace(mData, data, mMergeCallback));
+    }
+
+    @Override
+    public void addAll(List<T> data) {
+        addAll(mData.size(), data);
+    }
+
+    /**
+     * 批量插入：新数据排序后与旧数据一次归并，忽略插入位置；已有的同一条数据被替换，不会重复
+     *
+     * @param position 忽略
+     * @param data 新数据集
+     */
+    @Override
+    public void addAll(int position, List<T> data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (data.size() == 1) {
+            add(data.get(0));
+            return;
+        }
+        apply(SortedListMerger.addAll(mData, data, mMergeCallback));
+    }
+
+    /**
+     * 插入数据；已有同一条数据时替换并重新确定排序位置
+     *
+     * @param item 数据
+     */
+    @Override
+    public void add(T item) {
+        int index = indexOfKey(item);
+        if (index >= 0) {
+            modify(index, item);
+            return;
+        }
+        int position = findInsertPosition(item);
+        mData.add(position, item);
+        putKeyIndex(item);
+        onDataSubmitted(position);
+        getUpdateCallback().onInserted(position, 1);
+    }
+
+    /**
+     * 插入数据，忽略插入位置
+     *
+     * @param position 忽略
+     * @param item 数据
+     */
+    @Override
+    public void add(int position, T item) {
+        add(item);
+    }
+
+    /**
+     * 数据内容修改后，重新确定排序位置
+     *
+     * @param item 数据集中的对象
+     */
+    @Override
+    public void modify(T item) {
+        int position = indexOfIdentity(item);
+        if (position < 0) {
+            position = mData.indexOf(item);
+        }
+        modify(position, item);
+    }
+
+    /**
+     * 替换数据，并重新确定排序位置
+     *
+     * @param position 替换位置
+     * @param item 替换数据
+     */
+    @Override
+    public void modify(int position, T item) {
+        if (position < 0 || position > mData.size() - 1) {
+            return;
+        }
+
+        T oldItem = mData.remove(position);
+        invalidatePrepared(oldItem);
+        removeKeyIndex(oldItem);
+        int newPosition = findInsertPosition(item);
+        mData.add(newPosition, item);
+        putKeyIndex(item);
+        if (newPosition != position) {
+            getUpdateCallback().onMoved(position, newPosition);
+        }
+        getUpdateCallback().onChanged(newPosition, 1, null);
+    }
+
+    @Override
+    public void modify(T oldItem, T newItem) {
+        modify(mData.indexOf(oldItem), newItem);
+    }
+
+    @Override
+    public void remove(int position) {
+        if (position >= 0 && position < mData.size()) {
+            removeKeyIndex(mData.get(position));
+        }
+        super.remove(position);
+    }
+
+    @Override
+    public void remove(int startPosition, int endPosition) {
+        mKeyIndex = null;
+        super.remove(startPosition, endPosition);
+    }
+
+    @Override
+    public void clear() {
+        mKeyIndex = null;
+        super.clear();
+    }
+
+    /**
+     * 有序数据集的位置由比较器决定，交换无效，只打印警告
+     */
+    @Override
+    public void swap(int fromPosition, int toPosition) {
+        Log.w(TAG, "Sorted adapter ignores swap: " + fromPosition + " -> " + toPosition);
+    }
+
+    /**
+     * 有序数据集的位置由比较器决定，移动无效，只打印警告
+     */
+    @Override
+    public void move(int fromPosition, int toPosition) {
+        Log.w(TAG, "Sorted adapter ignores move: " + fromPosition + " -> " + toPosition);
+    }
+
+    private int indexOfIdentity(T item) {
+        for (int i = 0; i < mData.size(); i++) {
+            if (mData.get(i) == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 同一条数据的位置：索引找到已有数据，再在比较器相等的区间内按引用查找
+     * 已有数据在数据集外被修改、排序位置失效时，退化为逐条查找；已不在数据集中时清除索引
+     */
+    private int indexOfKey(T item) {
+        if (item == null) {
+            return indexOfIdentity(null);
+        }
+        if (mKeyIndex == null) {
+            mKeyIndex = new HashMap<>(mData.size() * 2);
+            for (T data : mData) {
+                putKeyIndex(data);
+            }
+        }
+        Object key = getItemKey(item);
+        T existing = mKeyIndex.get(key);
+        if (existing == null) {
+            return -1;
+        }
+        int position = indexOfSorted(existing);
+        if (position < 0) {
+            position = indexOfIdentity(existing);
+        }
+        if (position < 0) {
+            mKeyIndex.remove(key);
+        }
+        return position;
+    }
+
+    private int indexOfSorted(T item) {
+        int low = 0;
+        int high = mData.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mComparator.compare(mData.get(mid), item) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < mData.size() && mComparator.compare(mData.get(i), item) == 0; i++) {
+            if (mData.get(i) == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void putKeyIndex(T item) {
+        if (mKeyIndex != null && item != null) {
+            mKeyIndex.put(getItemKey(item), item);
+        }
+    }
+
+    private void removeKeyIndex(T item) {
+        if (mKeyIndex != null && item != null) {
+            Object key = getItemKey(item);
+            if (mKeyIndex.get(key) == item) {
+                mKeyIndex.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 先替换数据集，再按顺序分发刷新，观察者收到通知时数据已是最新
+     */
+    private void apply(SortedListMerger.Result<T> result) {
+        mData.clear();
+        mData.addAll(result.getData());
+        mKeyIndex = null;
+        if (result.getOperationCount() == 0) {
+            return;
+        }
+        onDataSubmitted(Math.min(result.getFirstChanged(), Math.max(mData.size() - 1, 0)));
+
+        /**
+         * 批量修改中时并入外层的合并，否则单独合并一次
+         */
+        boolean isOuterBatch = isBatchUpdating();
+        beginBatchUpdate();
+        result.dispatchUpdatesTo(getUpdateCallback());
+        if (!isOuterBatch) {
+            endBatchUpdate();
+        }
+    }
+}
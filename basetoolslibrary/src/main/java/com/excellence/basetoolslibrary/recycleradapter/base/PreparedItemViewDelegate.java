@@ -0,0 +1,45 @@
+package com.excellence.basetoolslibrary.recycleradapter.base;
+
+import com.excellence.basetoolslibrary.recycleradapter.ItemPreparer;
+import com.excellence.basetoolslibrary.recycleradapter.RecyclerViewHolder;
+
+import androidx.annotation.WorkerThread;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 带预处理的多布局视图
+ *
+ *              耗时的格式化（时间、拼音、Span等）放在{@link #prepare(Object)}中，由{@link ItemPreparer}在后台线程执行并缓存，
+ *              {@link #convert(RecyclerViewHolder, Object, Object, int)}只做赋值
+ *              适配器未设置{@link ItemPreparer}时，绑定时同步执行预处理
+ * </pre>
+ */
+public abstract class PreparedItemViewDelegate<T, M> implements ItemViewDelegate<T> {
+
+    /**
+     * 预处理数据，生成显示模型；可能在后台线程调用，不能访问视图
+     *
+     * @param item 数据
+     * @return 显示模型
+     */
+    @WorkerThread
+    public abstract M prepare(T item);
+
+    /**
+     * 初始化Item视图
+     *
+     * @param viewHolder
+     * @param item 数据
+     * @param model 显示模型
+     * @param position 位置
+     */
+    public abstract void convert(RecyclerViewHolder viewHolder, T item, M model, int position);
+
+    @Override
+    public void convert(RecyclerViewHolder viewHolder, T item, int position) {
+        convert(viewHolder, item, prepare(item), position);
+    }
+}
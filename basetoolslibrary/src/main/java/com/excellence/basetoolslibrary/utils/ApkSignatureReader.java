@@ -0,0 +1,263 @@
+package com.excellence.basetoolslibrary.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : 快速读取apk的签名证书，不解析、不校验整个apk
+ *
+ *              优先读取APK Signing Block中v3、v2签名的第一个证书，只读取文件末尾的几个区块；
+ *              没有签名块时，读取META-INF下v1签名文件中签名者的证书
+ *
+ *              只提取证书，不校验签名：签名无效、内容被篡改的apk同样能读到证书，
+ *              这与PackageParser#collectCertificates不同，后者会校验签名，校验失败时取不到证书
+ * </pre>
+ */
+final class ApkSignatureReader {
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int EOCD_MIN_SIZE = 22;
+    private static final int EOCD_MAX_COMMENT_SIZE = 0xffff;
+
+    private static final long APK_SIG_BLOCK_MAGIC_LO = 0x20676953204b5041L;
+    private static final long APK_SIG_BLOCK_MAGIC_HI = 0x3234206b636f6c42L;
+    private static final int APK_SIG_BLOCK_MIN_SIZE = 32;
+
+    private static final int APK_SIGNATURE_SCHEME_V2_BLOCK_ID = 0x7109871a;
+    private static final int APK_SIGNATURE_SCHEME_V3_BLOCK_ID = 0xf05368c0;
+
+    private ApkSignatureReader() {
+
+    }
+
+    /**
+     * 读取签名证书
+     *
+     * @param apkFile apk文件
+     * @return 证书的DER编码，与{@link android.content.pm.Signature#toByteArray()}一致；读取失败返回null
+     */
+    static byte[] readCertificate(File apkFile) {
+        byte[] certificate = null;
+        try {
+            certificate = readSigningBlockCertificate(apkFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        if (certificate == null) {
+            try {
+                certificate = readJarCertificate(apkFile);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return certificate;
+    }
+
+    private static byte[] readSigningBlockCertificate(File apkFile) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(apkFile, "r");
+        try {
+            long centralDirOffset = findCentralDirectoryOffset(raf);
+            if (centralDirOffset < APK_SIG_BLOCK_MIN_SIZE) {
+                return null;
+            }
+
+            /**
+             * 签名块紧挨在中央目录之前：... | size(8) | magic(16) | 中央目录
+             */
+            ByteBuffer footer = read(raf, centralDirOffset - 24, 24);
+            long blockSize = footer.getLong(0);
+            if (footer.getLong(8) != APK_SIG_BLOCK_MAGIC_LO || footer.getLong(16) != APK_SIG_BLOCK_MAGIC_HI) {
+                return null;
+            }
+            long blockStart = centralDirOffset - blockSize - 8;
+            if (blockSize < 24 || blockSize > Integer.MAX_VALUE - 8 || blockStart < 0) {
+                return null;
+            }
+            ByteBuffer block = read(raf, blockStart, (int) (blockSize + 8));
+            if (block.getLong(0) != blockSize) {
+                return null;
+            }
+
+            /**
+             * ID-值对：length(8) | id(4) | value(length - 4)
+             */
+            ByteBuffer v2Value = null;
+            ByteBuffer v3Value = null;
+            int position = 8;
+            int pairsEnd = block.capacity() - 24;
+            while (position + 12 <= pairsEnd) {
+                long length = block.getLong(position);
+                if (length < 4 || length > pairsEnd - position - 8) {
+                    break;
+                }
+                int id = block.getInt(position + 8);
+                ByteBuffer value = slice(block, position + 12, (int) length - 4);
+                if (id == APK_SIGNATURE_SCHEME_V3_BLOCK_ID) {
+                    v3Value = value;
+                } else if (id == APK_SIGNATURE_SCHEME_V2_BLOCK_ID) {
+                    v2Value = value;
+                }
+                position += 8 + (int) length;
+            }
+            byte[] certificate = v3Value == null ? null : readFirstSignerCertificate(v3Value);
+            if (certificate == null && v2Value != null) {
+                certificate = readFirstSignerCertificate(v2Value);
+            }
+            return certificate;
+        } finally {
+            CloseUtils.closeIOQuietly(raf);
+        }
+    }
+
+    /**
+     * v2/v3签名块：signers[] -> signer -> signed data -> digests[], certificates[]
+     * 每一层都是uint32长度前缀
+     */
+    private static byte[] readFirstSignerCertificate(ByteBuffer value) {
+        try {
+            ByteBuffer signers = readLengthPrefixed(value);
+            ByteBuffer signer = readLengthPrefixed(signers);
+            ByteBuffer signedData = readLengthPrefixed(signer);
+            readLengthPrefixed(signedData);
+            ByteBuffer certificates = readLengthPrefixed(signedData);
+            ByteBuffer certificate = readLengthPrefixed(certificates);
+            byte[] encoded = new byte[certificate.remaining()];
+            certificate.get(encoded);
+            return encoded;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * v1签名：META-INF下的.RSA、.DSA、.EC文件为PKCS#7，取签名者的证书
+     */
+    private static byte[] readJarCertificate(File apkFile) throws Exception {
+        ZipFile zipFile = new ZipFile(apkFile);
+        try {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName().toUpperCase();
+                if (!name.startsWith("META-INF/") || name.indexOf('/', "META-INF/".length()) >= 0) {
+                    continue;
+                }
+                if (name.endsWith(".RSA") || name.endsWith(".DSA") || name.endsWith(".EC")) {
+                    InputStream is = zipFile.getInputStream(entry);
+                    try {
+                        Collection<? extends Certificate> certificates = CertificateFactory.getInstance("X.509").generateCertificates(is);
+                        Certificate signer = findSignerCertificate(certificates);
+                        if (signer != null) {
+                            return signer.getEncoded();
+                        }
+                    } finally {
+                        CloseUtils.closeIOQuietly(is);
+                    }
+                }
+            }
+        } finally {
+            zipFile.close();
+        }
+        return null;
+    }
+
+    /**
+     * PKCS#7中的证书链顺序不固定，签名者的证书不一定是第一个：
+     * 取不是其他证书颁发者的证书，即证书链末端；都不是时（如只有自签名证书）取第一个
+     *
+     * @param certificates 证书
+     * @return 签名者的证书，没有证书返回null
+     */
+    static Certificate findSignerCertificate(Collection<? extends Certificate> certificates) {
+        List<Certificate> candidates = new ArrayList<>(certificates);
+        for (Certificate certificate : candidates) {
+            if (!(certificate instanceof X509Certificate)) {
+                continue;
+            }
+            X509Certificate x509 = (X509Certificate) certificate;
+            boolean isIssuer = false;
+            for (Certificate other : candidates) {
+                if (other != certificate && other instanceof X509Certificate
+                        && ((X509Certificate) other).getIssuerX500Principal().equals(x509.getSubjectX500Principal())) {
+                    isIssuer = true;
+                    break;
+                }
+            }
+            if (!isIssuer) {
+                return certificate;
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    /**
+     * 从文件末尾查找中央目录结束记录，读取中央目录偏移
+     *
+     * @return 中央目录偏移，找不到返回-1
+     */
+    private static long findCentralDirectoryOffset(RandomAccessFile raf) throws IOException {
+        long fileSize = raf.length();
+        if (fileSize < EOCD_MIN_SIZE) {
+            return -1;
+        }
+        int searchSize = (int) Math.min(fileSize, EOCD_MIN_SIZE + EOCD_MAX_COMMENT_SIZE);
+        long searchStart = fileSize - searchSize;
+        ByteBuffer buffer = read(raf, searchStart, searchSize);
+        for (int i = searchSize - EOCD_MIN_SIZE; i >= 0; i--) {
+            if (buffer.getInt(i) != EOCD_SIGNATURE) {
+                continue;
+            }
+            int commentLength = buffer.getShort(i + 20) & 0xffff;
+            if (i + EOCD_MIN_SIZE + commentLength != searchSize) {
+                continue;
+            }
+            return buffer.getInt(i + 16) & 0xffffffffL;
+        }
+        return -1;
+    }
+
+    private static ByteBuffer read(RandomAccessFile raf, long offset, int size) throws IOException {
+        byte[] bytes = new byte[size];
+        raf.seek(offset);
+        raf.readFully(bytes);
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int size) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(start);
+        duplicate.limit(start + size);
+        return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer readLengthPrefixed(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 4) {
+            throw new IOException("Remaining buffer too short to contain length");
+        }
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Length-prefixed field out of range: " + length);
+        }
+        ByteBuffer result = slice(buffer, buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+}
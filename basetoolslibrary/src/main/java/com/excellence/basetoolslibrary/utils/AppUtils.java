@@ -9,7 +9,13 @@ import android.content.pm.ResolveInfo;
 import android.content.pm.Signature;
 import android.util.DisplayMetrics;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -19,10 +25,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
 
 /**
  * <pre>
@@ -30,6 +43,7 @@ import androidx.annotation.Nullable;
  *     blog   : https://veizhang.github.io/
  *     time   : 2016/12/19
  *     desc   : 应用相关工具类
+ *              频繁获取已安装应用列表时，使用{@link com.excellence.basetoolslibrary.assist.AppCatalogue}
  * </pre>
  */
 
@@ -227,15 +241,157 @@ public class AppUtils {
         return null;
     }
 
+    private static final int APK_SIGNATURE_CACHE_SIZE = 1024;
+
+    /**
+     * apk签名缓存：路径 -> {大小, 修改时间, 签名MD5}，最多缓存{@link #APK_SIGNATURE_CACHE_SIZE}条，最近最少使用的先淘汰
+     */
+    private static final LruCache<String, ApkSignatureRecord> APK_SIGNATURE_CACHE = new LruCache<>(APK_SIGNATURE_CACHE_SIZE);
+
     /**
      * 获取apk文件的签名
      * 需要权限 {@link android.Manifest.permission#READ_EXTERNAL_STORAGE}
      *
+     * 只读取签名块或签名文件中的证书，结果按（路径、大小、修改时间）缓存；快速读取失败时再完整解析apk
+     * 注意：快速读取不校验签名，签名无效或被篡改的apk也会返回证书MD5；完整解析apk时会校验签名，校验失败返回null
+     *
      * @param apkPath apk文件路径
      * @return 证书MD5值:32位16进制 如:D17A70403EB7CD52181004C847180287
      */
     @Nullable
     public static String getAPKFileSignature(String apkPath) {
+        if (apkPath == null) {
+            return null;
+        }
+        File apkFile = new File(apkPath);
+        long size = apkFile.length();
+        long lastModified = apkFile.lastModified();
+        ApkSignatureRecord record = APK_SIGNATURE_CACHE.get(apkPath);
+        if (record != null && record.mSize == size && record.mLastModified == lastModified) {
+            return record.mSignatureMD5;
+        }
+
+        String signatureMD5 = null;
+        try {
+            byte[] certificate = ApkSignatureReader.readCertificate(apkFile);
+            if (certificate != null) {
+                signatureMD5 = ConvertUtils.bytes2HexString(MessageDigest.getInstance("MD5").digest(certificate));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        if (signatureMD5 == null) {
+            signatureMD5 = parseAPKFileSignature(apkPath);
+        }
+        if (signatureMD5 != null) {
+            APK_SIGNATURE_CACHE.put(apkPath, new ApkSignatureRecord(size, lastModified, signatureMD5));
+        }
+        return signatureMD5;
+    }
+
+    /**
+     * 并行获取多个apk文件的签名
+     *
+     * @param apkPaths apk文件路径
+     * @param parallelism 最大并行数
+     * @return 路径 -> 证书MD5值，顺序与传入一致，获取失败的值为null
+     */
+    public static Map<String, String> getAPKFileSignatures(List<String> apkPaths, int parallelism) {
+        Map<String, String> signatures = new LinkedHashMap<>();
+        if (apkPaths == null || apkPaths.isEmpty()) {
+            return signatures;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, apkPaths.size())));
+        try {
+            List<Future<String>> futures = new ArrayList<>(apkPaths.size());
+            for (final String apkPath : apkPaths) {
+                futures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return getAPKFileSignature(apkPath);
+                    }
+                }));
+            }
+            for (int i = 0; i < apkPaths.size(); i++) {
+                String signatureMD5 = null;
+                try {
+                    signatureMD5 = futures.get(i).get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                signatures.put(apkPaths.get(i), signatureMD5);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return signatures;
+    }
+
+    /**
+     * 从文件加载apk签名缓存，文件中的记录仍按大小、修改时间校验
+     *
+     * @param cacheFile 缓存文件
+     */
+    public static void loadAPKSignatureCache(File cacheFile) {
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(cacheFile), "UTF-8"));
+            String line = null;
+            while ((line = reader.readLine()) != null) {
+                String[] items = line.split("\t");
+                if (items.length == 4) {
+                    APK_SIGNATURE_CACHE.put(items[0], new ApkSignatureRecord(Long.parseLong(items[1]), Long.parseLong(items[2]), items[3]));
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIOQuietly(reader);
+        }
+    }
+
+    /**
+     * 保存apk签名缓存到文件，先写临时文件再重命名
+     *
+     * @param cacheFile 缓存文件
+     * @return {@code true}:成功<br>{@code false}:失败
+     */
+    public static boolean saveAPKSignatureCache(File cacheFile) {
+        if (cacheFile == null) {
+            return false;
+        }
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8");
+            for (Map.Entry<String, ApkSignatureRecord> entry : APK_SIGNATURE_CACHE.snapshot().entrySet()) {
+                ApkSignatureRecord record = entry.getValue();
+                writer.write(entry.getKey() + "\t" + record.mSize + "\t" + record.mLastModified + "\t" + record.mSignatureMD5 + "\n");
+            }
+            writer.close();
+            writer = null;
+            return tempFile.renameTo(cacheFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIOQuietly(writer);
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 完整解析apk获取签名
+     *
+     * @param apkPath apk文件路径
+     * @return 证书MD5值
+     */
+    private static String parseAPKFileSignature(String apkPath) {
         String signatureMD5 = null;
         try {
             String PATH_PackageParser = "android.content.pm.PackageParser";
@@ -283,6 +439,19 @@ public class AppUtils {
         return signatureMD5;
     }
 
+    private static final class ApkSignatureRecord {
+
+        private final long mSize;
+        private final long mLastModified;
+        private final String mSignatureMD5;
+
+        ApkSignatureRecord(long size, long lastModified, String signatureMD5) {
+            mSize = size;
+            mLastModified = lastModified;
+            mSignatureMD5 = signatureMD5;
+        }
+    }
+
     /**
      * 获取某安装应用的签名
      *
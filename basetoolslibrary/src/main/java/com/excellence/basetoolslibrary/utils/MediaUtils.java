@@ -1,6 +1,14 @@
 package com.excellence.basetoolslibrary.utils;
 
 import android.media.MediaMetadataRetriever;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * <pre>
@@ -8,10 +16,27 @@ import android.media.MediaMetadataRetriever;
  *     blog   : http://tiimor.cn
  *     time   : 2019/9/20
  *     desc   : 多媒体：音视频相关
+ *              读取多个信息时使用{@link #getMetadata(String, int...)}，只打开一次文件
  * </pre> 
  */
 public class MediaUtils {
 
+    /**
+     * 常用的多媒体信息键
+     */
+    public static final int[] DEFAULT_KEYS = new int[]{
+            MediaMetadataRetriever.METADATA_KEY_TITLE,
+            MediaMetadataRetriever.METADATA_KEY_ALBUM,
+            MediaMetadataRetriever.METADATA_KEY_ARTIST,
+            MediaMetadataRetriever.METADATA_KEY_DURATION,
+            MediaMetadataRetriever.METADATA_KEY_MIMETYPE,
+            MediaMetadataRetriever.METADATA_KEY_HAS_AUDIO,
+            MediaMetadataRetriever.METADATA_KEY_HAS_VIDEO,
+            MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH,
+            MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT,
+            MediaMetadataRetriever.METADATA_KEY_BITRATE
+    };
+
     /**
      * 读取多媒体信息的键
      *
@@ -20,9 +45,78 @@ public class MediaUtils {
      * @return
      */
     public static String getKey(String path, int keyCode) {
+        MediaMetadata metadata = getMetadata(path, keyCode);
+        return metadata == null ? null : metadata.get(keyCode);
+    }
+
+    /**
+     * 打开一次文件，读取多个多媒体信息
+     *
+     * @param path 文件路径
+     * @param keyCodes 信息键，如{@link MediaMetadataRetriever#METADATA_KEY_DURATION}，为空时读取{@link #DEFAULT_KEYS}
+     * @return 多媒体信息，文件无法打开时返回null
+     */
+    public static MediaMetadata getMetadata(String path, int... keyCodes) {
+        if (keyCodes == null || keyCodes.length == 0) {
+            keyCodes = DEFAULT_KEYS;
+        }
         MediaMetadataRetriever mmr = new MediaMetadataRetriever();
-        mmr.setDataSource(path);
-        return mmr.extractMetadata(keyCode);
+        try {
+            mmr.setDataSource(path);
+            SparseArray<String> values = new SparseArray<>(keyCodes.length);
+            for (int keyCode : keyCodes) {
+                values.put(keyCode, mmr.extractMetadata(keyCode));
+            }
+            return new MediaMetadata(path, values);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                mmr.release();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 并行读取多个文件的多媒体信息，需要在子线程调用
+     *
+     * @param paths 文件路径
+     * @param parallelism 最大并行数，解码器资源有限，建议不超过CPU核数
+     * @param keyCodes 信息键，为空时读取{@link #DEFAULT_KEYS}
+     * @return 多媒体信息，顺序与传入一致，无法打开的文件为null
+     */
+    public static List<MediaMetadata> getMetadata(List<String> paths, int parallelism, final int... keyCodes) {
+        List<MediaMetadata> result = new ArrayList<>();
+        if (paths == null || paths.isEmpty()) {
+            return result;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, paths.size())));
+        try {
+            List<Future<MediaMetadata>> futures = new ArrayList<>(paths.size());
+            for (final String path : paths) {
+                futures.add(executor.submit(new Callable<MediaMetadata>() {
+                    @Override
+                    public MediaMetadata call() {
+                        return getMetadata(path, keyCodes);
+                    }
+                }));
+            }
+            for (Future<MediaMetadata> future : futures) {
+                MediaMetadata metadata = null;
+                try {
+                    metadata = future.get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                result.add(metadata);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
     }
 
     /**
@@ -175,4 +269,68 @@ public class MediaUtils {
         return getKey(path, MediaMetadataRetriever.METADATA_KEY_BITRATE);
     }
 
+    /**
+     * 一个文件的多媒体信息
+     */
+    public static class MediaMetadata {
+
+        public final String path;
+        private final SparseArray<String> mValues;
+
+        public MediaMetadata(String path, SparseArray<String> values) {
+            this.path = path;
+            mValues = values;
+        }
+
+        /**
+         * @param keyCode 信息键
+         * @return 信息值，未读取或不存在时返回null
+         */
+        public String get(int keyCode) {
+            return mValues.get(keyCode);
+        }
+
+        /**
+         * @param keyCode 信息键
+         * @return {@code true}:读取过该键<br>{@code false}:未读取
+         */
+        public boolean contains(int keyCode) {
+            return mValues.indexOfKey(keyCode) >= 0;
+        }
+
+        public int size() {
+            return mValues.size();
+        }
+
+        public int keyAt(int index) {
+            return mValues.keyAt(index);
+        }
+
+        public String valueAt(int index) {
+            return mValues.valueAt(index);
+        }
+
+        public long getDuration() {
+            return parseLong(get(MediaMetadataRetriever.METADATA_KEY_DURATION));
+        }
+
+        public int getWidth() {
+            return (int) parseLong(get(MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH));
+        }
+
+        public int getHeight() {
+            return (int) parseLong(get(MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT));
+        }
+
+        private static long parseLong(String value) {
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (Exception e) {
+                return 0;
+            }
+        }
+    }
 }
@@ -4,9 +4,19 @@ import android.annotation.TargetApi;
 import android.os.Build;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import androidx.annotation.Nullable;
 
@@ -16,11 +26,42 @@ import androidx.annotation.Nullable;
  *     blog   : http://tiimor.cn
  *     time   : 2017/7/20
  *     desc   : 反射相关工具类
+ *              按（类、名称、参数类型）缓存查找到的Method、Field，并已设置为可访问；找不到的也缓存，不再重复查找
+ *              缓存以类为弱键，成员表以软引用保存，不会一直持有插件等动态加载的类及其ClassLoader
+ *              命中缓存时不加锁，只有创建成员表时加锁并清理已回收的类
+ *              Android 8.0及以上通过MethodHandle调用缓存的方法
  * </pre>
  */
 
 public class ReflectUtils {
 
+    private static final int KIND_FIELD = 0;
+    private static final int KIND_METHOD = 1;
+    private static final int KIND_DECLARED_METHOD = 2;
+
+    /**
+     * 查找失败的标记
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * 类 -> 成员表；成员引用了所属的类，强引用保存会使弱键无法回收，因此成员表用软引用保存
+     * 键为{@link WeakClassKey}，查找时使用{@link ClassKey}
+     */
+    private static final ConcurrentMap<Object, SoftReference<ConcurrentMap<MemberKey, Object>>> MEMBER_CACHE = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Class> CLASS_QUEUE = new ReferenceQueue<>();
+
+    /**
+     * 推断参数类型的数组按参数个数复用，只用于查找缓存，存入缓存前{@link MemberKey#copy()}会复制
+     */
+    private static final int MAX_BUFFERED_ARGS = 8;
+    private static final ThreadLocal<Class[][]> ARGS_CLASS_BUFFER = new ThreadLocal<Class[][]>() {
+        @Override
+        protected Class[][] initialValue() {
+            return new Class[MAX_BUFFERED_ARGS + 1][];
+        }
+    };
+
     /**
      * 根据类获取类中所有成员，能访问类中所有的字段，与public、private、protect无关，不能访问从其它类继承来的方法
      *
@@ -118,10 +159,10 @@ public class ReflectUtils {
      */
     public static void setFieldValue(Object owner, String fieldName, Object value) {
         try {
-            Class cls = owner.getClass();
-            Field field = cls.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            field.set(owner, value);
+            Field field = findDeclaredField(owner.getClass(), fieldName);
+            if (field != null) {
+                field.set(owner, value);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -136,10 +177,10 @@ public class ReflectUtils {
      */
     public static Object getFieldValue(Object owner, String fieldName) {
         try {
-            Class cls = owner.getClass();
-            Field field = cls.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            return field.get(owner);
+            Field field = findDeclaredField(owner.getClass(), fieldName);
+            if (field != null) {
+                return field.get(owner);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -185,7 +226,7 @@ public class ReflectUtils {
             if (owner == null) {
                 return null;
             }
-            return owner.getClass().getDeclaredMethod(methodName, argsCls);
+            return findMethod(owner.getClass(), methodName, argsCls, true);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -231,8 +272,8 @@ public class ReflectUtils {
             if (owner == null) {
                 return null;
             }
-            return owner.getClass().getMethod(methodName, argsCls);
-        } catch (NoSuchMethodException e) {
+            return findMethod(owner.getClass(), methodName, argsCls, false);
+        } catch (Exception e) {
             e.printStackTrace();
         }
         return null;
@@ -249,19 +290,7 @@ public class ReflectUtils {
     public static Object invokeDeclaredMethod(Object owner, String methodName, Object[] args) {
         Object ret = null;
         try {
-            Class[] argsCls = new Class[args.length];
-            for (int i = 0; i < args.length; i++) {
-                String clsName = args[i].getClass().getName();
-                if (clsName.equals(Integer.class.getName())) {
-                    argsCls[i] = int.class;
-                } else if (clsName.equals(Float.class.getName())) {
-                    argsCls[i] = float.class;
-                } else if (clsName.startsWith("android.view.SurfaceView")) {
-                    argsCls[i] = android.view.SurfaceHolder.class;
-                } else {
-                    argsCls[i] = args[i].getClass();
-                }
-            }
+            Class[] argsCls = getArgsClass(args);
             ret = invokeDeclaredMethod(owner, methodName, args, argsCls);
         } catch (Exception e) {
             e.printStackTrace();
@@ -281,10 +310,8 @@ public class ReflectUtils {
     public static Object invokeDeclaredMethod(Object owner, String methodName, Object[] args, Class[] argsClass) {
         Object ret = null;
         try {
-            Class<? extends Object> ownerCls = owner.getClass();
-            Method method = ownerCls.getDeclaredMethod(methodName, argsClass);
-            ret = method.invoke(owner, args);
-        } catch (Exception e) {
+            ret = invoke(findInvoker(owner.getClass(), methodName, argsClass, true), owner, args);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return ret;
@@ -301,19 +328,7 @@ public class ReflectUtils {
     public static Object invokeMethod(Object owner, String methodName, Object[] args) {
         Object ret = null;
         try {
-            Class[] argsCls = new Class[args.length];
-            for (int i = 0; i < args.length; i++) {
-                String clsName = args[i].getClass().getName();
-                if (clsName.equals(Integer.class.getName())) {
-                    argsCls[i] = int.class;
-                } else if (clsName.equals(Float.class.getName())) {
-                    argsCls[i] = float.class;
-                } else if (clsName.startsWith("android.view.SurfaceView")) {
-                    argsCls[i] = android.view.SurfaceHolder.class;
-                } else {
-                    argsCls[i] = args[i].getClass();
-                }
-            }
+            Class[] argsCls = getArgsClass(args);
             ret = invokeMethod(owner, methodName, args, argsCls);
         } catch (Exception e) {
             e.printStackTrace();
@@ -333,10 +348,8 @@ public class ReflectUtils {
     public static Object invokeMethod(Object owner, String methodName, Object[] args, Class[] argsClass) {
         Object ret = null;
         try {
-            Class<? extends Object> ownerClass = owner.getClass();
-            Method method = ownerClass.getMethod(methodName, argsClass);
-            ret = method.invoke(owner, args);
-        } catch (Exception e) {
+            ret = invoke(findInvoker(owner.getClass(), methodName, argsClass, false), owner, args);
+        } catch (Throwable e) {
             e.printStackTrace();
         }
         return ret;
@@ -416,4 +429,331 @@ public class ReflectUtils {
     public static Annotation[] getDeclaredAnnotations(Class cls) {
         return cls.getDeclaredAnnotations();
     }
+
+    /**
+     * 清除反射缓存
+     */
+    public static void clearCache() {
+        synchronized (MEMBER_CACHE) {
+            MEMBER_CACHE.clear();
+            expungeStaleClasses();
+        }
+    }
+
+    /**
+     * 根据参数推断参数类型：Integer、Float按基本类型，SurfaceView按SurfaceHolder
+     * 返回的数组在当前线程复用，只能用于本次查找
+     *
+     * @param args 参数
+     * @return 参数类型
+     */
+    private static Class[] getArgsClass(Object[] args) {
+        Class[] argsCls;
+        if (args.length <= MAX_BUFFERED_ARGS) {
+            Class[][] buffer = ARGS_CLASS_BUFFER.get();
+            argsCls = buffer[args.length];
+            if (argsCls == null) {
+                argsCls = new Class[args.length];
+                buffer[args.length] = argsCls;
+            }
+        } else {
+            argsCls = new Class[args.length];
+        }
+        for (int i = 0; i < args.length; i++) {
+            Class cls = args[i].getClass();
+            if (cls == Integer.class) {
+                argsCls[i] = int.class;
+            } else if (cls == Float.class) {
+                argsCls[i] = float.class;
+            } else if (cls.getName().startsWith("android.view.SurfaceView")) {
+                argsCls[i] = android.view.SurfaceHolder.class;
+            } else {
+                argsCls[i] = cls;
+            }
+        }
+        return argsCls;
+    }
+
+    /**
+     * 获取类的成员表，没有则创建
+     *
+     * @param cls 类
+     * @return 成员表
+     */
+    private static ConcurrentMap<MemberKey, Object> getMembers(Class cls) {
+        ClassKey key = new ClassKey(cls);
+        SoftReference<ConcurrentMap<MemberKey, Object>> reference = MEMBER_CACHE.get(key);
+        ConcurrentMap<MemberKey, Object> members = reference == null ? null : reference.get();
+        if (members != null) {
+            return members;
+        }
+        synchronized (MEMBER_CACHE) {
+            expungeStaleClasses();
+            reference = MEMBER_CACHE.get(key);
+            members = reference == null ? null : reference.get();
+            if (members == null) {
+                members = new ConcurrentHashMap<>();
+                MEMBER_CACHE.put(new WeakClassKey(cls, CLASS_QUEUE), new SoftReference<>(members));
+            }
+            return members;
+        }
+    }
+
+    /**
+     * 移除已回收的类，需要持有{@link #MEMBER_CACHE}的锁
+     */
+    private static void expungeStaleClasses() {
+        Reference<? extends Class> reference;
+        while ((reference = CLASS_QUEUE.poll()) != null) {
+            MEMBER_CACHE.remove(reference);
+        }
+    }
+
+    /**
+     * 查找方法并缓存
+     *
+     * @param cls 类
+     * @param methodName 方法名
+     * @param argsClass 参数类型
+     * @param isDeclared {@code true}:类中声明的方法<br>{@code false}:公有方法
+     * @return 方法，找不到返回null
+     */
+    private static Method findMethod(Class cls, String methodName, Class[] argsClass, boolean isDeclared) {
+        MethodInvoker invoker = findInvoker(cls, methodName, argsClass, isDeclared);
+        return invoker == null ? null : invoker.mMethod;
+    }
+
+    /**
+     * 查找方法并缓存
+     *
+     * @param cls 类
+     * @param methodName 方法名
+     * @param argsClass 参数类型
+     * @param isDeclared {@code true}:类中声明的方法<br>{@code false}:公有方法
+     * @return 方法调用器，找不到返回null
+     */
+    private static MethodInvoker findInvoker(Class cls, String methodName, Class[] argsClass, boolean isDeclared) {
+        ConcurrentMap<MemberKey, Object> members = getMembers(cls);
+        MemberKey key = new MemberKey(isDeclared ? KIND_DECLARED_METHOD : KIND_METHOD, methodName, argsClass);
+        Object member = members.get(key);
+        if (member == null) {
+            try {
+                Method method = isDeclared ? cls.getDeclaredMethod(methodName, argsClass) : cls.getMethod(methodName, argsClass);
+                method.setAccessible(true);
+                member = new MethodInvoker(method);
+            } catch (Exception e) {
+                e.printStackTrace();
+                member = NOT_FOUND;
+            }
+            members.put(key.copy(), member);
+        }
+        return member == NOT_FOUND ? null : (MethodInvoker) member;
+    }
+
+    /**
+     * 调用方法
+     *
+     * @param invoker 方法调用器，为null时返回null
+     * @param owner 对象
+     * @param args 参数
+     * @return 方法返回值
+     * @throws Throwable 方法抛出的异常
+     */
+    private static Object invoke(MethodInvoker invoker, Object owner, Object[] args) throws Throwable {
+        if (invoker == null) {
+            return null;
+        }
+        if (invoker.mHandle != null) {
+            return MethodHandleCompat.invoke(invoker.mHandle, invoker.isStatic ? null : owner, args);
+        }
+        return invoker.mMethod.invoke(owner, args);
+    }
+
+    /**
+     * 查找类中声明的成员变量并缓存
+     *
+     * @param cls 类
+     * @param fieldName 成员变量名
+     * @return 成员变量，找不到返回null
+     */
+    private static Field findDeclaredField(Class cls, String fieldName) {
+        ConcurrentMap<MemberKey, Object> members = getMembers(cls);
+        MemberKey key = new MemberKey(KIND_FIELD, fieldName, null);
+        Object member = members.get(key);
+        if (member == null) {
+            try {
+                Field field = cls.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                member = field;
+            } catch (Exception e) {
+                e.printStackTrace();
+                member = NOT_FOUND;
+            }
+            members.put(key, member);
+        }
+        return member == NOT_FOUND ? null : (Field) member;
+    }
+
+    /**
+     * 缓存的方法，Android 8.0及以上同时保存对应的MethodHandle
+     */
+    private static final class MethodInvoker {
+
+        private final Method mMethod;
+        private final boolean isStatic;
+        /**
+         * MethodHandle，低版本为null；声明为Object，低版本加载本类时不需要解析MethodHandle
+         */
+        private final Object mHandle;
+
+        MethodInvoker(Method method) {
+            mMethod = method;
+            isStatic = Modifier.isStatic(method.getModifiers());
+            mHandle = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O ? MethodHandleCompat.unreflect(method) : null;
+        }
+    }
+
+    /**
+     * MethodHandle相关调用，只在Android 8.0及以上使用
+     */
+    @TargetApi(Build.VERSION_CODES.O)
+    private static final class MethodHandleCompat {
+
+        /**
+         * 转换为(Object[])Object类型的MethodHandle，实例方法的第一个参数为对象；
+         * 固定参数个数，可变参数方法的最后一个参数与反射调用一样直接传数组
+         *
+         * @param method 已设置为可访问的方法
+         * @return MethodHandle，失败返回null，使用反射调用
+         */
+        static Object unreflect(Method method) {
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+                return handle.asType(handle.type().generic()).asSpreader(Object[].class, handle.type().parameterCount());
+            } catch (Exception e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+
+        static Object invoke(Object handle, Object owner, Object[] args) throws Throwable {
+            int argCount = args == null ? 0 : args.length;
+            int offset = owner == null ? 0 : 1;
+            Object[] arguments = new Object[argCount + offset];
+            if (owner != null) {
+                arguments[0] = owner;
+            }
+            if (argCount > 0) {
+                System.arraycopy(args, 0, arguments, offset, argCount);
+            }
+            return (Object) ((MethodHandle) handle).invokeExact(arguments);
+        }
+    }
+
+    /**
+     * 查找成员表用的类键，按引用比较，与{@link WeakClassKey}相等
+     */
+    private static final class ClassKey {
+
+        private final Class mClass;
+
+        ClassKey(Class cls) {
+            mClass = cls;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof WeakClassKey) {
+                return mClass == ((WeakClassKey) o).get();
+            }
+            return o instanceof ClassKey && mClass == ((ClassKey) o).mClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(mClass);
+        }
+    }
+
+    /**
+     * 成员表中保存的类键，弱引用类；类回收后只与自身相等，由{@link #expungeStaleClasses()}移除
+     */
+    private static final class WeakClassKey extends WeakReference<Class> {
+
+        private final int mHashCode;
+
+        WeakClassKey(Class cls, ReferenceQueue<Class> queue) {
+            super(cls, queue);
+            mHashCode = System.identityHashCode(cls);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            Class cls = get();
+            if (cls == null) {
+                return false;
+            }
+            if (o instanceof ClassKey) {
+                return cls == ((ClassKey) o).mClass;
+            }
+            return o instanceof WeakClassKey && cls == ((WeakClassKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
+
+    /**
+     * 类中成员的缓存键：种类、名称、参数类型
+     */
+    private static final class MemberKey {
+
+        private final int mKind;
+        private final String mName;
+        private final Class[] mArgsClass;
+        private final int mHashCode;
+
+        MemberKey(int kind, String name, Class[] argsClass) {
+            mKind = kind;
+            mName = name;
+            mArgsClass = argsClass;
+            int hashCode = kind;
+            hashCode = 31 * hashCode + (name == null ? 0 : name.hashCode());
+            mHashCode = 31 * hashCode + Arrays.hashCode(argsClass);
+        }
+
+        /**
+         * 参数类型数组由调用者传入，存入缓存前复制一份
+         */
+        MemberKey copy() {
+            return mArgsClass == null ? this : new MemberKey(mKind, mName, mArgsClass.clone());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MemberKey)) {
+                return false;
+            }
+            MemberKey key = (MemberKey) o;
+            return mKind == key.mKind
+                    && (mName == null ? key.mName == null : mName.equals(key.mName))
+                    && Arrays.equals(mArgsClass, key.mArgsClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
 }
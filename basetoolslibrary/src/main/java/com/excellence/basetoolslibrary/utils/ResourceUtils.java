@@ -2,25 +2,47 @@ package com.excellence.basetoolslibrary.utils;
 
 import android.content.ContentResolver;
 import android.content.Context;
+import android.content.res.AssetManager;
 import android.content.res.Resources;
 import android.net.Uri;
 import android.util.Log;
 
 import com.excellence.basetoolslibrary.R;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
 import androidx.annotation.AnyRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.RawRes;
 import androidx.annotation.StringDef;
+import androidx.collection.LruCache;
 
 import static com.excellence.basetoolslibrary.utils.EmptyUtils.isEmpty;
 import static com.excellence.basetoolslibrary.utils.EmptyUtils.isNotEmpty;
@@ -33,11 +55,20 @@ import static com.excellence.basetoolslibrary.utils.FileIOUtils.readFile2Bytes;
  *     blog   : http://tiimor.cn
  *     time   : 2017/7/20
  *     desc   : 资源相关工具类
+ *              按R资源类型类（如R$drawable）缓存资源索引：资源名排序用于前缀查找，资源名到Id的哈希表用于精确查找
+ *              R$styleable不是资源Id，不建立索引
+ *              按名称查找的资源Id按Resources分别缓存，每个Resources最多缓存256条，换肤重新创建Resources后不会读到旧的缓存
  * </pre>
  */
 
 public class ResourceUtils {
 
+    private static final ConcurrentMap<Class, ResourceIndex> RESOURCE_INDEX_CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Class> TYPE_CLASS_CACHE = new ConcurrentHashMap<>();
+    private static final String TYPE_NAME_STYLEABLE = "styleable";
+    private static final int IDENTIFIER_CACHE_SIZE = 256;
+    private static final Map<Resources, LruCache<String, Integer>> IDENTIFIER_CACHE = new WeakHashMap<>();
+
     /**
      * 解析资源的全名
      * 例如：R.string.app_name
@@ -112,15 +143,41 @@ public class ResourceUtils {
      * @return 0表示没有该资源
      */
     public static int getIdentifier(Context context, String entryName, String type, String packageName, int def) {
-        int res = def;
+        Resources resources = context.getResources();
+        LruCache<String, Integer> cache = getIdentifierCache(resources);
+        String key = packageName + ":" + type + "/" + entryName;
+        Integer cached = cache.get(key);
+        if (cached != null) {
+            return cached == 0 ? def : cached;
+        }
+        int res = 0;
         try {
-            res = context.getResources().getIdentifier(entryName, type, packageName);
+            res = resources.getIdentifier(entryName, type, packageName);
+            cache.put(key, res);
         } catch (Exception e) {
             Log.e(TAG, "getIdentifier: ", e);
         }
         return res == 0 ? def : res;
     }
 
+    /**
+     * 通过R资源类型类的索引获取资源Id，不经过{@link Resources#getIdentifier(String, String, String)}
+     *
+     * @param context
+     * @param rClass R资源类型类，如com.excellence.R$drawable
+     * @param entryName 资源名
+     * @param def 默认资源
+     * @return
+     */
+    public static int getIdentifier(Context context, Class rClass, String entryName, int def) {
+        ResourceIndex index = getResourceIndex(context, rClass, getTypeName(rClass));
+        if (index == null) {
+            return def;
+        }
+        Integer resId = index.mNameIds.get(entryName);
+        return resId == null ? def : resId;
+    }
+
     /**
      * 获取资源Id
      * @see #getName
@@ -142,7 +199,7 @@ public class ResourceUtils {
      * @param type
      * @param rPackageName 因为Lib#R 与 App#R 区别，Lib#R 拿不到App里面的资源，需要App#R
      * @param prefix 资源文件过滤条件，前缀
-     * @return
+     * @return 资源Id，按资源名排序，不是R类中字段的声明顺序
      */
     public static List<Integer> getIdentifiers(Context context, String type, String rPackageName,
                                                String prefix) {
@@ -162,7 +219,7 @@ public class ResourceUtils {
      * @param type
      * @param rPackageClass 因为Lib#R 与 App#R 区别，Lib#R 拿不到App里面的资源，需要App#R
      * @param prefix 资源文件过滤条件，前缀
-     * @return
+     * @return 资源Id，按资源名排序，不是R类中字段的声明顺序
      */
     public static List<Integer> getIdentifiers(Context context, String type, Class rPackageClass,
                                                String prefix) {
@@ -187,53 +244,36 @@ public class ResourceUtils {
             rPackageClass = desireClass;
         }
 
-        List<Integer> resList = new ArrayList<>();
-
-        try {
-            Class r = rPackageClass;
-            Class[] classes = r.getClasses();
-            for (int i = 0; i < classes.length; ++i) {
-                /**
-                 * com.excellence.R$drawable -> drawable
-                 * 过滤出需要的资源类型
-                 */
-                if (classes[i].getName().split("\\$")[1].equals(type)) {
-                    desireClass = classes[i];
-                    Log.i(TAG, "getIdentifiers: " + desireClass);
-                    break;
-                }
-            }
-            if (classes.length == 0) {
-                desireClass = r;
-                Log.i(TAG, "getIdentifiers itself: " + desireClass);
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "getIdentifier: ", e);
-        }
-
-        Field[] fields = desireClass.getDeclaredFields();
-
-        if (isNotEmpty(prefix)) {
-            for (Field field : fields) {
-                if (field.getName().startsWith(prefix)) {
-                    int resId = getIdentifier(context, field.getName(), type, 0);
-                    if (resId != 0) {
-                        resList.add(resId);
+        String typeKey = rPackageClass.getName() + "/" + type;
+        Class cachedClass = TYPE_CLASS_CACHE.get(typeKey);
+        if (cachedClass != null) {
+            desireClass = cachedClass;
+        } else {
+            try {
+                Class r = rPackageClass;
+                Class[] classes = r.getClasses();
+                for (int i = 0; i < classes.length; ++i) {
+                    /**
+                     * com.excellence.R$drawable -> drawable
+                     * 过滤出需要的资源类型
+                     */
+                    if (classes[i].getName().split("\\$")[1].equals(type)) {
+                        desireClass = classes[i];
+                        Log.i(TAG, "getIdentifiers: " + desireClass);
+                        break;
                     }
                 }
-            }
-        } else {
-            for (Field field : fields) {
-                /**
-                 * field.getName() -> resource entryName
-                 */
-                int resId = getIdentifier(context, field.getName(), type, 0);
-                if (resId != 0) {
-                    resList.add(resId);
+                if (classes.length == 0) {
+                    desireClass = r;
+                    Log.i(TAG, "getIdentifiers itself: " + desireClass);
                 }
+                TYPE_CLASS_CACHE.put(typeKey, desireClass);
+            } catch (Exception e) {
+                Log.e(TAG, "getIdentifier: ", e);
             }
         }
-        return resList;
+
+        return getIdentifiers(getResourceIndex(context, desireClass, type), prefix);
     }
 
     /**
@@ -242,7 +282,7 @@ public class ResourceUtils {
      * @param context
      * @param rClassName 因为Lib#R$drawable 与 App#R$drawable 区别，Lib#R$drawable 拿不到App里面的资源，需要App#R$drawable
      * @param prefix 资源文件过滤条件，前缀
-     * @return
+     * @return 资源Id，按资源名排序，不是R类中字段的声明顺序
      */
     public static List<Integer> getIdentifiers(Context context, String rClassName,
                                                String prefix) {
@@ -261,7 +301,7 @@ public class ResourceUtils {
      * @param context
      * @param rClass 因为Lib#R$drawable 与 App#R$drawable 区别，Lib#R$drawable 拿不到App里面的资源，需要App#R$drawable
      * @param prefix 资源文件过滤条件，前缀
-     * @return
+     * @return 资源Id，按资源名排序，不是R类中字段的声明顺序
      */
     public static List<Integer> getIdentifiers(Context context, Class rClass,
                                                String prefix) {
@@ -269,39 +309,164 @@ public class ResourceUtils {
         if (desireClass == null) {
             desireClass = R.drawable.class;
         }
-        String type = TYPE_NAME_DRAWABLE;
+        return getIdentifiers(getResourceIndex(context, desireClass, getTypeName(desireClass)), prefix);
+    }
 
-        List<Integer> resList = new ArrayList<>();
+    /**
+     * 清除资源索引缓存
+     * 皮肤包更新后仍使用同一个Resources时，需要调用{@link #clearIdentifierCache()}
+     */
+    public static void clearResourceIndex() {
+        RESOURCE_INDEX_CACHE.clear();
+        TYPE_CLASS_CACHE.clear();
+        clearIdentifierCache();
+    }
+
+    /**
+     * 清除按名称查找的资源Id缓存
+     */
+    public static void clearIdentifierCache() {
+        synchronized (IDENTIFIER_CACHE) {
+            IDENTIFIER_CACHE.clear();
+        }
+    }
+
+    /**
+     * 获取Resources对应的资源Id缓存，没有则创建
+     */
+    private static LruCache<String, Integer> getIdentifierCache(Resources resources) {
+        synchronized (IDENTIFIER_CACHE) {
+            LruCache<String, Integer> cache = IDENTIFIER_CACHE.get(resources);
+            if (cache == null) {
+                cache = new LruCache<>(IDENTIFIER_CACHE_SIZE);
+                IDENTIFIER_CACHE.put(resources, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * 是否为资源Id：0xPPTTEEEE，包Id与类型Id都不为0；R$styleable中的属性下标等不是资源Id
+     */
+    private static boolean isResourceId(int resId) {
+        return (resId & 0xFF000000) != 0 && (resId & 0x00FF0000) != 0;
+    }
 
+    /**
+     * com.excellence.R$drawable -> drawable
+     */
+    private static String getTypeName(Class rClass) {
         try {
-            type = desireClass.getName().split("\\$")[1];
+            return rClass.getName().split("\\$")[1];
         } catch (Exception e) {
             Log.e(TAG, "getIdentifier: ", e);
         }
+        return TYPE_NAME_DRAWABLE;
+    }
 
-        Field[] fields = desireClass.getDeclaredFields();
-
+    private static List<Integer> getIdentifiers(ResourceIndex index, String prefix) {
+        List<Integer> resList = new ArrayList<>();
+        if (index == null) {
+            return resList;
+        }
+        int start = 0;
+        int end = index.mNames.length;
         if (isNotEmpty(prefix)) {
+            start = index.lowerBound(prefix);
+            end = start;
+            while (end < index.mNames.length && index.mNames[end].startsWith(prefix)) {
+                end++;
+            }
+        }
+        for (int i = start; i < end; i++) {
+            resList.add(index.mIds[i]);
+        }
+        return resList;
+    }
+
+    /**
+     * 获取R资源类型类的索引，首次使用时反射创建
+     */
+    private static ResourceIndex getResourceIndex(Context context, Class rClass, String type) {
+        if (rClass == null) {
+            return null;
+        }
+        ResourceIndex index = RESOURCE_INDEX_CACHE.get(rClass);
+        if (index == null) {
+            index = new ResourceIndex(context, rClass, type);
+            ResourceIndex existing = RESOURCE_INDEX_CACHE.putIfAbsent(rClass, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * R资源类型类的索引
+     */
+    private static final class ResourceIndex {
+
+        /**
+         * 按资源名排序
+         */
+        private final String[] mNames;
+        private final int[] mIds;
+        private final Map<String, Integer> mNameIds;
+
+        ResourceIndex(Context context, Class rClass, String type) {
+            TreeMap<String, Integer> sorted = new TreeMap<>();
+            /**
+             * R$styleable的字段是属性数组和属性下标，不是资源Id
+             */
+            Field[] fields = TYPE_NAME_STYLEABLE.equals(type) ? new Field[0] : rClass.getDeclaredFields();
             for (Field field : fields) {
-                if (field.getName().startsWith(prefix)) {
-                    int resId = getIdentifier(context, field.getName(), type, 0);
-                    if (resId != 0) {
-                        resList.add(resId);
+                String name = field.getName();
+                int resId = 0;
+                try {
+                    /**
+                     * R类的静态int字段值即资源Id，否则按资源名查找
+                     */
+                    if (Modifier.isStatic(field.getModifiers()) && field.getType() == int.class) {
+                        field.setAccessible(true);
+                        resId = field.getInt(null);
+                    } else {
+                        resId = ResourceUtils.getIdentifier(context, name, type, 0);
                     }
+                } catch (Exception e) {
+                    Log.e(TAG, "getIdentifier: ", e);
+                }
+                if (isResourceId(resId)) {
+                    sorted.put(name, resId);
                 }
             }
-        } else {
-            for (Field field : fields) {
-                /**
-                 * field.getName() -> resource entryName
-                 */
-                int resId = getIdentifier(context, field.getName(), type, 0);
-                if (resId != 0) {
-                    resList.add(resId);
+            mNames = new String[sorted.size()];
+            mIds = new int[sorted.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : sorted.entrySet()) {
+                mNames[i] = entry.getKey();
+                mIds[i] = entry.getValue();
+                i++;
+            }
+            mNameIds = new ConcurrentHashMap<>(sorted);
+        }
+
+        /**
+         * 第一个不小于prefix的资源名位置
+         */
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = mNames.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (mNames[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
                 }
             }
+            return low;
         }
-        return resList;
     }
 
     /**
@@ -309,7 +474,7 @@ public class ResourceUtils {
      *
      * @param context
      * @param type
-     * @return
+     * @return 资源Id，按资源名排序，不是R类中字段的声明顺序
      */
     public static List<Integer> getIdentifiers(Context context, String type) {
         String rPackageName = context.getPackageName() + ".R";
@@ -367,6 +532,396 @@ public class ResourceUtils {
         return false;
     }
 
+    /**
+     * 增量同步assets目录到指定目录，需要在子线程调用
+     *
+     * 目标目录中保存清单文件，记录每个文件的大小、CRC32和修改时间；
+     * 应用未更新且上次同步完整结束时，目标文件的大小和修改时间与清单一致即跳过，不读取文件；
+     * 应用更新或上次同步中断后，目标文件的大小和校验值与清单一致时跳过，应用更新后还需要asset的大小和校验值与清单一致
+     * 文件先写入临时文件再重命名，中途中断不会留下不完整的文件；每完成一个文件就追加到清单，中断后已完成的文件不再重新拷贝
+     * assets中的空目录在目标目录中创建为空目录；清单中记录过、assets中已不存在的文件和目录会被删除，目标目录中其他文件不受影响
+     *
+     * @param context
+     * @param assetDir assets下的目录，如"models"，空字符串表示assets根目录
+     * @param destDir 目标目录
+     * @param parallelism 并行拷贝的线程数
+     * @param listener 进度回调，在拷贝线程回调，可为null
+     * @return {@code true}:全部同步成功<br>{@code false}:有文件失败
+     */
+    public static boolean syncAssets(Context context, String assetDir, File destDir, int parallelism,
+                                     final OnAssetSyncListener listener) {
+        if (isEmpty(context) || destDir == null || (!destDir.exists() && !destDir.mkdirs())) {
+            return false;
+        }
+        final AssetManager assetManager = context.getAssets();
+        final String rootDir = assetDir == null ? "" : assetDir;
+        final List<String> assets = new ArrayList<>();
+        try {
+            listAssets(assetManager, rootDir, "", assets);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        long apkUpdateTime = 0;
+        try {
+            apkUpdateTime = context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        final File manifestFile = new File(destDir, ASSET_MANIFEST_NAME);
+        final Map<String, long[]> oldManifest = new HashMap<>();
+        boolean[] isManifestComplete = {false};
+        long manifestUpdateTime = readAssetManifest(manifestFile, oldManifest, isManifestComplete);
+        final boolean isApkUnchanged = manifestUpdateTime == apkUpdateTime && apkUpdateTime != 0;
+        final boolean isQuickCheck = isApkUnchanged && isManifestComplete[0];
+        final Writer journal = openAssetManifest(manifestFile, manifestUpdateTime == 0 ? apkUpdateTime : 0);
+        final ConcurrentMap<String, long[]> newManifest = new ConcurrentHashMap<>();
+        final AtomicInteger finished = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final int total = assets.size();
+        final File root = destDir;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, Math.max(1, total))));
+        try {
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (final String asset : assets) {
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        String assetPath = rootDir.length() == 0 ? asset : rootDir + "/" + asset;
+                        long[] oldRecord = oldManifest.get(asset);
+                        long[] record = syncAsset(assetManager, assetPath, new File(root, asset), oldRecord, isApkUnchanged, isQuickCheck);
+                        if (record != null) {
+                            newManifest.put(asset, record);
+                            if (record != oldRecord) {
+                                appendAssetManifest(journal, asset, record);
+                            }
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        int count = finished.incrementAndGet();
+                        if (listener != null) {
+                            listener.onProgress(asset, count, total);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    failed.incrementAndGet();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            CloseUtils.closeIOQuietly(journal);
+        }
+
+        deleteStaleAssets(destDir, oldManifest, newManifest, assets);
+        writeAssetManifest(manifestFile, apkUpdateTime, newManifest);
+        return failed.get() == 0;
+    }
+
+    /**
+     * assets同步进度
+     */
+    public interface OnAssetSyncListener {
+
+        /**
+         * @param assetPath 完成的文件，相对同步目录
+         * @param finished 已完成（包含跳过和失败）的文件数
+         * @param total 文件总数
+         */
+        void onProgress(String assetPath, int finished, int total);
+    }
+
+    private static final String ASSET_MANIFEST_NAME = ".asset_manifest";
+    private static final String ASSET_MANIFEST_END = "#end";
+    private static final String ASSET_TEMP_SUFFIX = ".tmp";
+    private static final int ASSET_BUF_SIZE = 64 * 1024;
+
+    /**
+     * 清单中目录的大小记为-1
+     */
+    private static final long ASSET_DIR_SIZE = -1;
+
+    /**
+     * 递归列出assets目录下的所有文件和空目录，list为空的可能是文件也可能是空目录，拷贝时区分
+     */
+    private static void listAssets(AssetManager assetManager, String rootDir, String relativeDir, List<String> assets) throws Exception {
+        String dir = relativeDir.length() == 0 ? rootDir : (rootDir.length() == 0 ? relativeDir : rootDir + "/" + relativeDir);
+        String[] children = assetManager.list(dir);
+        if (children == null) {
+            return;
+        }
+        for (String child : children) {
+            String relativePath = relativeDir.length() == 0 ? child : relativeDir + "/" + child;
+            String assetPath = rootDir.length() == 0 ? relativePath : rootDir + "/" + relativePath;
+            String[] grandChildren = assetManager.list(assetPath);
+            if (grandChildren != null && grandChildren.length > 0) {
+                listAssets(assetManager, rootDir, relativePath, assets);
+            } else {
+                assets.add(relativePath);
+            }
+        }
+    }
+
+    /**
+     * 同步单个文件
+     *
+     * @param isQuickCheck 应用未更新且上次同步完整结束，只比较大小和修改时间
+     * @return 清单记录{大小, CRC32, 修改时间}，目录为{-1, 0, 0}，跳过时返回原记录，失败返回null
+     */
+    private static long[] syncAsset(AssetManager assetManager, String assetPath, File destFile, long[] record,
+                                    boolean isApkUnchanged, boolean isQuickCheck) {
+        if (record != null && record[0] == ASSET_DIR_SIZE && destFile.isDirectory()) {
+            return record;
+        }
+        if (record != null && record[0] != ASSET_DIR_SIZE && destFile.isFile() && destFile.length() == record[0]) {
+            long lastModified = destFile.lastModified();
+            if (isQuickCheck && record[2] != 0 && lastModified == record[2]) {
+                return record;
+            }
+            /**
+             * 目标文件与清单一致；应用更新过时还需要asset与清单一致
+             */
+            if (isSameAssetContent(readAssetRecord(destFile, null, null), record)
+                    && (isApkUnchanged || isSameAssetContent(readAssetRecord(null, assetManager, assetPath), record))) {
+                return lastModified == record[2] ? record : new long[]{record[0], record[1], lastModified};
+            }
+        }
+
+        InputStream is = null;
+        try {
+            is = assetManager.open(assetPath);
+        } catch (FileNotFoundException e) {
+            /**
+             * list为空且打不开的是空目录
+             */
+            return (destFile.isDirectory() || destFile.mkdirs()) ? new long[]{ASSET_DIR_SIZE, 0, 0} : null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        File parent = destFile.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            CloseUtils.closeIOQuietly(is);
+            return null;
+        }
+        File tempFile = new File(destFile.getPath() + ASSET_TEMP_SUFFIX);
+        FileOutputStream os = null;
+        try {
+            os = new FileOutputStream(tempFile);
+            CRC32 crc32 = new CRC32();
+            byte[] buf = new byte[ASSET_BUF_SIZE];
+            long size = 0;
+            int len;
+            while ((len = is.read(buf)) != -1) {
+                os.write(buf, 0, len);
+                crc32.update(buf, 0, len);
+                size += len;
+            }
+            os.flush();
+            os.getFD().sync();
+            os.close();
+            os = null;
+            /**
+             * rename覆盖已有文件是原子操作
+             */
+            if (!tempFile.renameTo(destFile)) {
+                return null;
+            }
+            return new long[]{size, crc32.getValue(), destFile.lastModified()};
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIOQuietly(is, os);
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 计算文件或asset的大小和CRC32
+     *
+     * @param file 文件，为null时读取asset
+     * @return {大小, CRC32}，失败返回null
+     */
+    private static long[] readAssetRecord(File file, AssetManager assetManager, String assetPath) {
+        InputStream is = null;
+        try {
+            is = file != null ? new FileInputStream(file) : assetManager.open(assetPath);
+            CRC32 crc32 = new CRC32();
+            byte[] buf = new byte[ASSET_BUF_SIZE];
+            long size = 0;
+            int len;
+            while ((len = is.read(buf)) != -1) {
+                crc32.update(buf, 0, len);
+                size += len;
+            }
+            return new long[]{size, crc32.getValue()};
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIOQuietly(is);
+        }
+        return null;
+    }
+
+    /**
+     * 大小和CRC32是否相同，不比较修改时间
+     */
+    private static boolean isSameAssetContent(long[] record, long[] other) {
+        return record != null && other != null && record[0] == other[0] && record[1] == other[1];
+    }
+
+    /**
+     * 删除清单中记录过、assets中已不存在的文件和目录，以及因此变空的上级目录
+     */
+    private static void deleteStaleAssets(File destDir, Map<String, long[]> oldManifest, Map<String, long[]> newManifest,
+                                          List<String> assets) {
+        Set<String> current = new HashSet<>(assets);
+        for (Map.Entry<String, long[]> entry : oldManifest.entrySet()) {
+            String asset = entry.getKey();
+            if (current.contains(asset) || newManifest.containsKey(asset)) {
+                continue;
+            }
+            File file = new File(destDir, asset);
+            boolean isDeleted = entry.getValue()[0] == ASSET_DIR_SIZE
+                    ? file.isDirectory() && file.delete()
+                    : file.isFile() && file.delete();
+            if (!isDeleted) {
+                continue;
+            }
+            /**
+             * 删除因此变空的上级目录
+             */
+            String relativeDir = asset;
+            int slash;
+            while ((slash = relativeDir.lastIndexOf('/')) > 0) {
+                relativeDir = relativeDir.substring(0, slash);
+                String[] children = new File(destDir, relativeDir).list();
+                if (current.contains(relativeDir) || children == null || children.length > 0
+                        || !new File(destDir, relativeDir).delete()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 清单格式：首行为应用更新时间，之后每行为 路径\t大小\tCRC32\t修改时间；同一路径以最后一行为准
+     * 同步过程中逐行追加，结束后重写整理并以{@link #ASSET_MANIFEST_END}结尾；中断时末尾可能有不完整的行，读取时跳过
+     * 没有修改时间的旧记录按0读取，下次同步时校验
+     *
+     * @param isComplete 输出：最后一行是否为结束标记，即上次同步完整结束且之后没有追加记录
+     * @return 清单记录的应用更新时间，不存在时返回0
+     */
+    private static long readAssetManifest(File manifestFile, Map<String, long[]> manifest, boolean[] isComplete) {
+        if (!manifestFile.isFile()) {
+            return 0;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(manifestFile), "UTF-8"));
+            long apkUpdateTime = Long.parseLong(reader.readLine());
+            String line = null;
+            while ((line = reader.readLine()) != null) {
+                isComplete[0] = ASSET_MANIFEST_END.equals(line);
+                String[] items = line.split("\t");
+                if (items.length != 3 && items.length != 4) {
+                    continue;
+                }
+                try {
+                    long lastModified = items.length == 4 ? Long.parseLong(items[3]) : 0;
+                    manifest.put(items[0], new long[]{Long.parseLong(items[1]), Long.parseLong(items[2]), lastModified});
+                } catch (NumberFormatException e) {
+                    // 中断时写了一半的行
+                }
+            }
+            return apkUpdateTime;
+        } catch (Exception e) {
+            e.printStackTrace();
+            manifest.clear();
+            isComplete[0] = false;
+        } finally {
+            CloseUtils.closeIOQuietly(reader);
+        }
+        return 0;
+    }
+
+    /**
+     * 打开清单用于追加记录
+     *
+     * @param apkUpdateTime 不为0时重新创建清单，首行写入该时间；为0时追加到已有清单，
+     *                      已有清单的时间不变，应用更新后中断时，下次同步仍会校验asset
+     * @return 失败返回null，只是不能中途保存进度
+     */
+    private static Writer openAssetManifest(File manifestFile, long apkUpdateTime) {
+        Writer writer = null;
+        try {
+            boolean isNew = apkUpdateTime != 0 || !manifestFile.isFile();
+            writer = new OutputStreamWriter(new FileOutputStream(manifestFile, !isNew), "UTF-8");
+            if (isNew) {
+                writer.write(apkUpdateTime + "\n");
+                writer.flush();
+            }
+            return writer;
+        } catch (Exception e) {
+            e.printStackTrace();
+            CloseUtils.closeIOQuietly(writer);
+        }
+        return null;
+    }
+
+    private static void appendAssetManifest(Writer writer, String asset, long[] record) {
+        if (writer == null) {
+            return;
+        }
+        synchronized (writer) {
+            try {
+                writer.write(asset + "\t" + record[0] + "\t" + record[1] + "\t" + record[2] + "\n");
+                writer.flush();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void writeAssetManifest(File manifestFile, long apkUpdateTime, Map<String, long[]> manifest) {
+        File tempFile = new File(manifestFile.getPath() + ASSET_TEMP_SUFFIX);
+        FileOutputStream os = null;
+        Writer writer = null;
+        try {
+            os = new FileOutputStream(tempFile);
+            writer = new OutputStreamWriter(os, "UTF-8");
+            writer.write(apkUpdateTime + "\n");
+            for (Map.Entry<String, long[]> entry : manifest.entrySet()) {
+                long[] record = entry.getValue();
+                writer.write(entry.getKey() + "\t" + record[0] + "\t" + record[1] + "\t" + record[2] + "\n");
+            }
+            writer.write(ASSET_MANIFEST_END + "\n");
+            writer.flush();
+            os.getFD().sync();
+            writer.close();
+            writer = null;
+            tempFile.renameTo(manifestFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            CloseUtils.closeIOQuietly(writer, os);
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
     /**
      * 读取asset文件转字符串
      *
@@ -1,16 +1,64 @@
 package com.excellence.basetoolslibrary.utils;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+
 /**
  * <pre>
  *     author : VeiZhang
  *     blog   : https://veizhang.github.io/
  *     time   : 2017/1/23
  *     desc   : 命令相关工具类
+ *              需要连续执行大量命令时，使用{@link ShellSession}复用同一个sh进程
+ *              输出很长的命令（logcat、dumpsys）使用{@link #execStreamingCommand(OnCommandOutputListener, String...)}逐行处理
  * </pre>
  */
 
 public class ShellUtils {
 
+    /**
+     * 并行执行命令的最大并行数
+     */
+    public static final int MAX_PARALLELISM = 8;
+
+    /**
+     * 并行执行命令的共享线程池，线程空闲30秒后回收
+     */
+    private static final ExecutorService PARALLEL_EXECUTOR = createParallelExecutor();
+
+    private static ExecutorService createParallelExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_PARALLELISM, MAX_PARALLELISM, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "ShellUtils-parallel-" + mCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * 执行命令
      *
@@ -18,6 +66,7 @@ public class ShellUtils {
      * @return 执行结果
      */
     public static CommandResult execProcessBuilderCommand(String... command) {
+        long startTime = System.nanoTime();
         Process process = null;
         StringBuilder msg = null;
         int resultCode = -1;
@@ -32,7 +81,7 @@ public class ShellUtils {
                 process.destroy();
             }
         }
-        return new CommandResult(resultCode, msg == null ? null : msg.toString());
+        return new CommandResult(resultCode, msg == null ? null : msg.toString()).setCostTime(startTime);
     }
 
     /**
@@ -42,14 +91,23 @@ public class ShellUtils {
      * @return 执行结果
      */
     public static CommandResult execRuntimeCommand(String shell) {
+        long startTime = System.nanoTime();
         Process process = null;
         StringBuilder msg = null;
         int resultCode = -1;
         try {
             process = Runtime.getRuntime().exec(shell);
+            /**
+             * 错误输出在单独的线程读取，避免错误输出写满管道缓冲区后，进程阻塞而标准输出读不到结束
+             */
+            StreamDrainer errorDrainer = new StreamDrainer(process.getErrorStream());
+            errorDrainer.start();
             msg = new StringBuilder(ConvertUtils.inputStream2StringBuilder(process.getInputStream()));
-            msg.append(ConvertUtils.inputStream2StringBuilder(process.getErrorStream()));
             resultCode = process.waitFor();
+            errorDrainer.join();
+            if (errorDrainer.mResult != null) {
+                msg.append(errorDrainer.mResult);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
@@ -57,7 +115,74 @@ public class ShellUtils {
                 process.destroy();
             }
         }
-        return new CommandResult(resultCode, msg == null ? null : msg.toString());
+        return new CommandResult(resultCode, msg == null ? null : msg.toString()).setCostTime(startTime);
+    }
+
+    /**
+     * 流式执行命令：在后台线程逐行读取输出（包含错误输出）并回调，不缓存输出
+     *
+     * @param listener 输出回调，在读取线程回调
+     * @param command 字符串数组命令
+     * @return 命令句柄，用于取消或等待结束
+     */
+    public static CommandHandle execStreamingCommand(@NonNull OnCommandOutputListener listener, String... command) {
+        CommandHandle handle = new CommandHandle(listener, command);
+        handle.start();
+        return handle;
+    }
+
+    /**
+     * 并行执行多条互不依赖的命令，共用一个有界的共享线程池，调用线程同样参与执行
+     *
+     * @param commands 命令列表，每条为字符串数组命令
+     * @param parallelism 最大并行数，不超过{@link #MAX_PARALLELISM}
+     * @return 执行结果，与命令顺序一致
+     */
+    public static List<CommandResult> execParallelCommands(@NonNull final List<String[]> commands, int parallelism) {
+        List<CommandResult> results = new ArrayList<>(commands.size());
+        if (commands.isEmpty()) {
+            return results;
+        }
+        int threadCount = Math.max(1, Math.min(Math.min(parallelism, MAX_PARALLELISM), commands.size()));
+        final CommandResult[] resultArray = new CommandResult[commands.size()];
+        final AtomicInteger next = new AtomicInteger();
+        /**
+         * 每个工作者依次领取下一条命令，单次调用最多占用threadCount - 1个共享线程
+         */
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while ((index = next.getAndIncrement()) < resultArray.length) {
+                    resultArray[index] = execProcessBuilderCommand(commands.get(index));
+                }
+            }
+        };
+        List<Future<?>> futures = new ArrayList<>(threadCount - 1);
+        for (int i = 1; i < threadCount; i++) {
+            futures.add(PARALLEL_EXECUTOR.submit(worker));
+        }
+        worker.run();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        for (CommandResult result : resultArray) {
+            results.add(result == null ? new CommandResult(-1, null) : result);
+        }
+        return results;
+    }
+
+    /**
+     * 打开一个命令会话
+     *
+     * @return 会话，使用完需要{@link ShellSession#close()}
+     */
+    public static ShellSession openSession() {
+        return new ShellSession();
     }
 
     /**
@@ -66,6 +191,14 @@ public class ShellUtils {
     public static class CommandResult {
         public int resultCode = -1;
         public String resultString = null;
+        /**
+         * 错误输出，只有{@link ShellSession}单独返回
+         */
+        public String errorString = null;
+        /**
+         * 执行耗时，单位毫秒
+         */
+        public long costTime = 0;
 
         public CommandResult(String resultString) {
             this.resultString = resultString;
@@ -75,5 +208,405 @@ public class ShellUtils {
             this.resultCode = resultCode;
             this.resultString = resultString;
         }
+
+        public CommandResult(int resultCode, String resultString, String errorString) {
+            this.resultCode = resultCode;
+            this.resultString = resultString;
+            this.errorString = errorString;
+        }
+
+        CommandResult setCostTime(long startNanos) {
+            costTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            return this;
+        }
+    }
+
+    /**
+     * 流式命令输出回调
+     */
+    public interface OnCommandOutputListener {
+
+        /**
+         * 读取到一行输出
+         *
+         * @param line 输出内容
+         */
+        void onOutput(String line);
+
+        /**
+         * 命令结束或被取消，结果的resultString为null
+         *
+         * @param result 执行结果
+         */
+        void onComplete(CommandResult result);
+    }
+
+    /**
+     * 流式命令句柄
+     */
+    public static class CommandHandle {
+
+        private final OnCommandOutputListener mListener;
+        private final String[] mCommand;
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+        private final Object mOutputLock = new Object();
+        private volatile Process mProcess = null;
+        private volatile boolean isCancelled = false;
+        private volatile CommandResult mResult = null;
+
+        CommandHandle(OnCommandOutputListener listener, String[] command) {
+            mListener = listener;
+            mCommand = command;
+        }
+
+        void start() {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    execute();
+                }
+            }, "ShellUtils-streaming");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void execute() {
+            long startTime = System.nanoTime();
+            int resultCode = -1;
+            BufferedReader reader = null;
+            try {
+                if (!isCancelled) {
+                    mProcess = new ProcessBuilder(mCommand).redirectErrorStream(true).start();
+                    if (isCancelled) {
+                        mProcess.destroy();
+                    }
+                    reader = new BufferedReader(new InputStreamReader(mProcess.getInputStream()));
+                    String line = null;
+                    while (!isCancelled && (line = reader.readLine()) != null) {
+                        synchronized (mOutputLock) {
+                            if (isCancelled) {
+                                break;
+                            }
+                            mListener.onOutput(line);
+                        }
+                    }
+                    if (!isCancelled) {
+                        resultCode = mProcess.waitFor();
+                    }
+                }
+            } catch (Exception e) {
+                if (!isCancelled) {
+                    e.printStackTrace();
+                }
+            } finally {
+                CloseUtils.closeIOQuietly(reader);
+                if (mProcess != null) {
+                    mProcess.destroy();
+                }
+                mResult = new CommandResult(resultCode, null).setCostTime(startTime);
+                mLatch.countDown();
+                mListener.onComplete(mResult);
+            }
+        }
+
+        /**
+         * 取消命令，结束进程
+         * 正在进行的{@link OnCommandOutputListener#onOutput(String)}结束后才返回，返回后不再回调输出，
+         * 因此输出回调中不要等待调用cancel的线程
+         */
+        public void cancel() {
+            isCancelled = true;
+            Process process = mProcess;
+            if (process != null) {
+                process.destroy();
+            }
+            synchronized (mOutputLock) {
+                // 等待正在进行的输出回调
+            }
+        }
+
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        /**
+         * 等待命令结束
+         *
+         * @param timeoutMillis 超时时间
+         * @return 执行结果，超时返回null
+         */
+        public CommandResult waitFor(long timeoutMillis) {
+            try {
+                if (mLatch.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return mResult;
+                }
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 在后台线程读取整个输出流
+     */
+    private static class StreamDrainer extends Thread {
+
+        private final InputStream mInputStream;
+        private volatile StringBuilder mResult = null;
+
+        StreamDrainer(InputStream inputStream) {
+            super("ShellUtils-drainer");
+            mInputStream = inputStream;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                mResult = ConvertUtils.inputStream2StringBuilder(mInputStream);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * <pre>
+     * 命令会话：多条命令依次写入同一个sh进程，省去每条命令创建进程的开销
+     *
+     * 每条命令后输出带序号的结束标记，标准输出的标记带上退出码，错误输出同样输出标记，
+     * 两个输出流各由一个线程持续读取，读到标记即为该命令的结果
+     * 命令超时或sh进程退出时，销毁进程，下一条命令自动重新启动
+     * 命令的标准输入重定向到/dev/null，避免读取到后续命令
+     * </pre>
+     */
+    public static class ShellSession implements Closeable {
+
+        private static final long DEFAULT_TIMEOUT_MILLIS = 10 * 1000;
+
+        private final String mShell;
+        private final String mMarkerPrefix;
+        private volatile Process mProcess = null;
+        private Writer mWriter = null;
+        private volatile SessionCommand mCurrent = null;
+        private volatile boolean isAlive = false;
+        private boolean isClosed = false;
+        private long mSequence = 0;
+
+        public ShellSession() {
+            this("sh");
+        }
+
+        /**
+         * @param shell 解释器，如sh、su
+         */
+        public ShellSession(@NonNull String shell) {
+            mShell = shell;
+            mMarkerPrefix = "__SHELL_SESSION_" + Long.toHexString(System.nanoTime()) + "_";
+        }
+
+        /**
+         * 执行命令，默认超时10秒
+         *
+         * @param command 命令
+         * @return 执行结果
+         */
+        public CommandResult exec(@NonNull String command) {
+            return exec(command, DEFAULT_TIMEOUT_MILLIS);
+        }
+
+        /**
+         * 执行命令，同一个会话的命令依次执行
+         *
+         * @param command 命令
+         * @param timeoutMillis 超时时间，超时后结束sh进程
+         * @return 执行结果，超时或出错时resultCode为-1
+         */
+        public synchronized CommandResult exec(@NonNull String command, long timeoutMillis) {
+            if (isClosed) {
+                return new CommandResult(-1, null);
+            }
+            if (command.trim().length() == 0) {
+                return new CommandResult(0, "", "");
+            }
+            long startTime = System.nanoTime();
+            SessionCommand current = new SessionCommand(mMarkerPrefix + (mSequence++) + "__");
+            try {
+                if (!isAlive) {
+                    start();
+                }
+                mCurrent = current;
+                mWriter.write("{\n" + command + "\n} < /dev/null\n");
+                mWriter.write("echo \"" + current.mMarker + " $?\"\n");
+                mWriter.write("echo \"" + current.mMarker + "\" >&2\n");
+                mWriter.flush();
+                if (!current.mLatch.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    destroy();
+                    return current.toResult(-1).setCostTime(startTime);
+                }
+                return current.toResult(current.mExitCode).setCostTime(startTime);
+            } catch (Exception e) {
+                e.printStackTrace();
+                destroy();
+                return current.toResult(-1).setCostTime(startTime);
+            } finally {
+                mCurrent = null;
+            }
+        }
+
+        /**
+         * 会话是否可用
+         *
+         * @return {@code true}:可用<br>{@code false}:已关闭
+         */
+        public synchronized boolean isOpen() {
+            return !isClosed;
+        }
+
+        /**
+         * 关闭会话，结束sh进程
+         */
+        @Override
+        public synchronized void close() {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            if (isAlive) {
+                try {
+                    mWriter.write("exit\n");
+                    mWriter.flush();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            destroy();
+        }
+
+        private void start() throws Exception {
+            mProcess = Runtime.getRuntime().exec(mShell);
+            mWriter = new OutputStreamWriter(mProcess.getOutputStream());
+            isAlive = true;
+            new SessionReader(mProcess, mProcess.getInputStream(), false).start();
+            new SessionReader(mProcess, mProcess.getErrorStream(), true).start();
+        }
+
+        private void destroy() {
+            isAlive = false;
+            if (mProcess != null) {
+                CloseUtils.closeIOQuietly(mWriter);
+                mProcess.destroy();
+                mProcess = null;
+                mWriter = null;
+            }
+        }
+
+        private void onLine(Process process, String line, boolean isError) {
+            SessionCommand current = mCurrent;
+            if (current == null || process != mProcess) {
+                return;
+            }
+            int index = line.indexOf(current.mMarker);
+            if (index < 0) {
+                current.append(line, isError);
+                return;
+            }
+            if (index > 0) {
+                // 输出末尾没有换行时，标记跟在最后一行后面
+                current.append(line.substring(0, index), isError);
+            }
+            if (!isError) {
+                try {
+                    current.mExitCode = Integer.parseInt(line.substring(index + current.mMarker.length()).trim());
+                } catch (Exception e) {
+                    current.mExitCode = -1;
+                }
+            }
+            current.mLatch.countDown();
+        }
+
+        private void onStreamClosed(Process process) {
+            /**
+             * sh进程退出（如命令语法错误、执行了exit），结束当前命令
+             */
+            if (process != mProcess) {
+                return;
+            }
+            isAlive = false;
+            /**
+             * 一个流关闭后进程不再可用，销毁进程，关闭另一个流并回收进程资源，下一条命令重新启动
+             */
+            process.destroy();
+            SessionCommand current = mCurrent;
+            if (current != null) {
+                current.mExitCode = -1;
+                while (current.mLatch.getCount() > 0) {
+                    current.mLatch.countDown();
+                }
+            }
+        }
+
+        /**
+         * 持续读取一个输出流
+         */
+        private class SessionReader extends Thread {
+
+            private final Process mOwner;
+            private final InputStream mInputStream;
+            private final boolean isError;
+
+            SessionReader(Process owner, InputStream inputStream, boolean isError) {
+                super(isError ? "ShellSession-err" : "ShellSession-out");
+                mOwner = owner;
+                mInputStream = inputStream;
+                this.isError = isError;
+                setDaemon(true);
+            }
+
+            @Override
+            public void run() {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(mInputStream));
+                try {
+                    String line = null;
+                    while ((line = reader.readLine()) != null) {
+                        onLine(mOwner, line, isError);
+                    }
+                } catch (Exception e) {
+                    // 进程销毁时流被关闭
+                } finally {
+                    CloseUtils.closeIOQuietly(reader);
+                    onStreamClosed(mOwner);
+                }
+            }
+        }
+    }
+
+    /**
+     * 会话中的一条命令
+     */
+    private static class SessionCommand {
+
+        private final String mMarker;
+        private final StringBuilder mOutput = new StringBuilder();
+        private final StringBuilder mError = new StringBuilder();
+        private final CountDownLatch mLatch = new CountDownLatch(2);
+        private volatile int mExitCode = -1;
+
+        SessionCommand(String marker) {
+            mMarker = marker;
+        }
+
+        synchronized void append(String line, boolean isError) {
+            StringBuilder builder = isError ? mError : mOutput;
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(line);
+        }
+
+        synchronized CommandResult toResult(int resultCode) {
+            return new CommandResult(resultCode, mOutput.toString(), mError.toString());
+        }
     }
 }
@@ -1,6 +1,12 @@
 package com.excellence.basetoolslibrary.utils;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <pre>
@@ -8,10 +14,18 @@ import java.lang.reflect.Method;
  *     blog   : http://tiimor.cn
  *     time   : 2018/9/10
  *     desc   : 系统属性相关
+ *              反射方法只在首次使用时查找一次
+ *              启动时需要读取大量属性时，使用{@link #getSnapshot()}一次读取全部属性
+ *              getprop失败的结果也缓存一段时间，期间不再重复执行getprop
  * </pre>
  */
 public class SystemPropertyUtils {
 
+    private static final long SNAPSHOT_TIMEOUT_MILLIS = 5 * 1000;
+    private static final long SNAPSHOT_RETRY_MILLIS = 60 * 1000;
+    private static final Object SNAPSHOT_LOCK = new Object();
+    private static volatile Snapshot sSnapshot = null;
+
     /**
      * 获取系统属性值
      *
@@ -21,10 +35,11 @@ public class SystemPropertyUtils {
     public static String get(String key) {
         String ret = null;
         try {
-            Class<?> clazz = Class.forName("android.os.SystemProperties");
-            Method mthd = clazz.getMethod("get", new Class[]{String.class});
-            mthd.setAccessible(true);
-            Object obj = mthd.invoke(clazz, new Object[]{key});
+            Method mthd = Methods.GET;
+            if (mthd == null) {
+                return ret;
+            }
+            Object obj = mthd.invoke(null, new Object[]{key});
             if (obj != null && obj instanceof String) {
                 ret = (String) obj;
             }
@@ -44,10 +59,11 @@ public class SystemPropertyUtils {
     public static String get(String key, String def) {
         String ret = def;
         try {
-            Class<?> clazz = Class.forName("android.os.SystemProperties");
-            Method mthd = clazz.getMethod("get", new Class[]{String.class, String.class});
-            mthd.setAccessible(true);
-            Object obj = mthd.invoke(clazz, new Object[]{key, def});
+            Method mthd = Methods.GET_DEF;
+            if (mthd == null) {
+                return ret;
+            }
+            Object obj = mthd.invoke(null, new Object[]{key, def});
             if (obj != null && obj instanceof String) {
                 ret = (String) obj;
             }
@@ -67,10 +83,11 @@ public class SystemPropertyUtils {
     public static boolean getBoolean(String key, boolean def) {
         boolean ret = def;
         try {
-            Class<?> clazz = Class.forName("android.os.SystemProperties");
-            Method mthd = clazz.getMethod("getBoolean", new Class[]{String.class, boolean.class});
-            mthd.setAccessible(true);
-            Object obj = mthd.invoke(clazz, new Object[]{key, def});
+            Method mthd = Methods.GET_BOOLEAN;
+            if (mthd == null) {
+                return ret;
+            }
+            Object obj = mthd.invoke(null, new Object[]{key, def});
             if (obj != null && obj instanceof Boolean) {
                 ret = (Boolean) obj;
             }
@@ -90,10 +107,11 @@ public class SystemPropertyUtils {
     public static int getInt(String key, int def) {
         int ret = def;
         try {
-            Class<?> clazz = Class.forName("android.os.SystemProperties");
-            Method mthd = clazz.getMethod("getInt", new Class[]{String.class, int.class});
-            mthd.setAccessible(true);
-            Object obj = mthd.invoke(clazz, new Object[]{key, def});
+            Method mthd = Methods.GET_INT;
+            if (mthd == null) {
+                return ret;
+            }
+            Object obj = mthd.invoke(null, new Object[]{key, def});
             if (obj != null && obj instanceof Integer) {
                 ret = (Integer) obj;
             }
@@ -113,10 +131,11 @@ public class SystemPropertyUtils {
     public static long getLong(String key, long def) {
         long ret = def;
         try {
-            Class<?> clazz = Class.forName("android.os.SystemProperties");
-            Method mthd = clazz.getMethod("getLong", new Class[]{String.class, long.class});
-            mthd.setAccessible(true);
-            Object obj = mthd.invoke(clazz, new Object[]{key, def});
+            Method mthd = Methods.GET_LONG;
+            if (mthd == null) {
+                return ret;
+            }
+            Object obj = mthd.invoke(null, new Object[]{key, def});
             if (obj != null && obj instanceof Long) {
                 ret = (Long) obj;
             }
@@ -134,15 +153,247 @@ public class SystemPropertyUtils {
      */
     public static void set(String key, String value) {
         try {
-            Class<?> clazz = Class.forName("android.os.SystemProperties");
-            Method mthd = clazz.getMethod("set", new Class[]{String.class, String.class});
-            mthd.setAccessible(true);
-            mthd.invoke(clazz, new Object[]{key, value});
+            Method mthd = Methods.SET;
+            if (mthd == null) {
+                return;
+            }
+            mthd.invoke(null, new Object[]{key, value});
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * 所有系统属性的快照，首次调用时执行一次getprop读取
+     * getprop失败或超时时返回已读取到的部分属性，失败的结果缓存{@link #SNAPSHOT_RETRY_MILLIS}，之后的调用才重新读取
+     *
+     * @return 不可修改的属性表
+     */
+    public static Map<String, String> getSnapshot() {
+        return obtainSnapshot().mProperties;
+    }
+
+    /**
+     * 从快照中读取属性值，快照中没有时通过{@link #get(String, String)}读取
+     * 首次读取快照失败后不再执行getprop，直接通过{@link #get(String, String)}读取，直到{@link #refreshSnapshot()}成功
+     *
+     * @param key
+     * @param def
+     * @return
+     */
+    public static String getFromSnapshot(String key, String def) {
+        Snapshot snapshot = sSnapshot;
+        if (snapshot == null) {
+            snapshot = obtainSnapshot();
+        }
+        if (!snapshot.isComplete) {
+            return get(key, def);
+        }
+        String value = snapshot.mProperties.get(key);
+        return value == null ? get(key, def) : value;
+    }
+
+    /**
+     * 重新读取快照，属性没有变化时保留原快照对象；getprop失败或超时时保留原来完整的快照
+     *
+     * @return 新增、删除和值改变的属性名
+     */
+    public static Set<String> refreshSnapshot() {
+        synchronized (SNAPSHOT_LOCK) {
+            GetpropParser parser = loadSnapshot();
+            if (!parser.isComplete()) {
+                if (sSnapshot == null || !sSnapshot.isComplete) {
+                    sSnapshot = new Snapshot(parser);
+                }
+                return Collections.emptySet();
+            }
+            Map<String, String> oldSnapshot = sSnapshot == null ? Collections.<String, String>emptyMap() : sSnapshot.mProperties;
+            Map<String, String> newSnapshot = parser.getProperties();
+            Set<String> changedKeys = new HashSet<>();
+            for (Map.Entry<String, String> entry : newSnapshot.entrySet()) {
+                if (!entry.getValue().equals(oldSnapshot.get(entry.getKey()))) {
+                    changedKeys.add(entry.getKey());
+                }
+            }
+            for (String key : oldSnapshot.keySet()) {
+                if (!newSnapshot.containsKey(key)) {
+                    changedKeys.add(key);
+                }
+            }
+            if (sSnapshot == null || !sSnapshot.isComplete || !changedKeys.isEmpty()) {
+                sSnapshot = new Snapshot(parser);
+            }
+            return changedKeys;
+        }
+    }
+
+    /**
+     * 缓存的快照，没有或失败的快照已过期时重新读取
+     */
+    private static Snapshot obtainSnapshot() {
+        Snapshot snapshot = sSnapshot;
+        if (snapshot == null || snapshot.isExpired()) {
+            synchronized (SNAPSHOT_LOCK) {
+                snapshot = sSnapshot;
+                if (snapshot == null || snapshot.isExpired()) {
+                    snapshot = new Snapshot(loadSnapshot());
+                    sSnapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 执行getprop并解析输出
+     */
+    private static GetpropParser loadSnapshot() {
+        final GetpropParser parser = new GetpropParser();
+        ShellUtils.CommandHandle handle = ShellUtils.execStreamingCommand(new ShellUtils.OnCommandOutputListener() {
+            @Override
+            public void onOutput(String line) {
+                parser.parseLine(line);
+            }
+
+            @Override
+            public void onComplete(ShellUtils.CommandResult result) {
+
+            }
+        }, "getprop");
+        ShellUtils.CommandResult result = handle.waitFor(SNAPSHOT_TIMEOUT_MILLIS);
+        if (result == null) {
+            handle.cancel();
+            handle.waitFor(SNAPSHOT_TIMEOUT_MILLIS);
+        }
+        parser.finish(result != null && result.resultCode == 0 && !handle.isCancelled());
+        return parser;
+    }
+
+    /**
+     * <pre>
+     * 解析getprop的输出：[key]: [value]，值中包含换行时跨多行
+     *
+     * 以“[key]: [”开头的行开始一个新属性，其余的行都是上一个属性值的后续行；
+     * 值的某一行以]结尾并不代表值结束，读到下一个属性或输出结束时，上一个属性才完整
+     * </pre>
+     */
+    static final class GetpropParser {
+
+        private static final String SEPARATOR = "]: [";
+
+        private final Map<String, String> mProperties = new HashMap<>();
+        private final StringBuilder mPending = new StringBuilder();
+        private String mPendingKey = null;
+        private boolean isTruncated = false;
+        private boolean isComplete = false;
+
+        synchronized void parseLine(String line) {
+            int separator = line.indexOf(SEPARATOR);
+            if (line.startsWith("[") && separator > 0) {
+                flush();
+                mPendingKey = line.substring(1, separator);
+                mPending.append(line, separator + SEPARATOR.length(), line.length());
+            } else if (mPendingKey != null) {
+                mPending.append('\n').append(line);
+            }
+        }
+
+        /**
+         * 输出结束
+         *
+         * @param success getprop是否正常退出
+         */
+        synchronized void finish(boolean success) {
+            flush();
+            isComplete = success && !isTruncated;
+        }
+
+        synchronized boolean isComplete() {
+            return isComplete;
+        }
+
+        synchronized Map<String, String> getProperties() {
+            return Collections.unmodifiableMap(new HashMap<>(mProperties));
+        }
+
+        private void flush() {
+            if (mPendingKey == null) {
+                return;
+            }
+            int length = mPending.length();
+            if (length > 0 && mPending.charAt(length - 1) == ']') {
+                mProperties.put(mPendingKey, mPending.substring(0, length - 1));
+            } else {
+                // 输出被截断，没有结束的]，值不完整
+                isTruncated = true;
+            }
+            mPendingKey = null;
+            mPending.setLength(0);
+        }
+    }
+
+    /**
+     * 一次getprop的结果，失败时也记录读取时间
+     */
+    private static final class Snapshot {
+
+        private final Map<String, String> mProperties;
+        private final boolean isComplete;
+        private final long mLoadTime;
+
+        Snapshot(GetpropParser parser) {
+            mProperties = parser.getProperties();
+            isComplete = parser.isComplete();
+            mLoadTime = System.nanoTime();
+        }
+
+        boolean isExpired() {
+            return !isComplete && System.nanoTime() - mLoadTime > TimeUnit.MILLISECONDS.toNanos(SNAPSHOT_RETRY_MILLIS);
+        }
+    }
+
+    /**
+     * 反射方法，首次使用时加载
+     */
+    private static final class Methods {
+
+        private static final Method GET;
+        private static final Method GET_DEF;
+        private static final Method GET_BOOLEAN;
+        private static final Method GET_INT;
+        private static final Method GET_LONG;
+        private static final Method SET;
+
+        static {
+            Class<?> clazz = null;
+            try {
+                clazz = Class.forName("android.os.SystemProperties");
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            GET = getMethod(clazz, "get", String.class);
+            GET_DEF = getMethod(clazz, "get", String.class, String.class);
+            GET_BOOLEAN = getMethod(clazz, "getBoolean", String.class, boolean.class);
+            GET_INT = getMethod(clazz, "getInt", String.class, int.class);
+            GET_LONG = getMethod(clazz, "getLong", String.class, long.class);
+            SET = getMethod(clazz, "set", String.class, String.class);
+        }
+
+        private static Method getMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+            if (clazz == null) {
+                return null;
+            }
+            try {
+                Method method = clazz.getMethod(name, parameterTypes);
+                method.setAccessible(true);
+                return method;
+            } catch (Exception e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+    }
+
     /************ 系统内核kernel信息读取 ************/
 
     /**
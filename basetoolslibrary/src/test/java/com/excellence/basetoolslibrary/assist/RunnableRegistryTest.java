@@ -0,0 +1,195 @@
+package com.excellence.basetoolslibrary.assist;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : {@link RunnableRegistry}：{@link WeakHandler}的登记与移除
+ * </pre>
+ */
+public class RunnableRegistryTest {
+
+    @Test
+    public void obtainSharesWrapperPerRunnableAndToken() {
+        RunnableRegistry registry = new RunnableRegistry();
+        Runnable r = newRunnable();
+        Object token = new Object();
+
+        assertSame(registry.obtain(r, null), registry.obtain(r, null));
+        assertSame(registry.obtain(r, token), registry.obtain(r, token));
+        assertNotSame(registry.obtain(r, null), registry.obtain(r, token));
+        assertNotSame(registry.obtain(r, token), registry.obtain(r, new Object()));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    public void lastReleaseUnregisters() {
+        RunnableRegistry registry = new RunnableRegistry();
+        Runnable r = newRunnable();
+        Object token = new Object();
+        RunnableRegistry.WeakRunnable runnable = registry.obtain(r, token);
+
+        assertTrue(runnable.acquire());
+        assertTrue(runnable.acquire());
+        runnable.release();
+        assertSame(runnable, registry.obtain(r, token));
+        runnable.release();
+
+        assertTrue(runnable.isRetired());
+        assertEquals(0, registry.size());
+        assertNotSame(runnable, registry.obtain(r, token));
+    }
+
+    @Test
+    public void retiredWrapperIsReplaced() {
+        RunnableRegistry registry = new RunnableRegistry();
+        Runnable r = newRunnable();
+        RunnableRegistry.WeakRunnable runnable = registry.obtain(r, null);
+        runnable.retire();
+
+        assertFalse(runnable.acquire());
+        assertTrue(registry.unregister(runnable));
+        assertFalse(registry.unregister(runnable));
+        RunnableRegistry.WeakRunnable replacement = registry.obtain(r, null);
+        assertNotSame(runnable, replacement);
+        assertTrue(replacement.acquire());
+    }
+
+    @Test
+    public void removeAllOnlyTouchesThatRunnable() {
+        RunnableRegistry registry = new RunnableRegistry();
+        Runnable r = newRunnable();
+        Runnable other = newRunnable();
+        Object token = new Object();
+        registry.obtain(r, null);
+        registry.obtain(r, token);
+        registry.obtain(r, new Object());
+        registry.obtain(other, null);
+        registry.obtain(other, token);
+
+        assertEquals(3, registry.removeAll(r).size());
+        assertEquals(2, registry.size());
+        assertTrue(registry.removeAll(r).isEmpty());
+        assertNull(registry.remove(r, token));
+        assertEquals(2, registry.removeAll(other).size());
+    }
+
+    @Test
+    public void removeByToken() {
+        RunnableRegistry registry = new RunnableRegistry();
+        Runnable r = newRunnable();
+        Runnable other = newRunnable();
+        Object token = new Object();
+        registry.obtain(r, null);
+        registry.obtain(r, token);
+        registry.obtain(other, token);
+        registry.obtain(other, new Object());
+
+        assertEquals(2, registry.removeByToken(token).size());
+        assertEquals(2, registry.size());
+        assertEquals(2, registry.removeByToken(null).size());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void bucketIsRecreatedAfterEmptied() {
+        RunnableRegistry registry = new RunnableRegistry();
+        Runnable r = newRunnable();
+        Object token = new Object();
+        RunnableRegistry.WeakRunnable runnable = registry.obtain(r, token);
+
+        assertSame(runnable, registry.remove(r, token));
+        RunnableRegistry.WeakRunnable replacement = registry.obtain(r, token);
+        assertNotSame(runnable, replacement);
+        assertEquals(1, registry.size());
+        assertSame(replacement, registry.remove(r, token));
+    }
+
+    /**
+     * 并发争用：多个线程对同一批Runnable和token交替投递、执行与移除，结束后所有包装都已退出登记
+     */
+    @Test
+    public void concurrentPostAndRemoveLeavesNothingRegistered() throws InterruptedException {
+        final RunnableRegistry registry = new RunnableRegistry();
+        final Runnable[] runnables = new Runnable[16];
+        for (int i = 0; i < runnables.length; i++) {
+            runnables[i] = newRunnable();
+        }
+        final Object[] tokens = {null, new Object(), new Object(), new Object()};
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final Random random = new Random(i);
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startSignal.await();
+                        for (int round = 0; round < 20000; round++) {
+                            Runnable r = runnables[random.nextInt(runnables.length)];
+                            Object token = tokens[random.nextInt(tokens.length)];
+                            RunnableRegistry.WeakRunnable runnable = registry.obtain(r, token);
+                            if (!runnable.acquire()) {
+                                registry.unregister(runnable);
+                                continue;
+                            }
+                            switch (random.nextInt(4)) {
+                                case 0:
+                                    registry.removeAll(r);
+                                    break;
+
+                                case 1:
+                                    registry.remove(r, token);
+                                    break;
+
+                                case 2:
+                                    registry.removeByToken(token);
+                                    break;
+
+                                default:
+                                    break;
+                            }
+                            runnable.run();
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        startSignal.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive());
+        }
+
+        assertNull(failure.get());
+        assertEquals(0, registry.size());
+    }
+
+    private static Runnable newRunnable() {
+        return new Runnable() {
+            @Override
+            public void run() {
+
+            }
+        };
+    }
+}
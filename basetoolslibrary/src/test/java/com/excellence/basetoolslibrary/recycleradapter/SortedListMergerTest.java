@@ -0,0 +1,293 @@
+package com.excellence.basetoolslibrary.recycleradapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : {@link SortedListMerger}：分发的操作依次作用于旧数据集后，应得到新数据集
+ * </pre>
+ */
+public class SortedListMergerTest {
+
+    private static final SortedListMerger.Callback<Item> CALLBACK = new SortedListMerger.Callback<Item>() {
+        @Override
+        public int compare(Item o1, Item o2) {
+            return o1.mRank < o2.mRank ? -1 : (o1.mRank == o2.mRank ? 0 : 1);
+        }
+
+        @Override
+        Object getItemKey(Item item) {
+            return item.mId;
+        }
+
+        @Override
+        boolean areContentsTheSame(Item oldItem, Item newItem) {
+            return oldItem.mRank == newItem.mRank;
+        }
+    };
+
+    @Test
+    public void replaceReportsSortKeyChangeAsMove() {
+        List<Item> oldData = items("a1", "b2", "c3", "d4");
+        SortedListMerger.Result<Item> result = SortedListMerger.replace(oldData, items("a1", "b2", "c3", "d0"), CALLBACK);
+        Recorder recorder = replay(oldData, result);
+
+        assertEquals(ids("d", "a", "b", "c"), ids(result.getData()));
+        assertEquals(0, recorder.mInserted);
+        assertEquals(0, recorder.mRemoved);
+        assertEquals(1, recorder.mMoved);
+        assertEquals(1, recorder.mChanged);
+        assertEquals(0, result.getFirstChanged());
+    }
+
+    @Test
+    public void replaceRemovesInsertsAndKeepsUnchanged() {
+        List<Item> oldData = items("a1", "b2", "c3", "d4", "e5");
+        SortedListMerger.Result<Item> result = SortedListMerger.replace(oldData, items("e5", "x6", "a1", "c3", "y0"), CALLBACK);
+        Recorder recorder = replay(oldData, result);
+
+        assertEquals(ids("y", "a", "c", "e", "x"), ids(result.getData()));
+        assertEquals(2, recorder.mInserted);
+        assertEquals(2, recorder.mRemoved);
+        assertEquals(0, recorder.mMoved);
+        assertEquals(0, recorder.mChanged);
+    }
+
+    @Test
+    public void replaceWithSameDataDispatchesNothing() {
+        List<Item> oldData = items("a1", "b2", "c3");
+        SortedListMerger.Result<Item> result = SortedListMerger.replace(oldData, items("c3", "a1", "b2"), CALLBACK);
+
+        assertEquals(0, result.getOperationCount());
+        assertEquals(3, result.getFirstChanged());
+    }
+
+    @Test
+    public void addAllReplacesExistingItemWithoutDuplicate() {
+        List<Item> oldData = items("a1", "b2", "c3");
+        SortedListMerger.Result<Item> result = SortedListMerger.addAll(oldData, items("x4", "b9", "y0"), CALLBACK);
+        Recorder recorder = replay(oldData, result);
+
+        assertEquals(ids("y", "a", "c", "x", "b"), ids(result.getData()));
+        assertEquals(2, recorder.mInserted);
+        assertEquals(0, recorder.mRemoved);
+        assertEquals(1, recorder.mMoved);
+        assertEquals(1, recorder.mChanged);
+    }
+
+    @Test
+    public void addAllKeepsLastOfDuplicatedNewItems() {
+        List<Item> oldData = items("a1", "c3");
+        List<Item> data = items("b2", "b5", "d4");
+        SortedListMerger.Result<Item> result = SortedListMerger.addAll(oldData, data, CALLBACK);
+        replay(oldData, result);
+
+        assertEquals(ids("a", "c", "d", "b"), ids(result.getData()));
+        assertSame(data.get(1), result.getData().get(3));
+    }
+
+    @Test
+    public void addAllPutsExistingItemBeforeEqualNewItem() {
+        List<Item> oldData = items("a1", "b2");
+        SortedListMerger.Result<Item> result = SortedListMerger.addAll(oldData, items("x2", "y1"), CALLBACK);
+        replay(oldData, result);
+
+        assertEquals(ids("a", "y", "b", "x"), ids(result.getData()));
+        assertEquals(1, result.getFirstChanged());
+    }
+
+    /**
+     * 大数据集中只有一条数据的排序位置从最前变到最后，只移动这一条
+     */
+    @Test
+    public void replaceMovesOnlyRekeyedItem() {
+        int size = 20000;
+        List<Item> oldData = new ArrayList<>();
+        List<Item> newData = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            oldData.add(new Item("k" + i, i));
+            newData.add(i == 0 ? new Item("k0", size) : oldData.get(i));
+        }
+        SortedListMerger.Result<Item> result = SortedListMerger.replace(oldData, newData, CALLBACK);
+        Recorder recorder = replay(oldData, result);
+
+        assertEquals(1, recorder.mMoved);
+        assertEquals(0, recorder.mInserted);
+        assertEquals(0, recorder.mRemoved);
+        assertEquals("k0", result.getData().get(size - 1).mId);
+    }
+
+    /**
+     * 数据较多、排序值较分散时，移动的次数等于不在最长递增子序列中的数据数
+     */
+    @Test
+    public void randomRekeyMovesOnlyItemsOutsideLongestRun() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            List<Item> oldData = new ArrayList<>();
+            List<Item> newData = new ArrayList<>();
+            int size = 1 + random.nextInt(300);
+            for (int i = 0; i < size; i++) {
+                oldData.add(new Item("k" + i, i));
+                newData.add(new Item("k" + i, random.nextInt(10) == 0 ? random.nextInt(size) : i));
+            }
+            SortedListMerger.Result<Item> result = SortedListMerger.replace(oldData, newData, CALLBACK);
+            Recorder recorder = replay(oldData, result);
+
+            assertEquals(size - longestIncreasing(result.getData()), recorder.mMoved);
+        }
+    }
+
+    @Test
+    public void randomReplaceReplaysToNewData() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<Item> oldData = randomItems(random);
+            Collections.sort(oldData, CALLBACK);
+            List<Item> newData = randomItems(random);
+            SortedListMerger.Result<Item> result = round % 2 == 0
+                    ? SortedListMerger.replace(oldData, newData, CALLBACK)
+                    : SortedListMerger.addAll(oldData, newData, CALLBACK);
+            replay(oldData, result);
+        }
+    }
+
+    /**
+     * 依次执行分发的操作，并校验结果与新数据集一致
+     */
+    private static Recorder replay(List<Item> oldData, SortedListMerger.Result<Item> result) {
+        List<Item> newData = result.getData();
+        Recorder recorder = new Recorder(oldData, newData);
+        result.dispatchUpdatesTo(recorder);
+        assertEquals(ids(newData), recorder.mIds);
+        for (int i = 1; i < newData.size(); i++) {
+            assertTrue(CALLBACK.compare(newData.get(i - 1), newData.get(i)) <= 0);
+        }
+        return recorder;
+    }
+
+    /**
+     * 新顺序中旧下标（标识k后的数字）的最长递增子序列长度，O(n²)
+     */
+    private static int longestIncreasing(List<Item> items) {
+        int[] lengths = new int[items.size()];
+        int longest = 0;
+        for (int i = 0; i < items.size(); i++) {
+            lengths[i] = 1;
+            int index = Integer.parseInt(items.get(i).mId.substring(1));
+            for (int j = 0; j < i; j++) {
+                if (Integer.parseInt(items.get(j).mId.substring(1)) < index) {
+                    lengths[i] = Math.max(lengths[i], lengths[j] + 1);
+                }
+            }
+            longest = Math.max(longest, lengths[i]);
+        }
+        return longest;
+    }
+
+    private static List<Item> randomItems(Random random) {
+        List<Item> items = new ArrayList<>();
+        List<String> used = new ArrayList<>();
+        int count = random.nextInt(12);
+        for (int i = 0; i < count; i++) {
+            String id = String.valueOf((char) ('a' + random.nextInt(16)));
+            if (!used.contains(id)) {
+                used.add(id);
+                items.add(new Item(id, random.nextInt(6)));
+            }
+        }
+        return items;
+    }
+
+    private static List<Item> items(String... values) {
+        List<Item> items = new ArrayList<>();
+        for (String value : values) {
+            items.add(new Item(value.substring(0, 1), Integer.parseInt(value.substring(1))));
+        }
+        return items;
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> ids(List<Item> items) {
+        List<String> ids = new ArrayList<>();
+        for (Item item : items) {
+            ids.add(item.mId);
+        }
+        return ids;
+    }
+
+    private static final class Item {
+
+        private final String mId;
+        private final int mRank;
+
+        Item(String id, int rank) {
+            mId = id;
+            mRank = rank;
+        }
+    }
+
+    /**
+     * 把操作作用于旧数据集的标识列表：插入总是发生在最终位置，插入的标识取自新数据集
+     */
+    private static final class Recorder implements ListUpdateCallback {
+
+        private final List<String> mIds;
+        private final List<Item> mNewData;
+        private int mInserted = 0;
+        private int mRemoved = 0;
+        private int mMoved = 0;
+        private int mChanged = 0;
+
+        Recorder(List<Item> oldData, List<Item> newData) {
+            mIds = ids(oldData);
+            mNewData = newData;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                mIds.add(position + i, mNewData.get(position + i).mId);
+            }
+            mInserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                mIds.remove(position);
+            }
+            mRemoved += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            mIds.add(toPosition, mIds.remove(fromPosition));
+            mMoved++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            assertTrue(position + count <= mIds.size());
+            mChanged += count;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.excellence.basetoolslibrary.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * <pre>
+ *     author : VeiZhang
+ *     blog   : http://tiimor.cn
+ *     time   : 2026/10/19
+ *     desc   : {@link ApkSignatureReader}：在测试中拼出只有v1签名、v2签名、v2与v3签名的apk
+ *
+ *              证书为预先生成的EC证书：CA_CERT是颁发者，SIGNER_CERT由CA_CERT签发
+ *              签名值、摘要不参与读取，用空数据填充
+ * </pre>
+ */
+public class ApkSignatureReaderTest {
+
+    private static final byte[] CA_CERT = Base64.getDecoder().decode(
+            "MIIBejCCASGgAwIBAgIUdIDcIx/1+P9f60z515rq59/Dc4QwCgYIKoZIzj0EAwIwEjEQMA4GA1UEAwwHVGVzdCBDQTAgFw0y"
+                    + "NjEwMTkwOTA2NTNaGA8yMTI2MDkyNTA5MDY1M1owEjEQMA4GA1UEAwwHVGVzdCBDQTBZMBMGByqGSM49AgEGCCqGSM49AwEH"
+                    + "A0IABIrJjjn9iig1/8Dfvf8yGljQK2/LiArk4MrBlxZq/ibA2T7MCFRv82LwVlxAM3paSYHZmN5qC7lZpnS6YZ22yB+jUzBR"
+                    + "MB0GA1UdDgQWBBRIQFK+8vI8fmXFt1+GdBmvMafqPzAfBgNVHSMEGDAWgBRIQFK+8vI8fmXFt1+GdBmvMafqPzAPBgNVHRMB"
+                    + "Af8EBTADAQH/MAoGCCqGSM49BAMCA0cAMEQCIF2ckx4BddqwraJwV9fDRkwy7hIm+Byxk0h23m+ZxBD3AiBWK2XRmMu2xmn6"
+                    + "cmTXxq2zCfmL/lwMXLpvvDUL2Mwqmw==");
+
+    private static final byte[] SIGNER_CERT = Base64.getDecoder().decode(
+            "MIIBIzCBywIUSgWwY+Uh70NSVhAfneDvXvHUdq0wCgYIKoZIzj0EAwIwEjEQMA4GA1UEAwwHVGVzdCBDQTAgFw0yNjEwMTkw"
+                    + "OTA2NTNaGA8yMTI2MDkyNTA5MDY1M1owFjEUMBIGA1UEAwwLVGVzdCBTaWduZXIwWTATBgcqhkjOPQIBBggqhkjOPQMBBwNC"
+                    + "AARkIuOa0GCFfVsrubu6kVnuh+EVkBo0LkWlHSqSaSXco8W7dN61ZpvMpoqVgY/NNFlHWHf9NTBt4nkASWh09nWwMAoGCCqG"
+                    + "SM49BAMCA0cAMEQCID6DFSrzETJu8qkD6RPVE821SGPRiQebqVdQhUcY44t2AiAvo0s+FwZT9BSgK5waH8MLWL8KFSGLqvPX"
+                    + "fBln2H0iRQ==");
+
+    private static final int V2_BLOCK_ID = 0x7109871a;
+    private static final int V3_BLOCK_ID = 0xf05368c0;
+
+    private static final byte[] OID_SIGNED_DATA = {0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x07, 0x02};
+    private static final byte[] OID_DATA = {0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x07, 0x01};
+
+    /**
+     * v1：PKCS#7中颁发者证书在前，应取签名者的证书
+     */
+    @Test
+    public void v1OnlyReadsSignerCertificateNotIssuer() throws Exception {
+        File apk = writeApk(zip(true), null);
+
+        assertArrayEquals(SIGNER_CERT, ApkSignatureReader.readCertificate(apk));
+    }
+
+    @Test
+    public void v2ReadsFirstCertificateOfFirstSigner() throws Exception {
+        File apk = writeApk(zip(false), signingBlock(pair(V2_BLOCK_ID, signerBlock(SIGNER_CERT, CA_CERT))));
+
+        assertArrayEquals(SIGNER_CERT, ApkSignatureReader.readCertificate(apk));
+    }
+
+    /**
+     * v3优先于v2，也优先于v1
+     */
+    @Test
+    public void v3TakesPrecedenceOverV2AndV1() throws Exception {
+        File apk = writeApk(zip(true), signingBlock(
+                pair(V2_BLOCK_ID, signerBlock(CA_CERT)),
+                pair(V3_BLOCK_ID, signerBlock(SIGNER_CERT, CA_CERT))));
+
+        assertArrayEquals(SIGNER_CERT, ApkSignatureReader.readCertificate(apk));
+    }
+
+    /**
+     * 签名块损坏时回退到v1
+     */
+    @Test
+    public void corruptedSigningBlockFallsBackToV1() throws Exception {
+        byte[] block = signingBlock(pair(V2_BLOCK_ID, new byte[]{1, 2, 3}));
+        File apk = writeApk(zip(true), block);
+
+        assertArrayEquals(SIGNER_CERT, ApkSignatureReader.readCertificate(apk));
+    }
+
+    @Test
+    public void unsignedApkHasNoCertificate() throws Exception {
+        File apk = writeApk(zip(false), null);
+
+        assertNull(ApkSignatureReader.readCertificate(apk));
+    }
+
+    @Test
+    public void selfSignedOnlyCertificateIsSigner() throws Exception {
+        List<Certificate> certificates = new ArrayList<>();
+        certificates.add(CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(CA_CERT)));
+
+        assertArrayEquals(CA_CERT, ApkSignatureReader.findSignerCertificate(certificates).getEncoded());
+    }
+
+    /**
+     * 普通的zip，v1签名时加上META-INF/CERT.RSA
+     */
+    private static byte[] zip(boolean v1Signed) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ZipOutputStream zos = new ZipOutputStream(bytes);
+        zos.putNextEntry(new ZipEntry("AndroidManifest.xml"));
+        zos.write(new byte[]{3, 0, 8, 0});
+        zos.closeEntry();
+        if (v1Signed) {
+            zos.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zos.write("Manifest-Version: 1.0\r\n\r\n".getBytes("UTF-8"));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("META-INF/CERT.RSA"));
+            zos.write(pkcs7(CA_CERT, SIGNER_CERT));
+            zos.closeEntry();
+        }
+        zos.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 把签名块插入到中央目录之前，并修正中央目录结束记录中的偏移
+     */
+    private static File writeApk(byte[] zip, byte[] signingBlock) throws Exception {
+        byte[] apk = zip;
+        if (signingBlock != null) {
+            ByteBuffer eocd = ByteBuffer.wrap(zip, zip.length - 22, 22).slice().order(ByteOrder.LITTLE_ENDIAN);
+            int centralDirOffset = eocd.getInt(16);
+            apk = new byte[zip.length + signingBlock.length];
+            System.arraycopy(zip, 0, apk, 0, centralDirOffset);
+            System.arraycopy(signingBlock, 0, apk, centralDirOffset, signingBlock.length);
+            System.arraycopy(zip, centralDirOffset, apk, centralDirOffset + signingBlock.length, zip.length - centralDirOffset);
+            ByteBuffer.wrap(apk).order(ByteOrder.LITTLE_ENDIAN).putInt(apk.length - 22 + 16, centralDirOffset + signingBlock.length);
+        }
+        File file = File.createTempFile("signature", ".apk");
+        file.deleteOnExit();
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(apk);
+        } finally {
+            os.close();
+        }
+        return file;
+    }
+
+    /**
+     * APK Signing Block：size(8) | ID-值对 | size(8) | magic(16)
+     */
+    private static byte[] signingBlock(byte[]... pairs) {
+        byte[] content = concat(pairs);
+        long size = content.length + 8 + 16;
+        ByteBuffer block = ByteBuffer.allocate((int) size + 8).order(ByteOrder.LITTLE_ENDIAN);
+        block.putLong(size);
+        block.put(content);
+        block.putLong(size);
+        block.put("APK Sig Block 42".getBytes());
+        return block.array();
+    }
+
+    private static byte[] pair(int id, byte[] value) {
+        ByteBuffer pair = ByteBuffer.allocate(12 + value.length).order(ByteOrder.LITTLE_ENDIAN);
+        pair.putLong(4 + value.length);
+        pair.putInt(id);
+        pair.put(value);
+        return pair.array();
+    }
+
+    /**
+     * v2/v3：signers[signer[signed data[digests, certificates, ...], signatures, public key]]
+     */
+    private static byte[] signerBlock(byte[]... certificates) {
+        List<byte[]> encoded = new ArrayList<>();
+        for (byte[] certificate : certificates) {
+            encoded.add(lengthPrefixed(certificate));
+        }
+        byte[] signedData = concat(lengthPrefixed(new byte[0]), lengthPrefixed(concat(encoded.toArray(new byte[0][]))),
+                lengthPrefixed(new byte[0]));
+        byte[] signer = concat(lengthPrefixed(signedData), lengthPrefixed(new byte[0]), lengthPrefixed(new byte[0]));
+        return lengthPrefixed(lengthPrefixed(signer));
+    }
+
+    private static byte[] lengthPrefixed(byte[] value) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + value.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(value.length);
+        buffer.put(value);
+        return buffer.array();
+    }
+
+    /**
+     * 只有证书、没有SignerInfo的PKCS#7 SignedData
+     */
+    private static byte[] pkcs7(byte[]... certificates) {
+        byte[] signedData = der(0x30, concat(
+                der(0x02, new byte[]{1}),
+                der(0x31, new byte[0]),
+                der(0x30, OID_DATA),
+                der(0xa0, concat(certificates)),
+                der(0x31, new byte[0])));
+        return der(0x30, concat(OID_SIGNED_DATA, der(0xa0, signedData)));
+    }
+
+    private static byte[] der(int tag, byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(tag);
+        int length = content.length;
+        if (length < 0x80) {
+            out.write(length);
+        } else if (length < 0x100) {
+            out.write(0x81);
+            out.write(length);
+        } else {
+            out.write(0x82);
+            out.write(length >> 8);
+            out.write(length & 0xff);
+        }
+        out.write(content, 0, length);
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] array : arrays) {
+            out.write(array, 0, array.length);
+        }
+        return out.toByteArray();
+    }
+}